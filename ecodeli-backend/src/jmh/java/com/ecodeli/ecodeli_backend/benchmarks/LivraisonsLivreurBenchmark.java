@@ -0,0 +1,183 @@
+package com.ecodeli.ecodeli_backend.benchmarks;
+
+import com.ecodeli.ecodeli_backend.repositories.LivraisonRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.testcontainers.containers.MariaDBContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latence des livraisons d'un livreur selon la taille de l'historique (10k, 100k et 1M livraisons),
+ * sur MariaDB (Testcontainers, Docker requis) :
+ * <ul>
+ *   <li>ancien chemin : toutes les livraisons lues puis filtrées en mémoire (borne basse, sans
+ *       l'hydratation des entités ni le chargement des annonces) ;</li>
+ *   <li>une seule requête avec OR sur les trois colonnes livreur, non indexable ;</li>
+ *   <li>la requête UNION ALL de LivraisonRepository, liste complète et première page.</li>
+ * </ul>
+ * Chaque livreur garde une cinquantaine de livraisons quelle que soit la taille de la table :
+ * seule la requête indexée doit garder une latence stable. Le mode SampleTime donne les
+ * percentiles (p0.99 dans le rapport) :
+ * <pre>mvn -Pjmh -DskipTests verify -Djmh.inclure=LivraisonsLivreurBenchmark</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LivraisonsLivreurBenchmark {
+
+    private static final int LIVRAISONS_PAR_LIVREUR = 50;
+    private static final int TAILLE_PAGE = 20;
+
+    // Colonnes lues par les requêtes ; les index sont ceux de la migration V1
+    private static final String[] SCHEMA = {
+        "CREATE TABLE ANNONCE (id_annonce INT PRIMARY KEY, titre VARCHAR(255), " +
+        "statut ENUM('PUBLIEE','VALIDEE') NOT NULL, code_postal_depart VARCHAR(10), " +
+        "date_creation DATETIME(6), id_expediteur INT NOT NULL, id_livreur INT)",
+        "CREATE TABLE LIVRAISON (id_livraison INT PRIMARY KEY, id_annonce INT, " +
+        "statut ENUM('VALIDEE','EN_COURS','TERMINEE'), type_livraison ENUM('DIRECTE','PARTIELLE'), " +
+        "livreur_segment_1 INT, livreur_segment_2 INT, prix INT, adresse_envoi VARCHAR(100), " +
+        "adresse_de_livraison VARCHAR(100), date_debut DATETIME(6), id_expediteur INT NOT NULL)"
+    };
+
+    private static final String LIVRAISONS_AVEC_LIVREUR =
+        "SELECT l.*, a.id_livreur FROM LIVRAISON l LEFT JOIN ANNONCE a ON a.id_annonce = l.id_annonce";
+
+    private static final String REQUETE_OR =
+        "SELECT l.* FROM LIVRAISON l LEFT JOIN ANNONCE a ON a.id_annonce = l.id_annonce " +
+        "WHERE (l.type_livraison = 'DIRECTE' AND a.id_livreur = :livreurId) " +
+        "OR (l.type_livraison = 'PARTIELLE' AND (l.livreur_segment_1 = :livreurId OR l.livreur_segment_2 = :livreurId)) " +
+        "ORDER BY l.id_livraison DESC";
+
+    @Param({"10000", "100000", "1000000"})
+    private int lignes;
+
+    private MariaDBContainer<?> mariaDb;
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private NamedParameterJdbcTemplate requetes;
+    private int livreurs;
+
+    @Setup(Level.Trial)
+    public void preparer() throws IOException {
+        mariaDb = new MariaDBContainer<>(DockerImageName.parse("mariadb:11.2"));
+        mariaDb.start();
+        dataSource = new SingleConnectionDataSource(mariaDb.getJdbcUrl(), mariaDb.getUsername(),
+            mariaDb.getPassword(), true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        requetes = new NamedParameterJdbcTemplate(jdbcTemplate);
+        livreurs = Math.max(1, lignes / LIVRAISONS_PAR_LIVREUR);
+
+        for (String table : SCHEMA) {
+            jdbcTemplate.execute(table);
+        }
+        for (String index : indexMigration()) {
+            jdbcTemplate.execute(index);
+        }
+
+        // Une annonce par livraison ; une livraison sur deux est DIRECTE (livreur porté par l'annonce),
+        // l'autre PARTIELLE avec deux livreurs de segment différents
+        jdbcTemplate.update(
+            "INSERT INTO ANNONCE (id_annonce, titre, statut, code_postal_depart, date_creation, id_expediteur, id_livreur) " +
+            "SELECT seq, CONCAT('Colis ', seq), 'VALIDEE', LPAD(seq % 95 + 1, 5, '0'), NOW() - INTERVAL seq MINUTE, " +
+            "seq % 1000 + 1, IF(seq % 2 = 0, seq % ? + 1, NULL) FROM seq_1_to_" + lignes, livreurs);
+        jdbcTemplate.update(
+            "INSERT INTO LIVRAISON (id_livraison, id_annonce, statut, type_livraison, livreur_segment_1, livreur_segment_2, " +
+            "prix, adresse_envoi, adresse_de_livraison, date_debut, id_expediteur) " +
+            "SELECT seq, seq, 'TERMINEE', IF(seq % 2 = 0, 'DIRECTE', 'PARTIELLE'), " +
+            "IF(seq % 2 = 1, seq % ? + 1, NULL), IF(seq % 2 = 1, (seq + 7) % ? + 1, NULL), 40, " +
+            "'12 rue de Rivoli, 75001 Paris', '3 place Bellecour, 69002 Lyon', NOW() - INTERVAL seq MINUTE, " +
+            "seq % 1000 + 1 FROM seq_1_to_" + lignes, livreurs, livreurs);
+        jdbcTemplate.execute("ANALYZE TABLE ANNONCE, LIVRAISON");
+    }
+
+    @TearDown(Level.Trial)
+    public void arreter() {
+        dataSource.destroy();
+        mariaDb.stop();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> ancienFiltreEnMemoire() {
+        Integer livreurId = livreurAuHasard();
+        List<Map<String, Object>> resultat = new ArrayList<>();
+        jdbcTemplate.query(LIVRAISONS_AVEC_LIVREUR, ligne -> {
+            boolean directe = "DIRECTE".equals(ligne.getString("type_livraison"));
+            boolean trouvee = directe
+                ? livreurId.equals(ligne.getObject("id_livreur", Integer.class))
+                : livreurId.equals(ligne.getObject("livreur_segment_1", Integer.class))
+                  || livreurId.equals(ligne.getObject("livreur_segment_2", Integer.class));
+            if (trouvee) {
+                resultat.add(Map.of("idLivraison", ligne.getInt("id_livraison")));
+            }
+        });
+        return resultat;
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> requeteOr() {
+        return requetes.queryForList(REQUETE_OR, Map.of("livreurId", livreurAuHasard()));
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> unionIndexee() {
+        return requetes.queryForList(LivraisonRepository.LIVRAISONS_LIVREUR_TRIEES,
+            Map.of("livreurId", livreurAuHasard()));
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> unionIndexeePremierePage() {
+        return requetes.queryForList(LivraisonRepository.LIVRAISONS_LIVREUR_TRIEES + " LIMIT " + TAILLE_PAGE,
+            Map.of("livreurId", livreurAuHasard()));
+    }
+
+    private Integer livreurAuHasard() {
+        return ThreadLocalRandom.current().nextInt(livreurs) + 1;
+    }
+
+    // Index des deux tables repris de la migration, pour mesurer les mêmes définitions qu'en production
+    private static List<String> indexMigration() throws IOException {
+        try (InputStream migration = LivraisonsLivreurBenchmark.class
+                .getResourceAsStream("/db/migration/V1__index_requetes_frequentes.sql")) {
+            if (migration == null) {
+                throw new IllegalStateException("Migration V1__index_requetes_frequentes.sql introuvable");
+            }
+            List<String> index = new ArrayList<>();
+            for (String instruction : new String(migration.readAllBytes(), StandardCharsets.UTF_8).split(";")) {
+                String sql = instruction.lines()
+                    .filter(ligne -> !ligne.startsWith("--"))
+                    .reduce("", (a, b) -> a + " " + b)
+                    .trim();
+                if (sql.contains(" ON LIVRAISON ") || sql.contains(" ON ANNONCE ")) {
+                    index.add(sql);
+                }
+            }
+            return index;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.ecodeli.ecodeli_backend.benchmarks;
+
+import com.ecodeli.ecodeli_backend.models.TemplateContrat;
+import com.ecodeli.ecodeli_backend.services.template.TemplateService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendu des templates : ancien chemin (lecture du fichier à chaque email puis un String.replace
+ * par valeur) contre templates compilés et mis en cache par TemplateService, valeurs échappées.
+ * Mêmes réglages que SerialisationReponsesBenchmark, octets alloués par rendu avec le profileur GC :
+ * <pre>mvn -Pjmh -DskipTests verify -Djmh.inclure=RenduTemplatesBenchmark</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RenduTemplatesBenchmark {
+
+    private static final String TEMPLATE_BIENVENUE = "templates/welcome-email.html";
+
+    private TemplateService templateService;
+    private TemplateContrat templateContrat;
+    private Map<String, String> valeursBienvenue;
+    private Map<String, String> valeursContrat;
+
+    @Setup
+    public void preparer() {
+        templateService = new TemplateService();
+
+        valeursBienvenue = new HashMap<>();
+        valeursBienvenue.put("prenom", "Camille");
+        valeursBienvenue.put("nom", "Durand");
+        valeursBienvenue.put("email", "camille.durand@ecodeli.test");
+        valeursBienvenue.put("role", "Commerçant");
+        valeursBienvenue.put("dateInscription", "01/06/2024 à 09:00");
+
+        valeursContrat = new HashMap<>();
+        valeursContrat.put("NOM_COMMERCE", "L'Épicerie \"Bio & Local\"");
+        valeursContrat.put("PRENOM_COMMERCANT", "Camille");
+        valeursContrat.put("NOM_COMMERCANT", "Durand");
+        valeursContrat.put("EMAIL_COMMERCANT", "camille.durand@ecodeli.test");
+        valeursContrat.put("TELEPHONE_COMMERCANT", "0601020304");
+        valeursContrat.put("SIRET", "73282932000074");
+        valeursContrat.put("DATE_AUJOURDHUI", "01/06/2024");
+
+        // Contrat d'une vingtaine d'articles reprenant les informations du commerçant
+        StringBuilder contenu = new StringBuilder("<html><body><h1>Contrat {{NOM_COMMERCE}}</h1>");
+        for (int article = 1; article <= 20; article++) {
+            contenu.append("<h2>Article ").append(article).append("</h2><p>Entre EcoDeli et {{NOM_COMMERCE}}, ")
+                .append("représenté par {{PRENOM_COMMERCANT}} {{NOM_COMMERCANT}} (SIRET {{SIRET}}), joignable au ")
+                .append("{{TELEPHONE_COMMERCANT}} ou à {{EMAIL_COMMERCANT}}. Les parties conviennent des ")
+                .append("conditions de livraison, de facturation et de résiliation décrites ci-après.</p>");
+        }
+        contenu.append("<p>Fait le {{DATE_AUJOURDHUI}}</p></body></html>");
+
+        templateContrat = new TemplateContrat();
+        templateContrat.setIdTemplate(1);
+        templateContrat.setContenuTemplate(contenu.toString());
+        templateContrat.setDateCreation(LocalDateTime.of(2024, 6, 1, 9, 0));
+    }
+
+    @Benchmark
+    public String bienvenueAvant() throws IOException {
+        String template = new String(new ClassPathResource(TEMPLATE_BIENVENUE).getInputStream().readAllBytes(),
+            StandardCharsets.UTF_8);
+        return remplacer(template, valeursBienvenue);
+    }
+
+    @Benchmark
+    public String bienvenueCompile() {
+        return templateService.rendreClasspath(TEMPLATE_BIENVENUE, valeursBienvenue);
+    }
+
+    @Benchmark
+    public String contratAvant() {
+        return remplacer(templateContrat.getContenuTemplate(), valeursContrat);
+    }
+
+    @Benchmark
+    public String contratCompile() {
+        return templateService.rendreContrat(templateContrat, valeursContrat);
+    }
+
+    // Ancien rendu d'EmailService : une copie complète du template par valeur
+    private static String remplacer(String template, Map<String, String> valeurs) {
+        for (Map.Entry<String, String> entry : valeurs.entrySet()) {
+            template = template.replace("{{" + entry.getKey() + "}}", entry.getValue());
+        }
+        return template;
+    }
+}
@@ -0,0 +1,197 @@
+package com.ecodeli.ecodeli_backend.benchmarks;
+
+import com.ecodeli.ecodeli_backend.config.JacksonConfig;
+import com.ecodeli.ecodeli_backend.dto.response.LivraisonLivreurItem;
+import com.ecodeli.ecodeli_backend.dto.response.TransactionPortefeuilleItem;
+import com.ecodeli.ecodeli_backend.models.Annonce;
+import com.ecodeli.ecodeli_backend.models.Livraison;
+import com.ecodeli.ecodeli_backend.models.TransactionPortefeuille;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût d'une réponse de liste (construction des lignes puis sérialisation JSON) : maps par ligne,
+ * comme avant, contre records. À lancer avec le profileur GC pour obtenir les octets alloués par
+ * réponse (gc.alloc.rate.norm) :
+ * <pre>mvn -Pjmh -DskipTests verify</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerialisationReponsesBenchmark {
+
+    @Param({"20", "100"})
+    private int lignes;
+
+    private ObjectMapper mapper;
+    private List<Livraison> livraisons;
+    private List<TransactionPortefeuille> transactions;
+
+    @Setup
+    public void preparer() {
+        mapper = new JacksonConfig().objectMapper();
+        livraisons = new ArrayList<>(lignes);
+        transactions = new ArrayList<>(lignes);
+        LocalDateTime maintenant = LocalDateTime.of(2024, 6, 1, 9, 0);
+
+        for (int i = 0; i < lignes; i++) {
+            Annonce annonce = new Annonce();
+            annonce.setTitre("Colis " + i);
+            annonce.setDescription("Carton de livres, 30x40 cm, à remettre en main propre");
+            annonce.setEmailDestinataire("destinataire" + i + "@ecodeli.test");
+
+            Livraison livraison = new Livraison();
+            livraison.setIdLivraison(i);
+            livraison.setAnnonce(annonce);
+            livraison.setStatut(Livraison.StatutLivraison.VALIDEE);
+            livraison.setTypeLivraison(i % 2 == 0 ? Livraison.TypeLivraison.DIRECTE : Livraison.TypeLivraison.PARTIELLE);
+            livraison.setPrix(40 + i);
+            livraison.setAdresseEnvoi("12 rue de Rivoli, 75001 Paris");
+            livraison.setAdresseDeLivraison("3 place Bellecour, 69002 Lyon");
+            livraison.setDateDebut(maintenant.plusHours(i));
+            livraison.setDateFin(maintenant.plusHours(i + 6));
+            livraison.setEntrepotVille("Dijon");
+            livraisons.add(livraison);
+
+            TransactionPortefeuille transaction = new TransactionPortefeuille();
+            transaction.setIdTransaction((long) i);
+            transaction.setTypeTransaction(i % 3 == 0
+                ? TransactionPortefeuille.TypeTransaction.RETRAIT_PRESTATAIRE
+                : TransactionPortefeuille.TypeTransaction.CREDIT_MISSION);
+            transaction.setMontant(new BigDecimal("47.50"));
+            transaction.setStatutTransaction(TransactionPortefeuille.StatutTransaction.EFFECTUE);
+            transaction.setDescription("Paiement mission " + i);
+            transaction.setReferenceExterne("REF-" + i);
+            transaction.setIbanDestinataire(i % 3 == 0 ? "FR7630006000011234567890189" : null);
+            transaction.setDateTransaction(maintenant.minusDays(i));
+            transaction.setDateTraitement(maintenant.minusDays(i).plusMinutes(2));
+            transactions.add(transaction);
+        }
+    }
+
+    @Benchmark
+    public byte[] livraisonsLivreurMaps() throws JsonProcessingException {
+        List<Map<String, Object>> reponse = new ArrayList<>(lignes);
+        for (Livraison livraison : livraisons) {
+            reponse.add(livraisonEnMap(livraison, segment(livraison)));
+        }
+        return mapper.writeValueAsBytes(reponse);
+    }
+
+    @Benchmark
+    public byte[] livraisonsLivreurRecords() throws JsonProcessingException {
+        List<LivraisonLivreurItem> reponse = new ArrayList<>(lignes);
+        for (Livraison livraison : livraisons) {
+            reponse.add(LivraisonLivreurItem.depuis(livraison, segment(livraison)));
+        }
+        return mapper.writeValueAsBytes(reponse);
+    }
+
+    @Benchmark
+    public byte[] transactionsMaps() throws JsonProcessingException {
+        List<Map<String, Object>> reponse = new ArrayList<>(lignes);
+        for (TransactionPortefeuille transaction : transactions) {
+            reponse.add(transactionEnMap(transaction));
+        }
+        return mapper.writeValueAsBytes(reponse);
+    }
+
+    @Benchmark
+    public byte[] transactionsRecords() throws JsonProcessingException {
+        List<TransactionPortefeuilleItem> reponse = new ArrayList<>(lignes);
+        for (TransactionPortefeuille t : transactions) {
+            // Constructeur à plat appelé par la requête JPQL
+            reponse.add(new TransactionPortefeuilleItem(t.getIdTransaction(), t.getTypeTransaction(), t.getMontant(),
+                t.getStatutTransaction(), t.getDescription(), t.getDateTransaction(), t.getDateTraitement(),
+                t.getReferenceExterne(), t.getIbanDestinataire(), null));
+        }
+        return mapper.writeValueAsBytes(reponse);
+    }
+
+    private static String segment(Livraison livraison) {
+        return livraison.getTypeLivraison() == Livraison.TypeLivraison.PARTIELLE ? "SEGMENT_1" : null;
+    }
+
+    // Ancienne construction de LivraisonController
+    private static Map<String, Object> livraisonEnMap(Livraison livraison, String segment) {
+        Map<String, Object> livraisonData = new HashMap<>();
+        livraisonData.put("idLivraison", livraison.getIdLivraison());
+        livraisonData.put("statut", livraison.getStatut());
+        livraisonData.put("typeLivraison", livraison.getTypeLivraison());
+
+        Integer prixAffiche = livraison.getPrix();
+        if (livraison.getTypeLivraison() == Livraison.TypeLivraison.PARTIELLE) {
+            prixAffiche = prixAffiche / 2;
+        }
+        livraisonData.put("prix", prixAffiche);
+        livraisonData.put("prixTotal", livraison.getPrix());
+        livraisonData.put("adresseEnvoi", livraison.getAdresseEnvoi());
+        livraisonData.put("adresseDeLivraison", livraison.getAdresseDeLivraison());
+        livraisonData.put("dateDebut", livraison.getDateDebut());
+        livraisonData.put("dateFin", livraison.getDateFin());
+
+        if (livraison.getAnnonce() != null) {
+            livraisonData.put("titre", livraison.getAnnonce().getTitre());
+            livraisonData.put("description", livraison.getAnnonce().getDescription());
+            livraisonData.put("emailDestinataire", livraison.getAnnonce().getEmailDestinataire());
+        }
+
+        if (livraison.getTypeLivraison() == Livraison.TypeLivraison.PARTIELLE) {
+            livraisonData.put("entrepotVille", livraison.getEntrepotVille());
+            livraisonData.put("dateDepotEntrepot", livraison.getDateDepotEntrepot());
+            livraisonData.put("dateCollecteEntrepot", livraison.getDateCollecteEntrepot());
+            livraisonData.put("segment", segment);
+
+            boolean canStart = livraison.getStatut() == Livraison.StatutLivraison.VALIDEE;
+            livraisonData.put("canStart", canStart);
+            livraisonData.put("statusMessage", canStart ? "Prêt à démarrer" : "En attente");
+        }
+
+        return livraisonData;
+    }
+
+    // Ancienne construction de PaiementFictifService
+    private static Map<String, Object> transactionEnMap(TransactionPortefeuille transaction) {
+        Map<String, Object> transactionMap = new HashMap<>();
+        transactionMap.put("idTransaction", transaction.getIdTransaction());
+        transactionMap.put("type", transaction.getTypeTransaction().name());
+        transactionMap.put("typeLabel", transaction.getTypeTransaction().getLabel());
+        transactionMap.put("montant", transaction.getMontant());
+        transactionMap.put("statut", transaction.getStatutTransaction().name());
+        transactionMap.put("statutLabel", transaction.getStatutTransaction().getLabel());
+        transactionMap.put("description", transaction.getDescriptionComplete());
+        transactionMap.put("dateTransaction", transaction.getDateTransaction());
+        transactionMap.put("dateTraitement", transaction.getDateTraitement());
+        transactionMap.put("reference", transaction.getReferenceExterne());
+        transactionMap.put("isCredit", transaction.isCredit());
+        transactionMap.put("isDebit", transaction.isDebit());
+
+        if (transaction.getIbanDestinataire() != null) {
+            transactionMap.put("ibanDestination", TransactionPortefeuille.masquerIban(transaction.getIbanDestinataire()));
+        }
+
+        return transactionMap;
+    }
+}
@@ -6,6 +6,7 @@ import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -48,6 +49,8 @@ public class JacksonConfig {
         });
         mapper.registerModule(javaTimeModule);
         mapper.registerModule(customModule);
+        // Accesseurs générés (LambdaMetafactory) au lieu de la réflexion pour les DTO et records des réponses
+        mapper.registerModule(new BlackbirdModule());
         return mapper;
     }
 }
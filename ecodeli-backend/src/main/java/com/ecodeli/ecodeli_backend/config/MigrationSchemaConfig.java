@@ -0,0 +1,34 @@
+package com.ecodeli.ecodeli_backend.config;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+
+/**
+ * Les tables sont créées par Hibernate (ddl-auto) : les migrations Flyway, qui ajoutent
+ * les index, ne peuvent donc s'exécuter qu'une fois l'EntityManagerFactory initialisée.
+ */
+@Configuration
+public class MigrationSchemaConfig {
+
+    /**
+     * Neutralise la migration automatique de Spring Boot, lancée avant JPA
+     */
+    @Bean
+    public FlywayMigrationStrategy migrationDifferee() {
+        return flyway -> { };
+    }
+
+    @Bean
+    @DependsOn("entityManagerFactory")
+    public MigrationsApresJpa migrationsApresJpa(Flyway flyway, PlansRequetesVerifier plansRequetesVerifier) {
+        flyway.migrate();
+        plansRequetesVerifier.verifier();
+        return new MigrationsApresJpa();
+    }
+
+    public static class MigrationsApresJpa {
+    }
+}
@@ -0,0 +1,259 @@
+package com.ecodeli.ecodeli_backend.config;
+
+import com.ecodeli.ecodeli_backend.models.Annonce;
+import com.ecodeli.ecodeli_backend.models.CategorieAnnonce;
+import com.ecodeli.ecodeli_backend.models.DemandeService;
+import com.ecodeli.ecodeli_backend.models.Livraison;
+import com.ecodeli.ecodeli_backend.repositories.AnnonceCommercantRepository;
+import com.ecodeli.ecodeli_backend.repositories.AnnonceRepository;
+import com.ecodeli.ecodeli_backend.repositories.DemandeServiceRepository;
+import com.ecodeli.ecodeli_backend.repositories.EmailOutboxRepository;
+import com.ecodeli.ecodeli_backend.repositories.EvaluationMissionRepository;
+import com.ecodeli.ecodeli_backend.repositories.LivraisonRepository;
+import com.ecodeli.ecodeli_backend.repositories.TransactionLivreurRepository;
+import com.ecodeli.ecodeli_backend.repositories.TransactionPortefeuilleRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Query;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Vérifie par EXPLAIN que chaque requête fréquente est servie par son index : l'index attendu
+ * doit apparaître dans le plan et aucune table ne doit être parcourue entièrement (type ALL).
+ * Les requêtes vérifiées sont celles des repositories : le SQL généré par Hibernate est capturé
+ * sans être exécuté, puis expliqué avec des paramètres représentatifs.
+ * Au démarrage les écarts sont seulement signalés, l'optimiseur préférant un parcours complet
+ * sur des tables presque vides ; le contrôle bloquant est PlansRequetesVerifierTest, exécuté
+ * au build sur un jeu de données peuplé.
+ */
+@Component
+@Slf4j
+public class PlansRequetesVerifier {
+
+    /**
+     * Requête d'un repository (JPQL ou SQL natif), paramètres nommés et taille de page éventuelle
+     */
+    record RequeteFrequente(String index, String requete, boolean natif, Map<String, Object> parametres,
+                            Integer limite) {
+    }
+
+    private static final LocalDateTime REFERENCE = LocalDateTime.now();
+
+    static final List<RequeteFrequente> REQUETES = List.of(
+        // Livraisons d'un livreur : une branche de l'UNION ALL par index
+        natif("idx_annonce_livreur", LivraisonRepository.LIVRAISONS_LIVREUR_TRIEES, 20,
+            "livreurId", 1),
+        natif("idx_livraison_annonce_type", LivraisonRepository.LIVRAISONS_LIVREUR_TRIEES, 20,
+            "livreurId", 1),
+        natif("idx_livraison_segment1_type", LivraisonRepository.LIVRAISONS_LIVREUR_TRIEES, 20,
+            "livreurId", 1),
+        natif("idx_livraison_segment2_type", LivraisonRepository.LIVRAISONS_LIVREUR_TRIEES, 20,
+            "livreurId", 1),
+        jpql("idx_livraison_statut", LivraisonRepository.LIVRAISONS_FILTREES, null,
+            "statut", Livraison.StatutLivraison.EN_COURS, "type", null),
+
+        // Fil des annonces : première page, page suivante (curseur) et filtre par code postal
+        jpql("idx_annonce_statut_date", AnnonceRepository.FEED, 20,
+            "statut", Annonce.StatutAnnonce.PUBLIEE, "codePostal", null, "ville", null,
+            "prixMin", null, "prixMax", null, "partielle", null),
+        jpql("idx_annonce_statut_date", AnnonceRepository.FEED_APRES, 20,
+            "statut", Annonce.StatutAnnonce.PUBLIEE, "codePostal", null, "ville", null,
+            "prixMin", null, "prixMax", null, "partielle", null,
+            "apresDate", REFERENCE.minusDays(1), "apresId", 2500),
+        jpql("idx_annonce_statut_cp_date", AnnonceRepository.FEED, 20,
+            "statut", Annonce.StatutAnnonce.PUBLIEE, "codePostal", "v5", "ville", null,
+            "prixMin", null, "prixMax", null, "partielle", null),
+        jpql("idx_annonce_expediteur", AnnonceRepository.ANNONCES_EXPEDITEUR, null,
+            "expediteurId", 1),
+
+        // Demandes de service
+        jpql("idx_demande_categorie_statut_date", DemandeServiceRepository.DISPONIBLES_TRIEES, 20,
+            "prestataireId", 1),
+        jpql("idx_candidature_prestataire_demande", DemandeServiceRepository.DISPONIBLES_TRIEES, 20,
+            "prestataireId", 1),
+        jpql("idx_demande_details_urgence", DemandeServiceRepository.RECHERCHE, null,
+            "categorie", null, "statut", DemandeService.StatutDemande.PUBLIEE, "urgence", "urgent", "frequence", null),
+        jpql("idx_demande_details_frequence", DemandeServiceRepository.RECHERCHE, null,
+            "categorie", null, "statut", DemandeService.StatutDemande.PUBLIEE, "urgence", null, "frequence", "ponctuelle"),
+
+        // Historiques et évaluations
+        jpql("idx_transaction_portefeuille_date", TransactionPortefeuilleRepository.TRANSACTION_ITEMS_PRESTATAIRE, 20,
+            "prestataireId", 1),
+        jpql("idx_transaction_livreur_date", TransactionLivreurRepository.JOURNAL_LIVREUR, null,
+            "livreurId", 1),
+        jpql("idx_evaluation_prestataire", EvaluationMissionRepository.EVALUATION_ITEMS_PRESTATAIRE, null,
+            "prestataireId", 1),
+
+        jpql("idx_annonce_commercant_statut_categorie_expiration", AnnonceCommercantRepository.ACTIVES_PAR_CATEGORIE, null,
+            "categorie", CategorieAnnonce.LIVRAISON_PONCTUELLE, "now", REFERENCE),
+        natif("idx_email_outbox_statut_tentative", EmailOutboxRepository.ECHUS_SQL, null,
+            "maintenant", REFERENCE, "limite", 50)
+    );
+
+    // Paramètre nommé (:nom), hors syntaxe de cast ::type
+    private static final Pattern PARAMETRE = Pattern.compile("(?<![:\\w]):(\\w+)");
+    private static final Pattern LITTERAL = Pattern.compile("'[^']*'");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final boolean active;
+
+    public PlansRequetesVerifier(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory,
+                                 @Value("${app.schema.verification-plans.active:true}") boolean active) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.active = active;
+    }
+
+    public void verifier() {
+        if (!active) {
+            return;
+        }
+
+        List<String> echecs = echecs();
+        if (echecs.isEmpty()) {
+            log.info("Plans des requêtes fréquentes vérifiés: {} index utilisé(s)", REQUETES.size());
+            return;
+        }
+        echecs.forEach(echec -> log.warn("Plan de requête: {}", echec));
+    }
+
+    /**
+     * Écarts constatés, un par requête fréquente dont le plan n'utilise pas l'index attendu
+     */
+    public List<String> echecs() {
+        List<String> echecs = new ArrayList<>();
+        for (RequeteFrequente requete : REQUETES) {
+            String echec = verifier(requete);
+            if (echec != null) {
+                echecs.add(echec);
+            }
+        }
+        return echecs;
+    }
+
+    private String verifier(RequeteFrequente requete) {
+        String sql = sqlGenere(requete);
+        if (sql == null) {
+            return requete.index() + ": aucun SQL généré pour: " + requete.requete();
+        }
+
+        // Hibernate émet un ? par occurrence de paramètre nommé, dans l'ordre du texte, puis la limite
+        List<Object> valeurs = new ArrayList<>();
+        Matcher parametre = PARAMETRE.matcher(sansLitteraux(requete.requete()));
+        while (parametre.find()) {
+            if (!requete.parametres().containsKey(parametre.group(1))) {
+                return requete.index() + ": paramètre :" + parametre.group(1) + " sans valeur pour: " + requete.requete();
+            }
+            valeurs.add(valeurJdbc(requete.parametres().get(parametre.group(1))));
+        }
+        long marqueurs = sansLitteraux(sql).chars().filter(c -> c == '?').count();
+        if (requete.limite() != null && marqueurs == valeurs.size() + 1) {
+            valeurs.add(requete.limite());
+        }
+        if (marqueurs != valeurs.size()) {
+            return requete.index() + ": " + marqueurs + " paramètre(s) JDBC pour " + valeurs.size()
+                + " valeur(s) dans: " + sql;
+        }
+
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, valeurs.toArray());
+        boolean indexUtilise = false;
+        for (Map<String, Object> ligne : plan) {
+            String table = String.valueOf(ligne.get("table"));
+            // Les tables dérivées (<derived2>, <union2,3>, <subquery2>) sont produites par la requête
+            if ("ALL".equals(String.valueOf(ligne.get("type"))) && !table.startsWith("<")) {
+                return requete.index() + ": parcours complet de " + table + " (" + resume(plan) + ") pour: " + sql;
+            }
+            Object cle = ligne.get("key");
+            if (cle != null && Arrays.asList(cle.toString().split(",")).contains(requete.index())) {
+                indexUtilise = true;
+            }
+        }
+        return indexUtilise ? null : requete.index() + " non utilisé (" + resume(plan) + ") pour: " + sql;
+    }
+
+    /**
+     * SQL que Hibernate enverrait pour la requête du repository : l'inspecteur de la session le
+     * capture puis interrompt l'exécution avant l'envoi à la base
+     */
+    private String sqlGenere(RequeteFrequente requete) {
+        List<String> capture = new ArrayList<>();
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        try (Session session = sessionFactory.withOptions()
+                .statementInspector(sql -> {
+                    capture.add(sql);
+                    throw new RequeteCapturee();
+                })
+                .openSession()) {
+            EntityManager entityManager = session;
+            Query query = requete.natif()
+                ? entityManager.createNativeQuery(requete.requete())
+                : entityManager.createQuery(requete.requete());
+            requete.parametres().forEach(query::setParameter);
+            if (requete.limite() != null) {
+                query.setMaxResults(requete.limite());
+            }
+            query.getResultList();
+        } catch (RuntimeException e) {
+            if (capture.isEmpty()) {
+                log.debug("Génération du SQL impossible pour {}", requete.index(), e);
+            }
+        }
+        return capture.isEmpty() ? null : capture.get(0);
+    }
+
+    private static String resume(List<Map<String, Object>> plan) {
+        return plan.stream()
+            .map(ligne -> ligne.get("table") + " " + ligne.get("type") + " " + ligne.get("key"))
+            .collect(Collectors.joining(", "));
+    }
+
+    private static String sansLitteraux(String requete) {
+        return LITTERAL.matcher(requete).replaceAll("''");
+    }
+
+    private static Object valeurJdbc(Object valeur) {
+        return valeur instanceof Enum<?> constante ? constante.name() : valeur;
+    }
+
+    private static RequeteFrequente jpql(String index, String requete, Integer limite, Object... parametres) {
+        return new RequeteFrequente(index, requete, false, parametres(parametres), limite);
+    }
+
+    private static RequeteFrequente natif(String index, String requete, Integer limite, Object... parametres) {
+        return new RequeteFrequente(index, requete, true, parametres(parametres), limite);
+    }
+
+    // Map.of refuse les valeurs nulles, qui sont ici les filtres optionnels non renseignés
+    private static Map<String, Object> parametres(Object... nomsEtValeurs) {
+        Map<String, Object> parametres = new HashMap<>();
+        for (int i = 0; i < nomsEtValeurs.length; i += 2) {
+            parametres.put((String) nomsEtValeurs[i], nomsEtValeurs[i + 1]);
+        }
+        return parametres;
+    }
+
+    /**
+     * Interrompt l'exécution d'une requête dont le SQL vient d'être capturé
+     */
+    private static final class RequeteCapturee extends RuntimeException {
+        RequeteCapturee() {
+            super(null, null, false, false);
+        }
+    }
+}
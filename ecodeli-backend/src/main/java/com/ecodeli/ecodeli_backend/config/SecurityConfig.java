@@ -42,6 +42,8 @@ public class SecurityConfig {
                 .requestMatchers("/api/admin/documents/view/**").hasRole("ADMIN")
                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
                 .requestMatchers("/api/planning/**").hasRole("PRESTATAIRE")
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .requestMatchers("/api/documents/upload").authenticated()
                 .anyRequest().authenticated())
             .addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
@@ -4,10 +4,12 @@ import com.ecodeli.ecodeli_backend.models.ContratCommercant;
 import com.ecodeli.ecodeli_backend.models.TemplateContrat;
 import com.ecodeli.ecodeli_backend.models.ContratCommercant.StatutContrat;
 import com.ecodeli.ecodeli_backend.services.ContratService;
+import com.ecodeli.ecodeli_backend.services.export.ExportCsvService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
 import java.util.List;
@@ -22,6 +24,9 @@ public class AdminContratController {
     @Autowired
     private ContratService contratService;
 
+    @Autowired
+    private ExportCsvService exportCsvService;
+
     @GetMapping
     public ResponseEntity<?> getAllContrats(@RequestParam(required = false) String statut) {
         try {
@@ -84,6 +89,11 @@ public class AdminContratController {
             String contenuContrat = (String) requestData.get("contenuContrat");
             Integer idAdmin = (Integer) requestData.get("idAdmin");
             String commentaire = (String) requestData.get("commentaire");
+            Integer idTemplate = (Integer) requestData.get("idTemplate");
+
+            if ((contenuContrat == null || contenuContrat.trim().isEmpty()) && idTemplate != null) {
+                contenuContrat = contratService.genererContenuContrat(idTemplate, idContrat);
+            }
 
             if (contenuContrat == null || contenuContrat.trim().isEmpty()) {
                 return ResponseEntity.badRequest().body(Map.of(
@@ -319,6 +329,11 @@ public class AdminContratController {
         }
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exporterContrats(@RequestParam(defaultValue = "false") boolean gzip) {
+        return exportCsvService.telecharger("contrats", gzip, contratService.exporterContrats(gzip));
+    }
+
     @GetMapping("/statistiques")
     public ResponseEntity<?> getStatistiques() {
         try {
@@ -1,10 +1,16 @@
 package com.ecodeli.ecodeli_backend.controllers.admin;
 
+import com.ecodeli.ecodeli_backend.dto.response.LivraisonAdminDetail;
+import com.ecodeli.ecodeli_backend.dto.response.LivraisonAdminItem;
 import com.ecodeli.ecodeli_backend.models.Livraison;
 import com.ecodeli.ecodeli_backend.services.LivraisonService;
+import com.ecodeli.ecodeli_backend.services.LivraisonStatistiquesService;
+import com.ecodeli.ecodeli_backend.services.export.ExportCsvService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
 import java.util.List;
@@ -18,46 +24,42 @@ public class AdminLivraisonController {
     @Autowired
     private LivraisonService livraisonService;
 
+    @Autowired
+    private ExportCsvService exportCsvService;
+
+    @Autowired
+    private LivraisonStatistiquesService livraisonStatistiquesService;
+
     @GetMapping
-    public ResponseEntity<List<Map<String, Object>>> getAllLivraisons(
+    public ResponseEntity<List<LivraisonAdminDetail>> getAllLivraisons(
             @RequestParam(required = false) String statut,
             @RequestParam(required = false) String type) {
-        List<Livraison> livraisons = livraisonService.getAllLivraisons();
-
-        if (statut != null && !statut.isEmpty()) {
-            try {
-                Livraison.StatutLivraison statutEnum = Livraison.StatutLivraison.valueOf(statut.toUpperCase());
-                livraisons = livraisons.stream()
-                    .filter(l -> l.getStatut() == statutEnum)
-                    .toList();
-            } catch (IllegalArgumentException e) {
-                // ignore le filtre
-            }
-        }
+        List<Livraison> livraisons = livraisonService.getLivraisonsFiltrees(statut, type);
 
-        if (type != null && !type.isEmpty()) {
-            try {
-                Livraison.TypeLivraison typeEnum = Livraison.TypeLivraison.valueOf(type.toUpperCase());
-                livraisons = livraisons.stream()
-                    .filter(l -> l.getTypeLivraison() == typeEnum)
-                    .toList();
-            } catch (IllegalArgumentException e) {
-                // ignore le filtre
-            }
-        }
-
-        List<Map<String, Object>> enrichedLivraisons = livraisons.stream()
-            .map(this::enrichLivraisonData)
+        List<LivraisonAdminDetail> enrichedLivraisons = livraisons.stream()
+            .map(LivraisonAdminDetail::depuis)
             .toList();
         return ResponseEntity.ok(enrichedLivraisons);
     }
 
+    @GetMapping("/paginated")
+    public ResponseEntity<Slice<LivraisonAdminItem>> getLivraisonsPaginated(
+            @RequestParam(required = false) String statut,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String tri,
+            @RequestParam(defaultValue = "desc") String sens) {
+        Slice<LivraisonAdminItem> livraisons = livraisonService.getLivraisonsAdmin(statut, type, search, page, size, tri, sens);
+        return ResponseEntity.ok(livraisons);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> getLivraisonById(@PathVariable Integer id) {
+    public ResponseEntity<LivraisonAdminDetail> getLivraisonById(@PathVariable Integer id) {
         try {
             Livraison livraison = livraisonService.getLivraisonById(id);
-            Map<String, Object> enrichedData = enrichLivraisonData(livraison);
-            return ResponseEntity.ok(enrichedData);
+            return ResponseEntity.ok(LivraisonAdminDetail.depuis(livraison));
         } catch (Exception e) {
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("error", "Livraison non trouvée");
@@ -78,7 +80,7 @@ public class AdminLivraisonController {
 
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Statut mis à jour avec succès");
-            response.put("livraison", enrichLivraisonData(livraison));
+            response.put("livraison", LivraisonAdminDetail.depuis(livraison));
 
             return ResponseEntity.ok(response);
 
@@ -100,7 +102,7 @@ public class AdminLivraisonController {
 
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Livraison annulée avec succès");
-            response.put("livraison", enrichLivraisonData(livraison));
+            response.put("livraison", LivraisonAdminDetail.depuis(livraison));
 
             return ResponseEntity.ok(response);
 
@@ -111,127 +113,19 @@ public class AdminLivraisonController {
         }
     }
 
-    @GetMapping("/stats")
-    public ResponseEntity<Map<String, Object>> getLivraisonsStats() {
-        List<Livraison> livraisons = livraisonService.getAllLivraisons();
-
-        Map<String, Object> stats = new HashMap<>();
-
-        stats.put("totalLivraisons", livraisons.size());
-
-        Map<String, Long> parStatut = new HashMap<>();
-        for (Livraison.StatutLivraison statut : Livraison.StatutLivraison.values()) {
-            long count = livraisons.stream()
-                .filter(l -> l.getStatut() == statut)
-                .count();
-            parStatut.put(statut.name(), count);
-        }
-        stats.put("parStatut", parStatut);
-
-        Map<String, Long> parType = new HashMap<>();
-        for (Livraison.TypeLivraison type : Livraison.TypeLivraison.values()) {
-            long count = livraisons.stream()
-                .filter(l -> l.getTypeLivraison() == type)
-                .count();
-            parType.put(type.name(), count);
-        }
-        stats.put("parType", parType);
-
-        Integer revenusTotal = livraisons.stream()
-            .filter(l -> l.getStatut() == Livraison.StatutLivraison.TERMINEE)
-            .mapToInt(l -> l.getPrix() != null ? l.getPrix() : 0)
-            .sum();
-        stats.put("revenusTotal", revenusTotal);
-
-        return ResponseEntity.ok(stats);
-    }
-
-    private Map<String, Object> enrichLivraisonData(Livraison livraison) {
-        Map<String, Object> data = new HashMap<>();
-
-        data.put("idLivraison", livraison.getIdLivraison());
-        data.put("statut", livraison.getStatut().name());
-        data.put("statutLabel", getStatutLabel(livraison.getStatut()));
-        data.put("typeLivraison", livraison.getTypeLivraison().name());
-        data.put("typeLivraisonLabel", getTypeLabel(livraison.getTypeLivraison()));
-        data.put("prix", livraison.getPrix());
-        data.put("adresseEnvoi", livraison.getAdresseEnvoi());
-        data.put("codePostalEnvoi", livraison.getCodePostalEnvoi());
-        data.put("adresseDeLivraison", livraison.getAdresseDeLivraison());
-        data.put("codePostalLivraison", livraison.getCodePostalLivraison());
-        data.put("dateDebut", livraison.getDateDebut());
-        data.put("dateFin", livraison.getDateFin());
-        data.put("validation", livraison.getValidation());
-        data.put("codeValidation", livraison.getCodeValidation());
-
-        if (livraison.getExpediteur() != null) {
-            Map<String, Object> expediteurData = new HashMap<>();
-            expediteurData.put("id", livraison.getExpediteur().getIdUtilisateur());
-            expediteurData.put("nom", livraison.getExpediteur().getNom());
-            expediteurData.put("prenom", livraison.getExpediteur().getPrenom());
-            expediteurData.put("email", livraison.getExpediteur().getEmail());
-            data.put("expediteur", expediteurData);
-        }
-
-        if (livraison.getDestinataire() != null) {
-            Map<String, Object> destinataireData = new HashMap<>();
-            destinataireData.put("id", livraison.getDestinataire().getIdUtilisateur());
-            destinataireData.put("nom", livraison.getDestinataire().getNom());
-            destinataireData.put("prenom", livraison.getDestinataire().getPrenom());
-            destinataireData.put("email", livraison.getDestinataire().getEmail());
-            data.put("destinataire", destinataireData);
-        }
-
-        if (livraison.getAnnonce() != null) {
-            Map<String, Object> annonceData = new HashMap<>();
-            annonceData.put("id", livraison.getAnnonce().getIdAnnonce());
-            annonceData.put("titre", livraison.getAnnonce().getTitre());
-            annonceData.put("description", livraison.getAnnonce().getDescription());
-            annonceData.put("emailDestinataire", livraison.getAnnonce().getEmailDestinataire());
-            data.put("annonce", annonceData);
-        }
-
-        if (livraison.getTypeLivraison() == Livraison.TypeLivraison.PARTIELLE) {
-            data.put("entrepotVille", livraison.getEntrepotVille());
-            data.put("dateDepotEntrepot", livraison.getDateDepotEntrepot());
-            data.put("dateCollecteEntrepot", livraison.getDateCollecteEntrepot());
-
-            if (livraison.getLivreurSegment1() != null) {
-                Map<String, Object> livreur1Data = new HashMap<>();
-                livreur1Data.put("id", livraison.getLivreurSegment1().getIdUtilisateur());
-                livreur1Data.put("nom", livraison.getLivreurSegment1().getNom());
-                livreur1Data.put("prenom", livraison.getLivreurSegment1().getPrenom());
-                data.put("livreurSegment1", livreur1Data);
-            }
-
-            if (livraison.getLivreurSegment2() != null) {
-                Map<String, Object> livreur2Data = new HashMap<>();
-                livreur2Data.put("id", livraison.getLivreurSegment2().getIdUtilisateur());
-                livreur2Data.put("nom", livraison.getLivreurSegment2().getNom());
-                livreur2Data.put("prenom", livraison.getLivreurSegment2().getPrenom());
-                data.put("livreurSegment2", livreur2Data);
-            }
-        }
-
-        return data;
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exporterLivraisons(@RequestParam(defaultValue = "false") boolean gzip) {
+        return exportCsvService.telecharger("livraisons", gzip, livraisonService.exporterLivraisons(gzip));
     }
 
-    private String getStatutLabel(Livraison.StatutLivraison statut) {
-        return switch (statut) {
-            case VALIDEE -> "Validée";
-            case EN_COURS -> "En cours";
-            case ATTENTE_SEGMENT_2 -> "Attente segment 2";
-            case SEGMENT_2_EN_COURS -> "Segment 2 en cours";
-            case ARRIVED -> "Arrivé";
-            case TERMINEE -> "Terminée";
-            case ANNULEE -> "Annulée";
-        };
-    }
-
-    private String getTypeLabel(Livraison.TypeLivraison type) {
-        return switch (type) {
-            case DIRECTE -> "Directe";
-            case PARTIELLE -> "Partielle";
-        };
+    /**
+     * Statistiques des livraisons : mode=exact (agrégats SQL, par défaut) ou mode=live (compteurs en mémoire)
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getLivraisonsStats(@RequestParam(defaultValue = "exact") String mode) {
+        Map<String, Object> stats = "live".equalsIgnoreCase(mode)
+            ? livraisonStatistiquesService.getStatistiquesLive()
+            : livraisonStatistiquesService.getStatistiquesExactes();
+        return ResponseEntity.ok(stats);
     }
 }
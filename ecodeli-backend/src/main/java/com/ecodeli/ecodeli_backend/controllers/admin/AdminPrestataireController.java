@@ -4,9 +4,13 @@ import com.ecodeli.ecodeli_backend.models.Prestataire;
 import com.ecodeli.ecodeli_backend.models.PrestataireCategorie;
 import com.ecodeli.ecodeli_backend.models.Justificatif;
 import com.ecodeli.ecodeli_backend.services.AdminPrestataireService;
+import com.ecodeli.ecodeli_backend.services.EvaluationService;
+import com.ecodeli.ecodeli_backend.services.export.ExportCsvService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
 import java.util.List;
@@ -20,6 +24,12 @@ public class AdminPrestataireController {
     @Autowired
     private AdminPrestataireService adminPrestataireService;
 
+    @Autowired
+    private EvaluationService evaluationService;
+
+    @Autowired
+    private ExportCsvService exportCsvService;
+
     /**
      * Récupérer tous les prestataires
      */
@@ -148,6 +158,30 @@ public class AdminPrestataireController {
         return ResponseEntity.ok(prestataires);
     }
 
+    /**
+     * Rechercher des prestataires avec filtres, tri et pagination
+     */
+    @PostMapping("/recherche/paginated")
+    public ResponseEntity<Page<Prestataire>> rechercherPrestatairesPaginated(
+            @RequestBody(required = false) Map<String, Object> filtres,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String tri,
+            @RequestParam(defaultValue = "asc") String sens) {
+        Page<Prestataire> prestataires = adminPrestataireService.rechercherPrestataires(filtres, page, size, tri, sens);
+        return ResponseEntity.ok(prestataires);
+    }
+
+    /**
+     * Compter les prestataires correspondant aux filtres
+     */
+    @PostMapping("/recherche/count")
+    public ResponseEntity<Map<String, Object>> compterPrestataires(@RequestBody(required = false) Map<String, Object> filtres) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("total", adminPrestataireService.compterPrestataires(filtres));
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Obtenir les statistiques des prestataires
      */
@@ -157,24 +191,36 @@ public class AdminPrestataireController {
         return ResponseEntity.ok(stats);
     }
 
+    /**
+     * Reconstruire les résumés de notes depuis les évaluations
+     */
+    @PostMapping("/evaluations/reconstruire-resumes")
+    public ResponseEntity<Map<String, Object>> reconstruireResumesNotes() {
+        int resumes = evaluationService.reconstruireResumesNotes();
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Résumés de notes reconstruits");
+        response.put("prestataires", resumes);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Exporter la liste des prestataires
      */
     @GetMapping("/export")
-    public ResponseEntity<byte[]> exporterPrestataires(@RequestParam(defaultValue = "csv") String format) {
-        try {
-            byte[] data = adminPrestataireService.exporterPrestataires(format);
-            
-            String contentType = format.equals("pdf") ? "application/pdf" : "text/csv";
-            String fileName = "prestataires_" + java.time.LocalDate.now() + "." + format;
-            
-            return ResponseEntity.ok()
-                    .header("Content-Type", contentType)
-                    .header("Content-Disposition", "attachment; filename=" + fileName)
-                    .body(data);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
-        }
+    public ResponseEntity<StreamingResponseBody> exporterPrestataires(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        StreamingResponseBody corps = adminPrestataireService.exporterPrestataires(format, gzip);
+        return exportCsvService.telecharger("prestataires", gzip, corps);
+    }
+
+    /**
+     * Exporter les transactions des portefeuilles prestataires
+     */
+    @GetMapping("/transactions/export")
+    public ResponseEntity<StreamingResponseBody> exporterTransactions(@RequestParam(defaultValue = "false") boolean gzip) {
+        return exportCsvService.telecharger("transactions", gzip, adminPrestataireService.exporterTransactions(gzip));
     }
 
     /**
@@ -1,15 +1,16 @@
 package com.ecodeli.ecodeli_backend.controllers.admin;
 
+import com.ecodeli.ecodeli_backend.dto.response.UtilisateurAdminItem;
 import com.ecodeli.ecodeli_backend.models.Utilisateur;
 import com.ecodeli.ecodeli_backend.services.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/admin/users")
@@ -20,7 +21,7 @@ public class AdminUserController {
     private UserService userService;
 
     @GetMapping
-    public ResponseEntity<List<Map<String, Object>>> getAllUsers(
+    public ResponseEntity<List<UtilisateurAdminItem>> getAllUsers(
             @RequestParam(required = false) String type) {
 
         List<Utilisateur> users;
@@ -30,13 +31,23 @@ public class AdminUserController {
             users = userService.getAllUsers();
         }
 
-        List<Map<String, Object>> enrichedUsers = users.stream()
-            .map(this::enrichUserData)
-            .collect(Collectors.toList());
+        List<UtilisateurAdminItem> enrichedUsers = users.stream()
+            .map(UtilisateurAdminItem::depuis)
+            .toList();
 
         return ResponseEntity.ok(enrichedUsers);
     }
 
+    @GetMapping("/paginated")
+    public ResponseEntity<Page<UtilisateurAdminItem>> getUsersPaginated(
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        Page<UtilisateurAdminItem> users = userService.getUsersPaginated(type, page, size)
+            .map(UtilisateurAdminItem::depuis);
+        return ResponseEntity.ok(users);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Utilisateur> getUserById(@PathVariable Integer id) {
         Utilisateur user = userService.getUserById(id);
@@ -62,34 +73,15 @@ public class AdminUserController {
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getUserStats() {
         Map<String, Object> stats = new HashMap<>();
+        Map<String, Long> comptages = userService.getUserCountsByType();
 
-        stats.put("totalUsers", userService.getAllUsers().size());
-        stats.put("clients", userService.getUserCountByType("CLIENT"));
-        stats.put("livreurs", userService.getUserCountByType("LIVREUR"));
-        stats.put("commercants", userService.getUserCountByType("COMMERCANT"));
-        stats.put("prestataires", userService.getUserCountByType("PRESTATAIRE"));
-        stats.put("admins", userService.getUserCountByType("ADMIN"));
+        stats.put("totalUsers", comptages.values().stream().mapToLong(Long::longValue).sum());
+        stats.put("clients", comptages.get("CLIENT"));
+        stats.put("livreurs", comptages.get("LIVREUR"));
+        stats.put("commercants", comptages.get("COMMERCANT"));
+        stats.put("prestataires", comptages.get("PRESTATAIRE"));
+        stats.put("admins", comptages.get("ADMIN"));
 
         return ResponseEntity.ok(stats);
     }
-
-    private Map<String, Object> enrichUserData(Utilisateur user) {
-        Map<String, Object> userData = new HashMap<>();
-
-        userData.put("idUtilisateur", user.getIdUtilisateur());
-        userData.put("nom", user.getNom());
-        userData.put("prenom", user.getPrenom());
-        userData.put("email", user.getEmail());
-        userData.put("telephone", user.getTelephone());
-        userData.put("adresse", user.getAdresse());
-        userData.put("ville", user.getVille());
-        userData.put("codePostal", user.getCodePostal());
-        userData.put("pays", user.getPays());
-        userData.put("genre", user.getGenre());
-        userData.put("dateDeNaissance", user.getDateDeNaissance());
-
-        userData.put("userType", user.getType());
-
-        return userData;
-    }
 }
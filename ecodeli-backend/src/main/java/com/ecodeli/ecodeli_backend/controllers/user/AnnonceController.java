@@ -1,12 +1,15 @@
 package com.ecodeli.ecodeli_backend.controllers.user;
 
+import com.ecodeli.ecodeli_backend.dto.response.AnnonceFeedItem;
 import com.ecodeli.ecodeli_backend.models.Annonce;
 import com.ecodeli.ecodeli_backend.services.AnnonceService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -42,7 +45,7 @@ public class AnnonceController {
         String adresseDepart = addresses.get("adresseDepart");
         String adresseFin = addresses.get("adresseFin");
 
-        BigDecimal distance = annonceService.calculateDistance(adresseDepart, adresseFin);
+        BigDecimal distance = annonceService.estimateDistance(adresseDepart, adresseFin);
         BigDecimal prix = annonceService.calculatePrice(distance);
 
         Map<String, Object> response = new HashMap<>();
@@ -75,6 +78,34 @@ public class AnnonceController {
         return ResponseEntity.ok(annonces);
     }
 
+    @GetMapping("/feed")
+    public ResponseEntity<Map<String, Object>> getAnnoncesFeed(
+            @RequestParam(required = false) Annonce.StatutAnnonce statut,
+            @RequestParam(required = false) String codePostal,
+            @RequestParam(required = false) String ville,
+            @RequestParam(required = false) BigDecimal prixMin,
+            @RequestParam(required = false) BigDecimal prixMax,
+            @RequestParam(required = false) Boolean partielle,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime apresDate,
+            @RequestParam(required = false) Integer apresId,
+            @RequestParam(defaultValue = "20") int size) {
+        List<AnnonceFeedItem> annonces = annonceService.getAnnoncesFeed(
+            statut, codePostal, ville, prixMin, prixMax, partielle, apresDate, apresId, size);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("annonces", annonces);
+
+        if (!annonces.isEmpty()) {
+            AnnonceFeedItem dernier = annonces.get(annonces.size() - 1);
+            Map<String, Object> curseur = new HashMap<>();
+            curseur.put("apresDate", dernier.getDateCreation());
+            curseur.put("apresId", dernier.getIdAnnonce());
+            response.put("curseurSuivant", curseur);
+        }
+
+        return ResponseEntity.ok(response);
+    }
+
     @PutMapping("/{id}/take")
     public ResponseEntity<Map<String, Object>> takeAnnonce(@PathVariable Integer id, @RequestBody Map<String, Object> livreurData) {
         Integer livreurId = (Integer) livreurData.get("livreurId");
@@ -1,5 +1,7 @@
 package com.ecodeli.ecodeli_backend.controllers.user;
 
+import com.ecodeli.ecodeli_backend.dto.response.CandidatureEnvoyeeItem;
+import com.ecodeli.ecodeli_backend.dto.response.CandidaturePrestataireResponse;
 import com.ecodeli.ecodeli_backend.services.CandidatureService;
 import com.ecodeli.ecodeli_backend.models.Prestataire;
 import com.ecodeli.ecodeli_backend.models.PrestataireCategorie;
@@ -31,7 +33,7 @@ public class CandidatureController {
         System.out.println("=== CONTROLLER: Récupération candidatures pour demande " + demandeId + " ===");
         
         try {
-            List<Map<String, Object>> candidatures = candidatureService.getCandidaturesWithPrestatairesByDemande(demandeId);
+            List<CandidaturePrestataireResponse> candidatures = candidatureService.getCandidaturesWithPrestatairesByDemande(demandeId);
             Map<String, Object> statistiques = candidatureService.getStatistiquesCandidaturesDemande(demandeId);
             
             Map<String, Object> response = new HashMap<>();
@@ -200,11 +202,11 @@ public class CandidatureController {
     }
 
     @GetMapping("/prestataire/{prestataireId}")
-    public ResponseEntity<List<Map<String, Object>>> getCandidaturesByPrestataire(@PathVariable Integer prestataireId) {
+    public ResponseEntity<List<CandidatureEnvoyeeItem>> getCandidaturesByPrestataire(@PathVariable Integer prestataireId) {
         System.out.println("=== CONTROLLER: Récupération candidatures prestataire " + prestataireId + " ===");
         
         try {
-            List<Map<String, Object>> candidatures = candidatureService.getCandidaturesByPrestataire(prestataireId);
+            List<CandidatureEnvoyeeItem> candidatures = candidatureService.getCandidaturesByPrestataire(prestataireId);
             
             System.out.println("Candidatures trouvées: " + candidatures.size());
             return ResponseEntity.ok(candidatures);
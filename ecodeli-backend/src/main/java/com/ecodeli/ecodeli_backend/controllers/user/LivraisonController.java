@@ -1,8 +1,11 @@
 package com.ecodeli.ecodeli_backend.controllers.user;
 
+import com.ecodeli.ecodeli_backend.dto.response.LivraisonDetail;
+import com.ecodeli.ecodeli_backend.dto.response.LivraisonLivreurItem;
 import com.ecodeli.ecodeli_backend.models.Livraison;
 import com.ecodeli.ecodeli_backend.services.LivraisonService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,64 +22,26 @@ public class LivraisonController {
     private LivraisonService livraisonService;
 
     @GetMapping("/livreur/{livreurId}")
-    public ResponseEntity<List<Map<String, Object>>> getLivraisonsByLivreur(@PathVariable Integer livreurId) {
+    public ResponseEntity<List<LivraisonLivreurItem>> getLivraisonsByLivreur(@PathVariable Integer livreurId) {
         List<Livraison> livraisons = livraisonService.getLivraisonsByLivreur(livreurId);
 
-        List<Map<String, Object>> enrichedLivraisons = livraisons.stream()
-            .map(livraison -> {
-                Map<String, Object> livraisonData = new HashMap<>();
-                livraisonData.put("idLivraison", livraison.getIdLivraison());
-                livraisonData.put("statut", livraison.getStatut());
-                livraisonData.put("typeLivraison", livraison.getTypeLivraison());
-
-                Integer prixAffiche = livraison.getPrix();
-                if (livraison.getTypeLivraison() == Livraison.TypeLivraison.PARTIELLE) {
-                    prixAffiche = prixAffiche / 2;
-                }
-                livraisonData.put("prix", prixAffiche);
-                livraisonData.put("prixTotal", livraison.getPrix());
-                livraisonData.put("adresseEnvoi", livraison.getAdresseEnvoi());
-                livraisonData.put("adresseDeLivraison", livraison.getAdresseDeLivraison());
-                livraisonData.put("dateDebut", livraison.getDateDebut());
-                livraisonData.put("dateFin", livraison.getDateFin());
-
-                if (livraison.getAnnonce() != null) {
-                    livraisonData.put("titre", livraison.getAnnonce().getTitre());
-                    livraisonData.put("description", livraison.getAnnonce().getDescription());
-                    livraisonData.put("emailDestinataire", livraison.getAnnonce().getEmailDestinataire());
-                }
-
-                if (livraison.getTypeLivraison() == Livraison.TypeLivraison.PARTIELLE) {
-                    livraisonData.put("entrepotVille", livraison.getEntrepotVille());
-                    livraisonData.put("dateDepotEntrepot", livraison.getDateDepotEntrepot());
-                    livraisonData.put("dateCollecteEntrepot", livraison.getDateCollecteEntrepot());
-
-                    String segment = livraisonService.getSegmentForLivreur(livraison, livreurId);
-                    livraisonData.put("segment", segment);
-
-                    boolean canStart = false;
-                    String statusMessage = "";
-
-                    if ("SEGMENT_1".equals(segment)) {
-                        canStart = livraison.getStatut() == Livraison.StatutLivraison.VALIDEE;
-                        statusMessage = canStart ? "Prêt à démarrer" : "En attente";
-                    } else if ("SEGMENT_2".equals(segment)) {
-                        canStart = livraison.getStatut() == Livraison.StatutLivraison.ATTENTE_SEGMENT_2;
-                        statusMessage = canStart ? "Prêt à démarrer" :
-                                       (livraison.getStatut() == Livraison.StatutLivraison.VALIDEE ? "En attente du segment 1" : "En cours");
-                    }
-
-                    livraisonData.put("canStart", canStart);
-                    livraisonData.put("statusMessage", statusMessage);
-                }
-
-                return livraisonData;
-            })
+        List<LivraisonLivreurItem> enrichedLivraisons = livraisons.stream()
+            .map(livraison -> enrichLivraisonLivreur(livraison, livreurId))
             .toList();
 
         return ResponseEntity.ok(enrichedLivraisons);
     }
 
+    @GetMapping("/livreur/{livreurId}/paginated")
+    public ResponseEntity<Page<LivraisonLivreurItem>> getLivraisonsByLivreurPaginated(
+            @PathVariable Integer livreurId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        Page<Livraison> livraisons = livraisonService.getLivraisonsByLivreur(livreurId, page, size);
+
+        return ResponseEntity.ok(livraisons.map(livraison -> enrichLivraisonLivreur(livraison, livreurId)));
+    }
+
     @PutMapping("/{livraisonId}/start")
     public ResponseEntity<Map<String, Object>> startLivraison(
             @PathVariable Integer livraisonId,
@@ -148,52 +113,10 @@ public class LivraisonController {
     }
 
     @GetMapping("/{livraisonId}")
-    public ResponseEntity<Map<String, Object>> getLivraisonDetails(@PathVariable Integer livraisonId) {
+    public ResponseEntity<?> getLivraisonDetails(@PathVariable Integer livraisonId) {
         try {
             Livraison livraison = livraisonService.getLivraisonById(livraisonId);
-
-            Map<String, Object> livraisonData = new HashMap<>();
-            livraisonData.put("idLivraison", livraison.getIdLivraison());
-            livraisonData.put("statut", livraison.getStatut());
-            livraisonData.put("typeLivraison", livraison.getTypeLivraison());
-            livraisonData.put("prix", livraison.getPrix());
-            livraisonData.put("adresseEnvoi", livraison.getAdresseEnvoi());
-            livraisonData.put("adresseDeLivraison", livraison.getAdresseDeLivraison());
-            livraisonData.put("dateDebut", livraison.getDateDebut());
-            livraisonData.put("dateFin", livraison.getDateFin());
-            livraisonData.put("validation", livraison.getValidation());
-
-            if (livraison.getAnnonce() != null) {
-                Map<String, Object> annonceData = new HashMap<>();
-                annonceData.put("titre", livraison.getAnnonce().getTitre());
-                annonceData.put("description", livraison.getAnnonce().getDescription());
-                annonceData.put("emailDestinataire", livraison.getAnnonce().getEmailDestinataire());
-
-                if (livraison.getAnnonce().getColis() != null) {
-                    Map<String, Object> colisData = new HashMap<>();
-                    colisData.put("poids", livraison.getAnnonce().getColis().getPoids());
-                    colisData.put("fragile", livraison.getAnnonce().getColis().getFragile());
-                    colisData.put("description", livraison.getAnnonce().getColis().getDescription());
-                    annonceData.put("colis", colisData);
-                }
-
-                livraisonData.put("annonce", annonceData);
-            }
-
-            if (livraison.getTypeLivraison() == Livraison.TypeLivraison.PARTIELLE) {
-                livraisonData.put("entrepotVille", livraison.getEntrepotVille());
-                livraisonData.put("dateDepotEntrepot", livraison.getDateDepotEntrepot());
-                livraisonData.put("dateCollecteEntrepot", livraison.getDateCollecteEntrepot());
-
-                if (livraison.getLivreurSegment1() != null) {
-                    livraisonData.put("livreur1", livraison.getLivreurSegment1().getPrenom() + " " + livraison.getLivreurSegment1().getNom());
-                }
-                if (livraison.getLivreurSegment2() != null) {
-                    livraisonData.put("livreur2", livraison.getLivreurSegment2().getPrenom() + " " + livraison.getLivreurSegment2().getNom());
-                }
-            }
-
-            return ResponseEntity.ok(livraisonData);
+            return ResponseEntity.ok(LivraisonDetail.depuis(livraison));
 
         } catch (Exception e) {
             Map<String, Object> errorResponse = new HashMap<>();
@@ -201,4 +124,11 @@ public class LivraisonController {
             return ResponseEntity.badRequest().body(errorResponse);
         }
     }
+
+    private LivraisonLivreurItem enrichLivraisonLivreur(Livraison livraison, Integer livreurId) {
+        String segment = livraison.getTypeLivraison() == Livraison.TypeLivraison.PARTIELLE
+            ? livraisonService.getSegmentForLivreur(livraison, livreurId)
+            : null;
+        return LivraisonLivreurItem.depuis(livraison, segment);
+    }
 }
@@ -1,5 +1,8 @@
 package com.ecodeli.ecodeli_backend.controllers.user;
 
+import com.ecodeli.ecodeli_backend.dto.response.EvaluationItem;
+import com.ecodeli.ecodeli_backend.dto.response.MissionClientItem;
+import com.ecodeli.ecodeli_backend.dto.response.MissionPrestataireItem;
 import com.ecodeli.ecodeli_backend.services.MissionService;
 import com.ecodeli.ecodeli_backend.services.EvaluationService;
 import com.ecodeli.ecodeli_backend.services.PrixCalculService;
@@ -29,11 +32,11 @@ public class MissionController {
      * Récupérer les missions d'un prestataire
      */
     @GetMapping("/prestataire/{prestataireId}")
-    public ResponseEntity<List<Map<String, Object>>> getMissionsByPrestataire(@PathVariable Integer prestataireId) {
+    public ResponseEntity<List<MissionPrestataireItem>> getMissionsByPrestataire(@PathVariable Integer prestataireId) {
         System.out.println("=== CONTROLLER: Récupération missions prestataire " + prestataireId + " ===");
         
         try {
-            List<Map<String, Object>> missions = missionService.getMissionsByPrestataire(prestataireId);
+            List<MissionPrestataireItem> missions = missionService.getMissionsByPrestataire(prestataireId);
             
             System.out.println("Missions trouvées: " + missions.size());
             return ResponseEntity.ok(missions);
@@ -104,11 +107,11 @@ public class MissionController {
      * Récupérer les détails d'une mission
      */
     @GetMapping("/{missionId}")
-    public ResponseEntity<Map<String, Object>> getDetailsMission(@PathVariable Long missionId) {
+    public ResponseEntity<MissionPrestataireItem> getDetailsMission(@PathVariable Long missionId) {
         System.out.println("=== CONTROLLER: Récupération détails mission " + missionId + " ===");
         
         try {
-            Map<String, Object> mission = missionService.getDetailsMission(missionId);
+            MissionPrestataireItem mission = missionService.getDetailsMission(missionId);
             
             if (mission != null) {
                 return ResponseEntity.ok(mission);
@@ -130,11 +133,11 @@ public class MissionController {
      * Récupérer les missions d'un client
      */
     @GetMapping("/client/{clientId}")
-    public ResponseEntity<List<Map<String, Object>>> getMissionsByClient(@PathVariable Integer clientId) {
+    public ResponseEntity<List<MissionClientItem>> getMissionsByClient(@PathVariable Integer clientId) {
         System.out.println("=== CONTROLLER: Récupération missions client " + clientId + " ===");
         
         try {
-            List<Map<String, Object>> missions = missionService.getMissionsByClient(clientId);
+            List<MissionClientItem> missions = missionService.getMissionsByClient(clientId);
             
             System.out.println("Missions trouvées: " + missions.size());
             return ResponseEntity.ok(missions);
@@ -225,11 +228,11 @@ public class MissionController {
      * Récupérer toutes les évaluations d'un prestataire
      */
     @GetMapping("/prestataire/{prestataireId}/evaluations")
-    public ResponseEntity<List<Map<String, Object>>> getEvaluationsPrestataire(@PathVariable Integer prestataireId) {
+    public ResponseEntity<List<EvaluationItem>> getEvaluationsPrestataire(@PathVariable Integer prestataireId) {
         System.out.println("=== CONTROLLER: Toutes évaluations prestataire " + prestataireId + " ===");
         
         try {
-            List<Map<String, Object>> evaluations = evaluationService.getEvaluationsPrestataire(prestataireId);
+            List<EvaluationItem> evaluations = evaluationService.getEvaluationsPrestataire(prestataireId);
             
             System.out.println("Évaluations trouvées: " + evaluations.size());
             return ResponseEntity.ok(evaluations);
@@ -245,14 +248,14 @@ public class MissionController {
      * Récupérer les dernières évaluations avec commentaires d'un prestataire
      */
     @GetMapping("/prestataire/{prestataireId}/evaluations/commentaires")
-    public ResponseEntity<List<Map<String, Object>>> getDernieresEvaluationsAvecCommentaires(
+    public ResponseEntity<List<EvaluationItem>> getDernieresEvaluationsAvecCommentaires(
             @PathVariable Integer prestataireId,
             @RequestParam(defaultValue = "5") int limit) {
         
         System.out.println("=== CONTROLLER: Dernières évaluations avec commentaires prestataire " + prestataireId + " ===");
         
         try {
-            List<Map<String, Object>> evaluations = evaluationService
+            List<EvaluationItem> evaluations = evaluationService
                 .getDernieresEvaluationsAvecCommentaires(prestataireId, limit);
             
             System.out.println("Évaluations avec commentaires trouvées: " + evaluations.size());
@@ -269,11 +272,11 @@ public class MissionController {
      * Récupérer l'évaluation d'une mission spécifique
      */
     @GetMapping("/{missionId}/evaluation")
-    public ResponseEntity<Map<String, Object>> getEvaluationMission(@PathVariable Long missionId) {
+    public ResponseEntity<EvaluationItem> getEvaluationMission(@PathVariable Long missionId) {
         System.out.println("=== CONTROLLER: Récupération évaluation mission " + missionId + " ===");
         
         try {
-            Map<String, Object> evaluation = evaluationService.getEvaluationByCandidature(missionId);
+            EvaluationItem evaluation = evaluationService.getEvaluationByCandidature(missionId);
             
             if (evaluation != null) {
                 return ResponseEntity.ok(evaluation);
@@ -291,6 +294,15 @@ public class MissionController {
         }
     }
 
+    /**
+     * Récupère les prix calculés de plusieurs candidatures en une seule requête (comparaison des candidats)
+     */
+    @GetMapping("/prix-calcule")
+    public ResponseEntity<Map<Long, PrixCalculService.DevisMission>> getPrixCalculesMissions(
+            @RequestParam List<Long> candidatureIds) {
+        return ResponseEntity.ok(prixCalculService.quote(candidatureIds));
+    }
+
     /**
      * Récupère le prix calculé d'une mission basé sur le tarif réel du prestataire
      */
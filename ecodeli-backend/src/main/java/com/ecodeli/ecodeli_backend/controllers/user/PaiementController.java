@@ -1,6 +1,9 @@
 package com.ecodeli.ecodeli_backend.controllers.user;
 
+import com.ecodeli.ecodeli_backend.dto.response.PortefeuillePrestataireResume;
+import com.ecodeli.ecodeli_backend.dto.response.TransactionPortefeuilleItem;
 import com.ecodeli.ecodeli_backend.services.PaiementFictifService;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -13,6 +16,7 @@ import java.util.Map;
 @RestController
 @RequestMapping("/api/paiement")
 @CrossOrigin(origins = "http://localhost:5173")
+@Slf4j
 public class PaiementController {
 
     @Autowired
@@ -26,8 +30,7 @@ public class PaiementController {
             @PathVariable Long candidatureId,
             @RequestBody Map<String, Object> paiementData) {
         
-        System.out.println("=== CONTROLLER: Paiement mission " + candidatureId + " ===");
-        System.out.println("Données paiement: " + paiementData);
+        log.debug("Paiement de la mission {}", candidatureId);
         
         try {
             BigDecimal montantTotal = new BigDecimal(paiementData.get("montant").toString());
@@ -35,16 +38,15 @@ public class PaiementController {
             Map<String, Object> result = paiementService.simulerPaiementMission(candidatureId, montantTotal);
             
             if ((Boolean) result.get("success")) {
-                System.out.println("Paiement effectué avec succès");
+                log.info("Paiement accepté pour la candidature {}, transaction {}", candidatureId, result.get("transactionId"));
                 return ResponseEntity.ok(result);
             } else {
-                System.err.println("Erreur paiement: " + result.get("error"));
+                log.warn("Paiement refusé pour la candidature {}: {}", candidatureId, result.get("error"));
                 return ResponseEntity.badRequest().body(result);
             }
             
         } catch (Exception e) {
-            System.err.println("ERREUR paiement mission: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Erreur lors du paiement de la mission {}", candidatureId, e);
             
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("success", false);
@@ -53,21 +55,35 @@ public class PaiementController {
         }
     }
 
+    /**
+     * Récupère le statut d'une transaction en cours de traitement
+     */
+    @GetMapping("/transaction/{transactionId}/statut")
+    public ResponseEntity<?> getStatutTransaction(@PathVariable Long transactionId) {
+        try {
+            return ResponseEntity.ok(paiementService.getStatutTransaction(transactionId));
+            
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+
     /**
      * Récupère le portefeuille d'un prestataire
      */
     @GetMapping("/portefeuille/prestataire/{prestataireId}")
-    public ResponseEntity<Map<String, Object>> getPortefeuillePrestataire(@PathVariable Integer prestataireId) {
-        System.out.println("=== CONTROLLER: Récupération portefeuille prestataire " + prestataireId + " ===");
+    public ResponseEntity<?> getPortefeuillePrestataire(@PathVariable Integer prestataireId) {
+        log.debug("Récupération du portefeuille du prestataire {}", prestataireId);
         
         try {
-            Map<String, Object> portefeuille = paiementService.getPortefeuillePrestataire(prestataireId);
+            PortefeuillePrestataireResume portefeuille = paiementService.getPortefeuillePrestataire(prestataireId);
             
             return ResponseEntity.ok(portefeuille);
             
         } catch (Exception e) {
-            System.err.println("ERREUR récupération portefeuille: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Erreur lors de la récupération du portefeuille du prestataire {}", prestataireId, e);
             
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("error", e.getMessage());
@@ -83,8 +99,7 @@ public class PaiementController {
             @PathVariable Integer prestataireId,
             @RequestBody Map<String, Object> retraitData) {
         
-        System.out.println("=== CONTROLLER: Retrait prestataire " + prestataireId + " ===");
-        System.out.println("Données retrait: " + retraitData);
+        log.debug("Retrait du prestataire {}", prestataireId);
         
         try {
             BigDecimal montantRetrait = new BigDecimal(retraitData.get("montant").toString());
@@ -93,16 +108,15 @@ public class PaiementController {
             Map<String, Object> result = paiementService.simulerRetraitPrestataire(prestataireId, montantRetrait, iban);
             
             if ((Boolean) result.get("success")) {
-                System.out.println("Retrait effectué avec succès");
+                log.info("Retrait accepté pour le prestataire {}, transaction {}", prestataireId, result.get("transactionId"));
                 return ResponseEntity.ok(result);
             } else {
-                System.err.println("Erreur retrait: " + result.get("error"));
+                log.warn("Retrait refusé pour le prestataire {}: {}", prestataireId, result.get("error"));
                 return ResponseEntity.badRequest().body(result);
             }
             
         } catch (Exception e) {
-            System.err.println("ERREUR retrait: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Erreur lors du retrait du prestataire {}", prestataireId, e);
             
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("success", false);
@@ -115,21 +129,18 @@ public class PaiementController {
      * Récupère l'historique des transactions d'un prestataire
      */
     @GetMapping("/portefeuille/prestataire/{prestataireId}/transactions")
-    public ResponseEntity<List<Map<String, Object>>> getHistoriqueTransactions(
+    public ResponseEntity<List<TransactionPortefeuilleItem>> getHistoriqueTransactions(
             @PathVariable Integer prestataireId,
             @RequestParam(defaultValue = "20") int limit) {
         
-        System.out.println("=== CONTROLLER: Historique transactions prestataire " + prestataireId + " ===");
-        
         try {
-            List<Map<String, Object>> transactions = paiementService.getHistoriqueTransactions(prestataireId, limit);
+            List<TransactionPortefeuilleItem> transactions = paiementService.getHistoriqueTransactions(prestataireId, limit);
             
-            System.out.println("Transactions trouvées: " + transactions.size());
+            log.debug("{} transaction(s) trouvée(s) pour le prestataire {}", transactions.size(), prestataireId);
             return ResponseEntity.ok(transactions);
             
         } catch (Exception e) {
-            System.err.println("ERREUR récupération transactions: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Erreur lors de la récupération des transactions du prestataire {}", prestataireId, e);
             return ResponseEntity.badRequest().build();
         }
     }
@@ -142,20 +153,17 @@ public class PaiementController {
             @PathVariable Integer prestataireId,
             @RequestBody Map<String, Object> infosData) {
         
-        System.out.println("=== CONTROLLER: Mise à jour infos bancaires prestataire " + prestataireId + " ===");
-        
         try {
             String iban = (String) infosData.get("iban");
             String nomTitulaire = (String) infosData.get("nomTitulaire");
             
             Map<String, Object> result = paiementService.updateInfosBancaires(prestataireId, iban, nomTitulaire);
             
-            System.out.println("Infos bancaires mises à jour");
+            log.info("Informations bancaires mises à jour pour le prestataire {}", prestataireId);
             return ResponseEntity.ok(result);
             
         } catch (Exception e) {
-            System.err.println("ERREUR mise à jour infos bancaires: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Erreur lors de la mise à jour des informations bancaires du prestataire {}", prestataireId, e);
             
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("success", false);
@@ -166,8 +174,6 @@ public class PaiementController {
 
     @PostMapping("/verifier-carte")
     public ResponseEntity<Map<String, Object>> verifierCarte(@RequestBody Map<String, Object> carteData) {
-        System.out.println("=== CONTROLLER: Vérification carte bancaire (fictif) ===");
-        
         try {
             Thread.sleep(1000);
             
@@ -191,7 +197,7 @@ public class PaiementController {
             errorResponse.put("error", "Interruption lors de la vérification");
             return ResponseEntity.badRequest().body(errorResponse);
         } catch (Exception e) {
-            System.err.println("ERREUR vérification carte: " + e.getMessage());
+            log.error("Erreur lors de la vérification de carte", e);
             
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("success", false);
@@ -205,16 +211,13 @@ public class PaiementController {
      */
     @GetMapping("/client/{clientId}/total-depense")
     public ResponseEntity<Map<String, Object>> getTotalDepenseClient(@PathVariable Integer clientId) {
-        System.out.println("=== CONTROLLER: Total dépensé client " + clientId + " ===");
-        
         try {
             Map<String, Object> result = paiementService.getTotalDepenseClient(clientId);
             
             return ResponseEntity.ok(result);
             
         } catch (Exception e) {
-            System.err.println("ERREUR calcul total dépensé: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Erreur lors du calcul du total dépensé par le client {}", clientId, e);
             
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("error", e.getMessage());
@@ -227,8 +230,6 @@ public class PaiementController {
      */
     @GetMapping("/statistiques")
     public ResponseEntity<Map<String, Object>> getStatistiquesPaiement() {
-        System.out.println("=== CONTROLLER: Statistiques paiement ===");
-        
         try {
             Map<String, Object> stats = new HashMap<>();
             stats.put("totalTransactions", 150);
@@ -241,7 +242,7 @@ public class PaiementController {
             return ResponseEntity.ok(stats);
             
         } catch (Exception e) {
-            System.err.println("ERREUR récupération statistiques: " + e.getMessage());
+            log.error("Erreur lors de la récupération des statistiques de paiement", e);
             return ResponseEntity.badRequest().build();
         }
     }
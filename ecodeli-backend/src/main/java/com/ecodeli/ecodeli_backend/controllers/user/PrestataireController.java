@@ -1,11 +1,14 @@
 package com.ecodeli.ecodeli_backend.controllers.user;
 
+import com.ecodeli.ecodeli_backend.dto.response.ClassementItem;
 import com.ecodeli.ecodeli_backend.models.Candidature;
 import com.ecodeli.ecodeli_backend.models.DemandeService;
 import com.ecodeli.ecodeli_backend.models.Justificatif;
 import com.ecodeli.ecodeli_backend.models.Prestataire;
+import com.ecodeli.ecodeli_backend.models.ServiceType;
 import com.ecodeli.ecodeli_backend.models.Utilisateur;
 import com.ecodeli.ecodeli_backend.repositories.UtilisateurRepository;
+import com.ecodeli.ecodeli_backend.services.ClassementPrestatairesService;
 import com.ecodeli.ecodeli_backend.services.PrestataireService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -14,6 +17,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,6 +31,9 @@ public class PrestataireController {
     @Autowired
     private PrestataireService prestataireService;
 
+    @Autowired
+    private ClassementPrestatairesService classementPrestatairesService;
+
     @Autowired
     private UtilisateurRepository utilisateurRepository;
 
@@ -34,10 +41,13 @@ public class PrestataireController {
      * Récupérer les demandes de service disponibles pour le prestataire connecté
      */
     @GetMapping("/demandes-disponibles")
-    public ResponseEntity<List<DemandeService>> getDemandesDisponibles(Authentication authentication) {
+    public ResponseEntity<Page<DemandeService>> getDemandesDisponibles(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
         try {
-            Integer prestataireId = Integer.parseInt(authentication.getName());
-            List<DemandeService> demandes = prestataireService.getDemandesDisponibles(prestataireId);
+            Integer prestataireId = getPrestataireId(authentication);
+            Page<DemandeService> demandes = prestataireService.getDemandesDisponibles(prestataireId, page, size);
             return ResponseEntity.ok(demandes);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
@@ -246,6 +256,45 @@ public class PrestataireController {
         }
     }
 
+    @GetMapping("/classement")
+    public ResponseEntity<List<ClassementItem>> getClassement(
+            @RequestParam(required = false) ServiceType categorie,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "1") long minEvaluations) {
+        List<ClassementPrestatairesService.EntreeClassement> top =
+            classementPrestatairesService.getTop(Math.min(Math.max(limit, 0), 100), categorie, minEvaluations);
+
+        List<ClassementItem> classement = new ArrayList<>(top.size());
+        int rang = 1;
+        for (ClassementPrestatairesService.EntreeClassement entree : top) {
+            classement.add(ClassementItem.depuis(entree, rang++, null, null));
+        }
+        return ResponseEntity.ok(classement);
+    }
+
+    @GetMapping("/classement/mon-rang")
+    public ResponseEntity<?> getMonRang(Authentication authentication) {
+        try {
+            Integer prestataireId = getPrestataireId(authentication);
+            Optional<ClassementPrestatairesService.EntreeClassement> entree =
+                classementPrestatairesService.getEntree(prestataireId);
+            if (entree.isEmpty()) {
+                Map<String, Object> response = new HashMap<>();
+                response.put("prestataireId", prestataireId);
+                response.put("message", "Aucune évaluation pour le moment");
+                return ResponseEntity.ok(response);
+            }
+
+            return ResponseEntity.ok(ClassementItem.depuis(entree.get(), null,
+                classementPrestatairesService.getRang(prestataireId, false).orElse(null),
+                classementPrestatairesService.getRang(prestataireId, true).orElse(null)));
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
     @GetMapping("/demandes-disponibles/paginated")
     public ResponseEntity<Page<DemandeService>> getDemandesPaginated(
             @RequestParam(defaultValue = "0") int page,
@@ -0,0 +1,29 @@
+package com.ecodeli.ecodeli_backend.dto.response;
+
+import com.ecodeli.ecodeli_backend.models.Annonce;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Vue allégée d'une annonce pour le fil des livreurs (construite directement par la requête JPQL).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnnonceFeedItem {
+
+    private Integer idAnnonce;
+    private String titre;
+    private BigDecimal prixUnitaire;
+    private Annonce.StatutAnnonce statut;
+    private String adresseDepart;
+    private String adresseFin;
+    private String codePostalDepart;
+    private String villeDepart;
+    private Boolean livraisonPartielleAutorisee;
+    private LocalDateTime dateCreation;
+}
@@ -0,0 +1,34 @@
+package com.ecodeli.ecodeli_backend.dto.response;
+
+import com.ecodeli.ecodeli_backend.models.Candidature;
+import com.ecodeli.ecodeli_backend.models.ServiceType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Candidature envoyée par un prestataire, avec la demande et son client, construite directement
+ * par la requête JPQL via le constructeur à plat.
+ */
+public record CandidatureEnvoyeeItem(Long idCandidature, BigDecimal prixPropose, String messagePrestataire,
+                                     String statut, LocalDateTime dateCandidature, LocalDateTime dateCreation,
+                                     Integer delaiPropose, Demande demandeService) {
+
+    public record Demande(Long idDemande, String titre, String description, String categorieService,
+                          LocalDateTime dateSouhaitee, String adresseDepart, String creneauHoraire, Client client) {
+    }
+
+    public record Client(Integer idUtilisateur, String prenom, String nom, String email) {
+    }
+
+    public CandidatureEnvoyeeItem(Long idCandidature, BigDecimal prixPropose, String messagePrestataire,
+                                  Candidature.StatutCandidature statut, LocalDateTime dateCandidature,
+                                  Integer delaiPropose, Long idDemande, String titre, String description,
+                                  ServiceType categorieService, LocalDateTime dateSouhaitee, String adresseDepart,
+                                  String creneauHoraire, Integer idClient, String prenomClient, String nomClient,
+                                  String emailClient) {
+        this(idCandidature, prixPropose, messagePrestataire, statut.name(), dateCandidature, dateCandidature,
+            delaiPropose, new Demande(idDemande, titre, description, categorieService.name(), dateSouhaitee,
+                adresseDepart, creneauHoraire, new Client(idClient, prenomClient, nomClient, emailClient)));
+    }
+}
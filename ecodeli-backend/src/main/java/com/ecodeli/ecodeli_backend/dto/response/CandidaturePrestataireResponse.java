@@ -0,0 +1,60 @@
+package com.ecodeli.ecodeli_backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CandidaturePrestataireResponse {
+
+    private Long idCandidature;
+    private BigDecimal prixPropose;
+    private String messagePrestataire;
+    private String statut;
+    private LocalDateTime dateCandidature;
+    private Integer delaiPropose;
+    private ProfilPrestataire prestataire;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ProfilPrestataire {
+        private Integer idUtilisateur;
+        private String nom;
+        private String prenom;
+        private String email;
+        private String telephone;
+        private String adresse;
+        private Statistiques statistiques;
+        private List<CategorieValidee> categoriesValidees = new ArrayList<>();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Statistiques {
+        private long totalCandidatures;
+        private long candidaturesAcceptees;
+        private double tauxAcceptation;
+        private long missionsRealisees;
+        private double noteMoyenne;
+        private long nombreEvaluations;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CategorieValidee {
+        private String categorieService;
+        private String statut;
+        private Double tarifHoraire;
+        private LocalDateTime dateValidation;
+    }
+}
@@ -0,0 +1,23 @@
+package com.ecodeli.ecodeli_backend.dto.response;
+
+import com.ecodeli.ecodeli_backend.services.ClassementPrestatairesService;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Entrée du classement des prestataires. Le rang est renseigné dans le top, les rangs global et
+ * par catégorie pour le prestataire connecté.
+ */
+public record ClassementItem(@JsonInclude(JsonInclude.Include.NON_NULL) Integer rang, Integer prestataireId,
+                             String categorie, double noteBayesienne, double moyenne, long nombreEvaluations,
+                             @JsonInclude(JsonInclude.Include.NON_NULL) Integer rangGlobal,
+                             @JsonInclude(JsonInclude.Include.NON_NULL) Integer rangCategorie) {
+
+    public static ClassementItem depuis(ClassementPrestatairesService.EntreeClassement entree, Integer rang,
+                                        Integer rangGlobal, Integer rangCategorie) {
+        return new ClassementItem(rang, entree.prestataireId(),
+            entree.categorie() != null ? entree.categorie().name() : null,
+            Math.round(entree.noteBayesienne() * 100.0) / 100.0,
+            Math.round(entree.getMoyenne() * 100.0) / 100.0,
+            entree.nombreEvaluations(), rangGlobal, rangCategorie);
+    }
+}
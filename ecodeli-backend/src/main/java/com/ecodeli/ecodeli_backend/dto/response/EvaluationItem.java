@@ -0,0 +1,44 @@
+package com.ecodeli.ecodeli_backend.dto.response;
+
+import com.ecodeli.ecodeli_backend.models.EvaluationMission;
+import com.ecodeli.ecodeli_backend.models.ServiceType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+/**
+ * Évaluation d'une mission telle qu'affichée sur le profil d'un prestataire (email du client masqué),
+ * construite directement par la requête JPQL via le constructeur à plat.
+ */
+public record EvaluationItem(Long idEvaluation, Integer noteGlobale, String noteGlobaleLabel, Integer noteQualite,
+                             Integer noteDelais, Integer noteCommunication, Integer noteProfessionnalisme,
+                             String commentaire, LocalDateTime dateEvaluation, String sentiment,
+                             @JsonInclude(JsonInclude.Include.NON_NULL) ClientEvaluation client,
+                             @JsonInclude(JsonInclude.Include.NON_NULL) MissionEvaluee mission) {
+
+    public record ClientEvaluation(String prenom, String nom,
+                                   @JsonInclude(JsonInclude.Include.NON_NULL) String emailMasque) {
+    }
+
+    public record MissionEvaluee(String titre, String description, String categorieService) {
+    }
+
+    public EvaluationItem(Long idEvaluation, Integer noteGlobale, Integer noteQualite, Integer noteDelais,
+                          Integer noteCommunication, Integer noteProfessionnalisme, String commentaire,
+                          LocalDateTime dateEvaluation, String prenomClient, String nomClient, String emailClient,
+                          String titreMission, String descriptionMission, ServiceType categorieService) {
+        this(idEvaluation, noteGlobale, EvaluationMission.libelleNote(noteGlobale), noteQualite, noteDelais,
+            noteCommunication, noteProfessionnalisme, commentaire, dateEvaluation,
+            EvaluationMission.sentiment(noteGlobale),
+            new ClientEvaluation(prenomClient, nomClient, masquerEmail(emailClient)),
+            new MissionEvaluee(titreMission, descriptionMission, categorieService.name()));
+    }
+
+    private static String masquerEmail(String email) {
+        if (email == null || !email.contains("@")) {
+            return null;
+        }
+        String[] parts = email.split("@");
+        return parts[0].charAt(0) + "***@" + parts[1];
+    }
+}
@@ -0,0 +1,96 @@
+package com.ecodeli.ecodeli_backend.dto.response;
+
+import com.ecodeli.ecodeli_backend.models.Livraison;
+import com.ecodeli.ecodeli_backend.models.Livreur;
+import com.ecodeli.ecodeli_backend.models.Utilisateur;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+/**
+ * Détail d'une livraison pour le back office. Les parties absentes (expéditeur, annonce, segments d'une
+ * livraison partielle...) ne sont pas sérialisées.
+ */
+public record LivraisonAdminDetail(Integer idLivraison, String statut, String statutLabel, String typeLivraison,
+                                   String typeLivraisonLabel, Integer prix, String adresseEnvoi,
+                                   String codePostalEnvoi, String adresseDeLivraison, String codePostalLivraison,
+                                   LocalDateTime dateDebut, LocalDateTime dateFin, Boolean validation,
+                                   String codeValidation,
+                                   @JsonInclude(JsonInclude.Include.NON_NULL) Personne expediteur,
+                                   @JsonInclude(JsonInclude.Include.NON_NULL) Personne destinataire,
+                                   @JsonInclude(JsonInclude.Include.NON_NULL) AnnonceLivraison annonce,
+                                   @JsonInclude(JsonInclude.Include.NON_NULL) String entrepotVille,
+                                   @JsonInclude(JsonInclude.Include.NON_NULL) LocalDateTime dateDepotEntrepot,
+                                   @JsonInclude(JsonInclude.Include.NON_NULL) LocalDateTime dateCollecteEntrepot,
+                                   @JsonInclude(JsonInclude.Include.NON_NULL) LivreurSegment livreurSegment1,
+                                   @JsonInclude(JsonInclude.Include.NON_NULL) LivreurSegment livreurSegment2) {
+
+    public record Personne(Integer id, String nom, String prenom, String email) {
+
+        static Personne depuis(Utilisateur utilisateur) {
+            return utilisateur != null ? new Personne(utilisateur.getIdUtilisateur(), utilisateur.getNom(),
+                utilisateur.getPrenom(), utilisateur.getEmail()) : null;
+        }
+    }
+
+    public record AnnonceLivraison(Integer id, String titre, String description, String emailDestinataire) {
+    }
+
+    public record LivreurSegment(Integer id, String nom, String prenom) {
+
+        static LivreurSegment depuis(Livreur livreur) {
+            return livreur != null ? new LivreurSegment(livreur.getIdUtilisateur(), livreur.getNom(), livreur.getPrenom()) : null;
+        }
+    }
+
+    public static LivraisonAdminDetail depuis(Livraison livraison) {
+        AnnonceLivraison annonce = livraison.getAnnonce() != null
+            ? new AnnonceLivraison(livraison.getAnnonce().getIdAnnonce(), livraison.getAnnonce().getTitre(),
+                livraison.getAnnonce().getDescription(), livraison.getAnnonce().getEmailDestinataire())
+            : null;
+        boolean partielle = livraison.getTypeLivraison() == Livraison.TypeLivraison.PARTIELLE;
+
+        return new LivraisonAdminDetail(
+            livraison.getIdLivraison(),
+            livraison.getStatut().name(),
+            getStatutLabel(livraison.getStatut()),
+            livraison.getTypeLivraison().name(),
+            getTypeLabel(livraison.getTypeLivraison()),
+            livraison.getPrix(),
+            livraison.getAdresseEnvoi(),
+            livraison.getCodePostalEnvoi(),
+            livraison.getAdresseDeLivraison(),
+            livraison.getCodePostalLivraison(),
+            livraison.getDateDebut(),
+            livraison.getDateFin(),
+            livraison.getValidation(),
+            livraison.getCodeValidation(),
+            Personne.depuis(livraison.getExpediteur()),
+            Personne.depuis(livraison.getDestinataire()),
+            annonce,
+            partielle ? livraison.getEntrepotVille() : null,
+            partielle ? livraison.getDateDepotEntrepot() : null,
+            partielle ? livraison.getDateCollecteEntrepot() : null,
+            partielle ? LivreurSegment.depuis(livraison.getLivreurSegment1()) : null,
+            partielle ? LivreurSegment.depuis(livraison.getLivreurSegment2()) : null);
+    }
+
+    private static String getStatutLabel(Livraison.StatutLivraison statut) {
+        return switch (statut) {
+            case VALIDEE -> "Validée";
+            case EN_COURS -> "En cours";
+            case ATTENTE_SEGMENT_2 -> "Attente segment 2";
+            case SEGMENT_2_EN_COURS -> "Segment 2 en cours";
+            case ARRIVED -> "Arrivé";
+            case TERMINEE -> "Terminée";
+            case ANNULEE -> "Annulée";
+        };
+    }
+
+    private static String getTypeLabel(Livraison.TypeLivraison type) {
+        return switch (type) {
+            case DIRECTE -> "Directe";
+            case PARTIELLE -> "Partielle";
+        };
+    }
+}
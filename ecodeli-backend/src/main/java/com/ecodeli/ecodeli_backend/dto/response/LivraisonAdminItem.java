@@ -0,0 +1,15 @@
+package com.ecodeli.ecodeli_backend.dto.response;
+
+import com.ecodeli.ecodeli_backend.models.Livraison;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ligne du tableau des livraisons du back office (construite directement par la requête JPQL).
+ */
+public record LivraisonAdminItem(Integer idLivraison, Livraison.StatutLivraison statut,
+                                 Livraison.TypeLivraison typeLivraison, String adresseEnvoi, String codePostalEnvoi,
+                                 String adresseDeLivraison, String codePostalLivraison, Integer prix,
+                                 LocalDateTime dateDebut, LocalDateTime dateFin, Integer idAnnonce,
+                                 String titreAnnonce, String emailExpediteur, String emailDestinataire) {
+}
@@ -0,0 +1,64 @@
+package com.ecodeli.ecodeli_backend.dto.response;
+
+import com.ecodeli.ecodeli_backend.models.Annonce;
+import com.ecodeli.ecodeli_backend.models.Colis;
+import com.ecodeli.ecodeli_backend.models.Livraison;
+import com.ecodeli.ecodeli_backend.models.Livreur;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Détail d'une livraison côté utilisateur. L'annonce, son colis et les informations des segments
+ * d'une livraison partielle ne sont sérialisés que lorsqu'ils existent.
+ */
+public record LivraisonDetail(Integer idLivraison, String statut, String typeLivraison, Integer prix,
+                              String adresseEnvoi, String adresseDeLivraison, LocalDateTime dateDebut,
+                              LocalDateTime dateFin, Boolean validation,
+                              @JsonInclude(JsonInclude.Include.NON_NULL) AnnonceLivraison annonce,
+                              @JsonInclude(JsonInclude.Include.NON_NULL) String entrepotVille,
+                              @JsonInclude(JsonInclude.Include.NON_NULL) LocalDateTime dateDepotEntrepot,
+                              @JsonInclude(JsonInclude.Include.NON_NULL) LocalDateTime dateCollecteEntrepot,
+                              @JsonInclude(JsonInclude.Include.NON_NULL) String livreur1,
+                              @JsonInclude(JsonInclude.Include.NON_NULL) String livreur2) {
+
+    public record AnnonceLivraison(String titre, String description, String emailDestinataire,
+                                   @JsonInclude(JsonInclude.Include.NON_NULL) ColisLivraison colis) {
+    }
+
+    public record ColisLivraison(BigDecimal poids, Boolean fragile, String description) {
+    }
+
+    public static LivraisonDetail depuis(Livraison livraison) {
+        AnnonceLivraison annonce = null;
+        Annonce a = livraison.getAnnonce();
+        if (a != null) {
+            Colis colis = a.getColis();
+            annonce = new AnnonceLivraison(a.getTitre(), a.getDescription(), a.getEmailDestinataire(),
+                colis != null ? new ColisLivraison(colis.getPoids(), colis.getFragile(), colis.getDescription()) : null);
+        }
+        boolean partielle = livraison.getTypeLivraison() == Livraison.TypeLivraison.PARTIELLE;
+
+        return new LivraisonDetail(
+            livraison.getIdLivraison(),
+            livraison.getStatut().name(),
+            livraison.getTypeLivraison().name(),
+            livraison.getPrix(),
+            livraison.getAdresseEnvoi(),
+            livraison.getAdresseDeLivraison(),
+            livraison.getDateDebut(),
+            livraison.getDateFin(),
+            livraison.getValidation(),
+            annonce,
+            partielle ? livraison.getEntrepotVille() : null,
+            partielle ? livraison.getDateDepotEntrepot() : null,
+            partielle ? livraison.getDateCollecteEntrepot() : null,
+            partielle ? nomComplet(livraison.getLivreurSegment1()) : null,
+            partielle ? nomComplet(livraison.getLivreurSegment2()) : null);
+    }
+
+    private static String nomComplet(Livreur livreur) {
+        return livreur != null ? livreur.getPrenom() + " " + livreur.getNom() : null;
+    }
+}
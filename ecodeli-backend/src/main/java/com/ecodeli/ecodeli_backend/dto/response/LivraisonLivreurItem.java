@@ -0,0 +1,69 @@
+package com.ecodeli.ecodeli_backend.dto.response;
+
+import com.ecodeli.ecodeli_backend.models.Livraison;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+/**
+ * Livraison vue par un livreur. Pour une livraison partielle, le prix affiché est celui de son segment
+ * et les informations d'entrepôt et de démarrage sont ajoutées ; elles ne sont pas sérialisées sinon.
+ */
+public record LivraisonLivreurItem(Integer idLivraison, String statut, String typeLivraison, Integer prix,
+                                   Integer prixTotal, String adresseEnvoi, String adresseDeLivraison,
+                                   LocalDateTime dateDebut, LocalDateTime dateFin,
+                                   @JsonInclude(JsonInclude.Include.NON_NULL) String titre,
+                                   @JsonInclude(JsonInclude.Include.NON_NULL) String description,
+                                   @JsonInclude(JsonInclude.Include.NON_NULL) String emailDestinataire,
+                                   @JsonInclude(JsonInclude.Include.NON_NULL) String entrepotVille,
+                                   @JsonInclude(JsonInclude.Include.NON_NULL) LocalDateTime dateDepotEntrepot,
+                                   @JsonInclude(JsonInclude.Include.NON_NULL) LocalDateTime dateCollecteEntrepot,
+                                   @JsonInclude(JsonInclude.Include.NON_NULL) String segment,
+                                   @JsonInclude(JsonInclude.Include.NON_NULL) Boolean canStart,
+                                   @JsonInclude(JsonInclude.Include.NON_NULL) String statusMessage) {
+
+    /**
+     * @param segment segment du livreur (SEGMENT_1, SEGMENT_2 ou NONE), utilisé pour une livraison partielle
+     */
+    public static LivraisonLivreurItem depuis(Livraison livraison, String segment) {
+        boolean partielle = livraison.getTypeLivraison() == Livraison.TypeLivraison.PARTIELLE;
+        Integer prix = livraison.getPrix();
+        Integer prixAffiche = partielle && prix != null ? prix / 2 : prix;
+
+        Boolean canStart = null;
+        String statusMessage = null;
+        if (partielle) {
+            canStart = false;
+            statusMessage = "";
+            if ("SEGMENT_1".equals(segment)) {
+                canStart = livraison.getStatut() == Livraison.StatutLivraison.VALIDEE;
+                statusMessage = canStart ? "Prêt à démarrer" : "En attente";
+            } else if ("SEGMENT_2".equals(segment)) {
+                canStart = livraison.getStatut() == Livraison.StatutLivraison.ATTENTE_SEGMENT_2;
+                statusMessage = canStart ? "Prêt à démarrer" :
+                    (livraison.getStatut() == Livraison.StatutLivraison.VALIDEE ? "En attente du segment 1" : "En cours");
+            }
+        }
+
+        boolean avecAnnonce = livraison.getAnnonce() != null;
+        return new LivraisonLivreurItem(
+            livraison.getIdLivraison(),
+            livraison.getStatut().name(),
+            livraison.getTypeLivraison().name(),
+            prixAffiche,
+            prix,
+            livraison.getAdresseEnvoi(),
+            livraison.getAdresseDeLivraison(),
+            livraison.getDateDebut(),
+            livraison.getDateFin(),
+            avecAnnonce ? livraison.getAnnonce().getTitre() : null,
+            avecAnnonce ? livraison.getAnnonce().getDescription() : null,
+            avecAnnonce ? livraison.getAnnonce().getEmailDestinataire() : null,
+            partielle ? livraison.getEntrepotVille() : null,
+            partielle ? livraison.getDateDepotEntrepot() : null,
+            partielle ? livraison.getDateCollecteEntrepot() : null,
+            partielle ? segment : null,
+            canStart,
+            statusMessage);
+    }
+}
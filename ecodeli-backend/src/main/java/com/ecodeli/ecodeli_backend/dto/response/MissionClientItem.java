@@ -0,0 +1,42 @@
+package com.ecodeli.ecodeli_backend.dto.response;
+
+import com.ecodeli.ecodeli_backend.models.DemandeService;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Mission d'un client (demande dont un prestataire a été retenu), construite directement par la requête JPQL
+ * via le constructeur à plat.
+ */
+public record MissionClientItem(Long id, String statut, BigDecimal prixAccepte, LocalDateTime dateAcceptation,
+                                Prestataire prestataire, Demande demandeService) {
+
+    public record Prestataire(Integer idUtilisateur, String prenom, String nom, String email) {
+    }
+
+    public record Demande(Long idDemande, String titre, String description, LocalDateTime dateSouhaitee,
+                          String adresseDepart) {
+    }
+
+    public MissionClientItem(Long idCandidature, BigDecimal prixPropose, LocalDateTime dateReponse,
+                             DemandeService.StatutDemande statutDemande, Integer idPrestataire,
+                             String prenomPrestataire, String nomPrestataire, String emailPrestataire,
+                             Long idDemande, String titre, String description, LocalDateTime dateSouhaitee,
+                             String adresseDepart) {
+        this(idCandidature, statutMission(statutDemande), prixPropose, dateReponse,
+            new Prestataire(idPrestataire, prenomPrestataire, nomPrestataire, emailPrestataire),
+            new Demande(idDemande, titre, description, dateSouhaitee, adresseDepart));
+    }
+
+    /**
+     * Statut de mission affiché pour le statut de la demande
+     */
+    static String statutMission(DemandeService.StatutDemande statutDemande) {
+        return switch (statutDemande) {
+            case EN_COURS -> "EN_COURS";
+            case TERMINEE -> "TERMINEE";
+            default -> "PRESTATAIRE_SELECTIONNE";
+        };
+    }
+}
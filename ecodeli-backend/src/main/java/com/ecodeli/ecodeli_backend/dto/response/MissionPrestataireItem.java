@@ -0,0 +1,42 @@
+package com.ecodeli.ecodeli_backend.dto.response;
+
+import com.ecodeli.ecodeli_backend.models.DemandeService;
+import com.ecodeli.ecodeli_backend.models.ServiceType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Mission d'un prestataire (candidature acceptée), construite directement par la requête JPQL
+ * via le constructeur à plat. dateDebut et dateTerminaison ne sont sérialisées que si elles s'appliquent.
+ */
+public record MissionPrestataireItem(Long id, Long candidatureId, String statut, BigDecimal prixAccepte,
+                                     LocalDateTime dateAcceptation,
+                                     @JsonInclude(JsonInclude.Include.NON_NULL) LocalDateTime dateDebut,
+                                     @JsonInclude(JsonInclude.Include.NON_NULL) LocalDateTime dateTerminaison,
+                                     Demande demandeService) {
+
+    public record Demande(Long idDemande, String titre, String description, String categorieService,
+                          LocalDateTime dateSouhaitee, String adresseDepart, String adresseArrivee,
+                          String creneauHoraire, Client client) {
+    }
+
+    public record Client(Integer idUtilisateur, String prenom, String nom, String email, String telephone) {
+    }
+
+    public MissionPrestataireItem(Long idCandidature, BigDecimal prixPropose, LocalDateTime dateReponse,
+                                  DemandeService.StatutDemande statutDemande, LocalDateTime dateModification,
+                                  Long idDemande, String titre, String description,
+                                  ServiceType categorieService,
+                                  LocalDateTime dateSouhaitee, String adresseDepart, String adresseArrivee,
+                                  String creneauHoraire, Integer idClient, String prenomClient, String nomClient,
+                                  String emailClient, String telephoneClient) {
+        this(idCandidature, idCandidature, MissionClientItem.statutMission(statutDemande), prixPropose, dateReponse,
+            statutDemande == DemandeService.StatutDemande.EN_COURS ? dateReponse : null,
+            statutDemande == DemandeService.StatutDemande.TERMINEE ? dateModification : null,
+            new Demande(idDemande, titre, description, categorieService.name(), dateSouhaitee,
+                adresseDepart, adresseArrivee, creneauHoraire,
+                new Client(idClient, prenomClient, nomClient, emailClient, telephoneClient)));
+    }
+}
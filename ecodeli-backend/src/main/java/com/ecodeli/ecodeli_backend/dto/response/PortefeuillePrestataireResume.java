@@ -0,0 +1,23 @@
+package com.ecodeli.ecodeli_backend.dto.response;
+
+import com.ecodeli.ecodeli_backend.models.PortefeuillePrestataire;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Soldes et informations bancaires (IBAN masqué) du portefeuille d'un prestataire.
+ */
+public record PortefeuillePrestataireResume(Integer prestataireId, BigDecimal soldeDisponible,
+                                            BigDecimal soldeEnAttente, BigDecimal soldeTotal, BigDecimal totalGagne,
+                                            BigDecimal totalRetire, Integer nombreTransactions, String ibanMasque,
+                                            String nomTitulaire, LocalDateTime dateCreation,
+                                            LocalDateTime dateModification) {
+
+    public static PortefeuillePrestataireResume depuis(Integer prestataireId, PortefeuillePrestataire portefeuille) {
+        return new PortefeuillePrestataireResume(prestataireId, portefeuille.getSoldeDisponible(),
+            portefeuille.getSoldeEnAttente(), portefeuille.getSoldeTotal(), portefeuille.getTotalGagne(),
+            portefeuille.getTotalRetire(), portefeuille.getNombreTransactions(), portefeuille.getIbanMasque(),
+            portefeuille.getNomTitulaire(), portefeuille.getDateCreation(), portefeuille.getDateModification());
+    }
+}
@@ -0,0 +1,45 @@
+package com.ecodeli.ecodeli_backend.dto.response;
+
+import com.ecodeli.ecodeli_backend.models.TransactionPortefeuille;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Transaction du portefeuille d'un prestataire, construite directement par la requête JPQL via le
+ * constructeur à plat. « termine » n'est renseigné que pour le suivi d'une transaction en cours.
+ */
+public record TransactionPortefeuilleItem(Long idTransaction, String type, String typeLabel, BigDecimal montant,
+                                          String statut, String statutLabel, String description,
+                                          LocalDateTime dateTransaction, LocalDateTime dateTraitement,
+                                          String reference,
+                                          @JsonProperty("isCredit") boolean isCredit,
+                                          @JsonProperty("isDebit") boolean isDebit,
+                                          @JsonInclude(JsonInclude.Include.NON_NULL) String missionTitre,
+                                          @JsonInclude(JsonInclude.Include.NON_NULL) String ibanDestination,
+                                          @JsonInclude(JsonInclude.Include.NON_NULL) Boolean termine) {
+
+    public TransactionPortefeuilleItem(Long idTransaction, TransactionPortefeuille.TypeTransaction type,
+                                       BigDecimal montant, TransactionPortefeuille.StatutTransaction statut,
+                                       String description, LocalDateTime dateTransaction,
+                                       LocalDateTime dateTraitement, String reference, String ibanDestinataire,
+                                       String missionTitre) {
+        this(idTransaction, type.name(), type.getLabel(), montant, statut.name(), statut.getLabel(),
+            TransactionPortefeuille.descriptionComplete(description, type, missionTitre, montant),
+            dateTransaction, dateTraitement, reference, type.estCredit(), type.estDebit(), missionTitre,
+            TransactionPortefeuille.masquerIban(ibanDestinataire), null);
+    }
+
+    /**
+     * Même transaction, avec l'indicateur de fin de traitement
+     */
+    public TransactionPortefeuilleItem avecTermine() {
+        boolean fini = !TransactionPortefeuille.StatutTransaction.EN_ATTENTE.name().equals(statut)
+            && !TransactionPortefeuille.StatutTransaction.EN_COURS.name().equals(statut);
+        return new TransactionPortefeuilleItem(idTransaction, type, typeLabel, montant, statut, statutLabel,
+            description, dateTransaction, dateTraitement, reference, isCredit, isDebit, missionTitre,
+            ibanDestination, fini);
+    }
+}
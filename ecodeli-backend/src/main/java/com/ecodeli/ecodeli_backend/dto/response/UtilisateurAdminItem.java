@@ -0,0 +1,19 @@
+package com.ecodeli.ecodeli_backend.dto.response;
+
+import com.ecodeli.ecodeli_backend.models.Utilisateur;
+
+import java.time.LocalDate;
+
+/**
+ * Ligne de la liste des utilisateurs du back office.
+ */
+public record UtilisateurAdminItem(Integer idUtilisateur, String nom, String prenom, String email, String telephone,
+                                   String adresse, String ville, String codePostal, String pays, Boolean genre,
+                                   LocalDate dateDeNaissance, String userType) {
+
+    public static UtilisateurAdminItem depuis(Utilisateur user) {
+        return new UtilisateurAdminItem(user.getIdUtilisateur(), user.getNom(), user.getPrenom(), user.getEmail(),
+            user.getTelephone(), user.getAdresse(), user.getVille(), user.getCodePostal(), user.getPays(),
+            user.getGenre(), user.getDateDeNaissance(), user.getType());
+    }
+}
@@ -10,7 +10,12 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "ANNONCE")
+@Table(name = "ANNONCE", indexes = {
+    @Index(name = "idx_annonce_livreur", columnList = "id_livreur"),
+    @Index(name = "idx_annonce_expediteur", columnList = "id_expediteur"),
+    @Index(name = "idx_annonce_statut_date", columnList = "statut, date_creation, id_annonce"),
+    @Index(name = "idx_annonce_statut_cp_date", columnList = "statut, code_postal_depart, date_creation")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -52,6 +57,15 @@ public class Annonce {
     @Column(name = "adresse_fin", columnDefinition = "TEXT")
     private String adresseFin;
 
+    @Column(name = "code_postal_depart", length = 10)
+    private String codePostalDepart;
+
+    @Column(name = "ville_depart", length = 100)
+    private String villeDepart;
+
+    @Column(name = "date_creation", updatable = false)
+    private LocalDateTime dateCreation;
+
     @ManyToOne
     @JoinColumn(name = "id_expediteur", nullable = false)
     private Utilisateur expediteur;
@@ -104,6 +118,13 @@ public class Annonce {
     @Column(name = "statut_segment2")
     private StatutSegment statutSegment2 = StatutSegment.DISPONIBLE;
 
+    @PrePersist
+    protected void onCreate() {
+        if (dateCreation == null) {
+            dateCreation = LocalDateTime.now();
+        }
+    }
+
     public enum TypeAnnonce {
         unique, multiple
     }
@@ -12,7 +12,9 @@ import java.time.LocalTime;
 import java.util.List;
 
 @Entity
-@Table(name = "ANNONCE_COMMERCANT")
+@Table(name = "ANNONCE_COMMERCANT", indexes = {
+    @Index(name = "idx_annonce_commercant_statut_categorie_expiration", columnList = "statut, categorie, date_expiration")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -9,7 +9,9 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "CANDIDATURE")
+@Table(name = "CANDIDATURE", indexes = {
+    @Index(name = "idx_candidature_prestataire_demande", columnList = "id_prestataire, id_demande")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
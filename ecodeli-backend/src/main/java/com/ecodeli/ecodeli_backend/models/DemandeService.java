@@ -6,18 +6,26 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
 @Entity
-@Table(name = "DEMANDE_SERVICE")
+@Table(name = "DEMANDE_SERVICE", indexes = {
+    @Index(name = "idx_demande_categorie_statut_date", columnList = "categorie_service, statut, date_creation"),
+    @Index(name = "idx_demande_details_urgence", columnList = "details_urgence, statut"),
+    @Index(name = "idx_demande_details_frequence", columnList = "details_frequence, statut")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -74,6 +82,30 @@ public class DemandeService {
     @Column(name = "details_specifiques", columnDefinition = "JSON")
     private String detailsSpecifiques;
 
+    // Colonnes virtuelles calculées par la base depuis details_specifiques, indexées pour les filtres
+    @JsonIgnore
+    @Column(name = "details_urgence", insertable = false, updatable = false,
+            columnDefinition = "VARCHAR(30) AS (JSON_VALUE(details_specifiques, '$.urgence')) VIRTUAL")
+    private String detailsUrgence;
+
+    @JsonIgnore
+    @Column(name = "details_frequence", insertable = false, updatable = false,
+            columnDefinition = "VARCHAR(30) AS (JSON_VALUE(details_specifiques, '$.frequence')) VIRTUAL")
+    private String detailsFrequence;
+
+    // Lecture du JSON faite une seule fois par instance, à la première demande
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private transient Map<String, Object> detailsLus;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private transient DetailsDemande detailsTypes;
+
     @NotNull(message = "Le statut est obligatoire")
     @Enumerated(EnumType.STRING)
     @Column(name = "statut", nullable = false)
@@ -141,30 +173,60 @@ public class DemandeService {
 
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
+    public void setDetailsSpecifiques(String detailsSpecifiques) {
+        this.detailsSpecifiques = detailsSpecifiques;
+        this.detailsLus = null;
+        this.detailsTypes = null;
+    }
+
+    @JsonIgnore
     public Map<String, Object> getDetailsSpecifiquesAsMap() {
-        if (detailsSpecifiques == null || detailsSpecifiques.trim().isEmpty()) {
-            return new HashMap<>();
+        if (detailsLus == null) {
+            detailsLus = lireDetails();
         }
-        try {
-            return objectMapper.readValue(detailsSpecifiques, new TypeReference<Map<String, Object>>() {});
-        } catch (JsonProcessingException e) {
-            return new HashMap<>();
+        return detailsLus;
+    }
+
+    /**
+     * Détails typés selon la catégorie de la demande, ou null si elle n'en a pas
+     */
+    @JsonIgnore
+    public DetailsDemande getDetails() {
+        if (detailsTypes == null && categorieService != null && hasDetailsSpecifiques()) {
+            try {
+                detailsTypes = DetailsDemande.depuis(categorieService, getDetailsSpecifiquesAsMap(), objectMapper);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
         }
+        return detailsTypes;
     }
 
     public void setDetailsSpecifiquesFromMap(Map<String, Object> details) {
         if (details == null || details.isEmpty()) {
-            this.detailsSpecifiques = null;
+            setDetailsSpecifiques(null);
             return;
         }
         try {
-            this.detailsSpecifiques = objectMapper.writeValueAsString(details);
+            setDetailsSpecifiques(objectMapper.writeValueAsString(details));
         } catch (JsonProcessingException e) {
-            this.detailsSpecifiques = null;
+            setDetailsSpecifiques(null);
         }
     }
 
     public boolean hasDetailsSpecifiques() {
         return detailsSpecifiques != null && !detailsSpecifiques.trim().isEmpty();
     }
+
+    private Map<String, Object> lireDetails() {
+        if (!hasDetailsSpecifiques()) {
+            return Map.of();
+        }
+        try {
+            return Collections.unmodifiableMap(
+                objectMapper.readValue(detailsSpecifiques, new TypeReference<Map<String, Object>>() {}));
+        } catch (JsonProcessingException e) {
+            return Map.of();
+        }
+    }
 }
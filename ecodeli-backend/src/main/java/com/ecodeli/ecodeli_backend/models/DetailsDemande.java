@@ -0,0 +1,64 @@
+package com.ecodeli.ecodeli_backend.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Détails spécifiques d'une demande de service, typés selon sa catégorie.
+ * Les champs correspondent aux formulaires dynamiques du front (data/service-categories) ;
+ * les champs d'autres catégories éventuellement présents dans le JSON sont ignorés.
+ */
+public sealed interface DetailsDemande {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record TransportLivraison(List<String> typeTransport, Integer nombrePersonnes, String typeVehicule,
+                              Double volumeColis, String urgence) implements DetailsDemande {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record ServicesDomicile(List<String> typeService, Double surface, Integer nombreEnfants, String ageEnfants,
+                            String typeAnimaux, String frequence, Double dureeIntervention) implements DetailsDemande {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record TravauxReparations(List<String> typeTravaux, String urgence, Double surfaceTravaux, String materielFourni,
+                              Double dureeEstimee, String competenceSpeciale) implements DetailsDemande {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record CoursesAchats(List<String> typeCourses, String magasinsPreferes, Double budgetApproxmatif,
+                         String listeFournie, String modePaiement, String frequence,
+                         String produitsSpeciaux) implements DetailsDemande {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record ServicesPersonnels(List<String> typeService, String typeEvenement, Integer nombreInvites,
+                              Double budgetEvenement, String typeDemarches, String urgence, String lieuIntervention,
+                              Double dureeEstimee) implements DetailsDemande {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record EducationFormation(List<String> typeFormation, String matiere, String niveauEleve,
+                              String objectifFormation, String modalitesCours, String frequenceCours,
+                              Double dureeCours, String periodeFormation,
+                              String materielNecessaire) implements DetailsDemande {
+    }
+
+    /**
+     * Construit les détails typés de la catégorie à partir du JSON déjà lu en map
+     */
+    static DetailsDemande depuis(ServiceType categorie, Map<String, Object> details, ObjectMapper mapper) {
+        Class<? extends DetailsDemande> type = switch (categorie) {
+            case TRANSPORT_LIVRAISON -> TransportLivraison.class;
+            case SERVICES_DOMICILE -> ServicesDomicile.class;
+            case TRAVAUX_REPARATIONS -> TravauxReparations.class;
+            case COURSES_ACHATS -> CoursesAchats.class;
+            case SERVICES_PERSONNELS -> ServicesPersonnels.class;
+            case EDUCATION_FORMATION -> EducationFormation.class;
+        };
+        return mapper.convertValue(details, type);
+    }
+}
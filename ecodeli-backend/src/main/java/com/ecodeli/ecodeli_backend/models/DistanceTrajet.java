@@ -0,0 +1,45 @@
+package com.ecodeli.ecodeli_backend.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "DISTANCE_TRAJET", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_distance_trajet", columnNames = {"origine", "destination"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DistanceTrajet {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_distance")
+    private Long idDistance;
+
+    @Column(name = "origine", nullable = false, length = 255)
+    private String origine;
+
+    @Column(name = "destination", nullable = false, length = 255)
+    private String destination;
+
+    @Column(name = "distance_km", nullable = false, precision = 10, scale = 2)
+    private BigDecimal distanceKm;
+
+    @Column(name = "fournisseur", length = 30)
+    private String fournisseur;
+
+    @Column(name = "date_resolution", nullable = false)
+    private LocalDateTime dateResolution;
+
+    @PrePersist
+    protected void onCreate() {
+        if (dateResolution == null) {
+            dateResolution = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.ecodeli.ecodeli_backend.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "EMAIL_OUTBOX", indexes = {
+    @Index(name = "idx_email_outbox_statut_tentative", columnList = "statut, prochaine_tentative")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_email")
+    private Long idEmail;
+
+    @Column(name = "destinataire", nullable = false, length = 255)
+    private String destinataire;
+
+    @Column(name = "sujet", nullable = false, length = 255)
+    private String sujet;
+
+    @Lob
+    @Column(name = "contenu_html", nullable = false, columnDefinition = "LONGTEXT")
+    private String contenuHtml;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "statut", nullable = false, length = 20)
+    private StatutEmail statut = StatutEmail.EN_ATTENTE;
+
+    @Column(name = "tentatives", nullable = false)
+    private Integer tentatives = 0;
+
+    @Column(name = "prochaine_tentative", nullable = false)
+    private LocalDateTime prochaineTentative;
+
+    @Column(name = "derniere_erreur", length = 1000)
+    private String derniereErreur;
+
+    @Column(name = "date_creation", nullable = false, updatable = false)
+    private LocalDateTime dateCreation;
+
+    @Column(name = "date_envoi")
+    private LocalDateTime dateEnvoi;
+
+    // Réservation de l'instance qui envoie l'email (EN_COURS) ; prochaineTentative porte alors la fin du bail
+    @Column(name = "jeton_reservation", length = 36)
+    private String jetonReservation;
+
+    @PrePersist
+    protected void onCreate() {
+        dateCreation = LocalDateTime.now();
+        if (prochaineTentative == null) {
+            prochaineTentative = dateCreation;
+        }
+    }
+
+    public enum StatutEmail {
+        EN_ATTENTE, EN_COURS, ENVOYE, ECHEC_DEFINITIF
+    }
+
+    public void marquerEnvoye() {
+        this.statut = StatutEmail.ENVOYE;
+        this.dateEnvoi = LocalDateTime.now();
+        this.derniereErreur = null;
+    }
+
+    /**
+     * Enregistre un échec : nouvelle tentative avec backoff exponentiel, ou abandon au-delà du maximum
+     */
+    public void marquerEchec(String erreur, int tentativesMax, long delaiBaseSecondes) {
+        this.tentatives++;
+        this.derniereErreur = erreur != null && erreur.length() > 1000 ? erreur.substring(0, 1000) : erreur;
+        if (tentatives >= tentativesMax) {
+            this.statut = StatutEmail.ECHEC_DEFINITIF;
+        } else {
+            this.statut = StatutEmail.EN_ATTENTE;
+            this.prochaineTentative = LocalDateTime.now().plusSeconds(delaiBaseSecondes << (tentatives - 1));
+        }
+    }
+}
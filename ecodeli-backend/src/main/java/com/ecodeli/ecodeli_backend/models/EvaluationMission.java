@@ -8,7 +8,9 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "EVALUATION_MISSION")
+@Table(name = "EVALUATION_MISSION", indexes = {
+    @Index(name = "idx_evaluation_prestataire", columnList = "id_prestataire")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -103,6 +105,10 @@ public class EvaluationMission {
      * Retourne le label textuel de la note globale
      */
     public String getNoteGlobaleLabel() {
+        return libelleNote(noteGlobale);
+    }
+
+    public static String libelleNote(Integer noteGlobale) {
         if (noteGlobale == null) return "Non noté";
         
         switch (noteGlobale) {
@@ -135,6 +141,10 @@ public class EvaluationMission {
      * Retourne le sentiment général de l'évaluation
      */
     public String getSentiment() {
+        return sentiment(noteGlobale);
+    }
+
+    public static String sentiment(Integer noteGlobale) {
         if (noteGlobale == null) return "NEUTRE";
         
         if (noteGlobale >= 4) return "POSITIF";
@@ -8,7 +8,12 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "LIVRAISON")
+@Table(name = "LIVRAISON", indexes = {
+    @Index(name = "idx_livraison_annonce_type", columnList = "id_annonce, type_livraison"),
+    @Index(name = "idx_livraison_segment1_type", columnList = "livreur_segment_1, type_livraison"),
+    @Index(name = "idx_livraison_segment2_type", columnList = "livreur_segment_2, type_livraison"),
+    @Index(name = "idx_livraison_statut", columnList = "statut")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
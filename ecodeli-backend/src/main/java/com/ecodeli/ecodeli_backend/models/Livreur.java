@@ -23,10 +23,11 @@ public class Livreur extends Utilisateur {
     @Column(name = "disponible")
     private Boolean disponible;
 
-    @Column(name = "solde_portefeuille", precision = 10, scale = 2)
+    // Soldes modifiés uniquement par les mises à jour atomiques de LivreurRepository
+    @Column(name = "solde_portefeuille", precision = 10, scale = 2, updatable = false)
     private BigDecimal soldePortefeuille = BigDecimal.ZERO;
 
-    @Column(name = "total_gagnes", precision = 10, scale = 2)
+    @Column(name = "total_gagnes", precision = 10, scale = 2, updatable = false)
     private BigDecimal totalGagnes = BigDecimal.ZERO;
 
     @Column(name = "iban_livreur", length = 34)
@@ -23,19 +23,20 @@ public class PortefeuillePrestataire {
     @JoinColumn(name = "id_prestataire", nullable = false, unique = true)
     private Prestataire prestataire;
     
-    @Column(name = "solde_disponible", precision = 10, scale = 2, nullable = false)
+    // Soldes et compteurs modifiés uniquement par les mises à jour atomiques de PortefeuilleRepository
+    @Column(name = "solde_disponible", precision = 10, scale = 2, nullable = false, updatable = false)
     private BigDecimal soldeDisponible = BigDecimal.ZERO;
     
-    @Column(name = "solde_en_attente", precision = 10, scale = 2, nullable = false)
+    @Column(name = "solde_en_attente", precision = 10, scale = 2, nullable = false, updatable = false)
     private BigDecimal soldeEnAttente = BigDecimal.ZERO;
     
-    @Column(name = "total_gagne", precision = 10, scale = 2, nullable = false)
+    @Column(name = "total_gagne", precision = 10, scale = 2, nullable = false, updatable = false)
     private BigDecimal totalGagne = BigDecimal.ZERO;
     
-    @Column(name = "total_retire", precision = 10, scale = 2, nullable = false)
+    @Column(name = "total_retire", precision = 10, scale = 2, nullable = false, updatable = false)
     private BigDecimal totalRetire = BigDecimal.ZERO;
     
-    @Column(name = "nombre_transactions", nullable = false)
+    @Column(name = "nombre_transactions", nullable = false, updatable = false)
     private Integer nombreTransactions = 0;
     
     @Column(name = "date_creation", nullable = false)
@@ -50,6 +51,10 @@ public class PortefeuillePrestataire {
     @Column(name = "nom_titulaire", length = 100)
     private String nomTitulaire;
     
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long version = 0L;
+    
     @PrePersist
     protected void onCreate() {
         dateCreation = LocalDateTime.now();
@@ -61,31 +66,6 @@ public class PortefeuillePrestataire {
         dateModification = LocalDateTime.now();
     }
     
-    /**
-     * Crédite le portefeuille avec le montant d'une mission
-     */
-    public void crediterMission(BigDecimal montant) {
-        if (montant != null && montant.compareTo(BigDecimal.ZERO) > 0) {
-            this.soldeDisponible = this.soldeDisponible.add(montant);
-            this.totalGagne = this.totalGagne.add(montant);
-            this.nombreTransactions++;
-        }
-    }
-    
-    /**
-     * Débite le portefeuille pour un retrait
-     */
-    public boolean debiterRetrait(BigDecimal montant) {
-        if (montant != null && montant.compareTo(BigDecimal.ZERO) > 0 
-            && this.soldeDisponible.compareTo(montant) >= 0) {
-            this.soldeDisponible = this.soldeDisponible.subtract(montant);
-            this.totalRetire = this.totalRetire.add(montant);
-            this.nombreTransactions++;
-            return true;
-        }
-        return false;
-    }
-    
     /**
      * Vérifie si le retrait est possible
      */
@@ -0,0 +1,94 @@
+package com.ecodeli.ecodeli_backend.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Sommes et compteurs des évaluations d'un prestataire, tenus à jour à chaque évaluation
+ * (ResumeNotesPrestataireRepository.ajouterEvaluation) et reconstructibles depuis EVALUATION_MISSION.
+ */
+@Entity
+@Table(name = "RESUME_NOTES_PRESTATAIRE")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumeNotesPrestataire {
+
+    @Id
+    @Column(name = "id_prestataire")
+    private Integer idPrestataire;
+
+    @Column(name = "nombre_evaluations", nullable = false)
+    private Long nombreEvaluations = 0L;
+
+    @Column(name = "somme_globale", nullable = false)
+    private Long sommeGlobale = 0L;
+
+    @Column(name = "somme_qualite", nullable = false)
+    private Long sommeQualite = 0L;
+
+    @Column(name = "somme_delais", nullable = false)
+    private Long sommeDelais = 0L;
+
+    @Column(name = "somme_communication", nullable = false)
+    private Long sommeCommunication = 0L;
+
+    @Column(name = "somme_professionnalisme", nullable = false)
+    private Long sommeProfessionnalisme = 0L;
+
+    @Column(name = "nb_note_1", nullable = false)
+    private Long nbNote1 = 0L;
+
+    @Column(name = "nb_note_2", nullable = false)
+    private Long nbNote2 = 0L;
+
+    @Column(name = "nb_note_3", nullable = false)
+    private Long nbNote3 = 0L;
+
+    @Column(name = "nb_note_4", nullable = false)
+    private Long nbNote4 = 0L;
+
+    @Column(name = "nb_note_5", nullable = false)
+    private Long nbNote5 = 0L;
+
+    @Column(name = "date_mise_a_jour")
+    private LocalDateTime dateMiseAJour;
+
+    public double getMoyenneGlobale() {
+        return moyenne(sommeGlobale);
+    }
+
+    public double getMoyenneQualite() {
+        return moyenne(sommeQualite);
+    }
+
+    public double getMoyenneDelais() {
+        return moyenne(sommeDelais);
+    }
+
+    public double getMoyenneCommunication() {
+        return moyenne(sommeCommunication);
+    }
+
+    public double getMoyenneProfessionnalisme() {
+        return moyenne(sommeProfessionnalisme);
+    }
+
+    public long getNombreNote(int note) {
+        return switch (note) {
+            case 1 -> nbNote1;
+            case 2 -> nbNote2;
+            case 3 -> nbNote3;
+            case 4 -> nbNote4;
+            case 5 -> nbNote5;
+            default -> 0L;
+        };
+    }
+
+    private double moyenne(Long somme) {
+        return nombreEvaluations > 0 ? (double) somme / nombreEvaluations : 0.0;
+    }
+}
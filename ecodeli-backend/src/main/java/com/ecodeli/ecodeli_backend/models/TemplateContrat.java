@@ -5,10 +5,14 @@ import jakarta.validation.constraints.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "TEMPLATE_CONTRAT")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "templateContrat")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,66 @@
+package com.ecodeli.ecodeli_backend.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Écriture du journal du portefeuille livreur. Le journal est en ajout seul :
+ * le solde de LIVREUR n'évolue que par mises à jour atomiques accompagnées d'une écriture.
+ */
+@Entity
+@Immutable
+@Table(name = "TRANSACTION_LIVREUR", indexes = {
+    @Index(name = "idx_transaction_livreur_date", columnList = "id_livreur, date_transaction")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionLivreur {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_transaction")
+    private Long idTransaction;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_livreur", nullable = false)
+    private Livreur livreur;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type_transaction", nullable = false)
+    private TypeTransaction typeTransaction;
+
+    @Column(name = "montant", precision = 10, scale = 2, nullable = false)
+    private BigDecimal montant;
+
+    @Column(name = "commission_ecodeli", precision = 10, scale = 2)
+    private BigDecimal commissionEcodeli = BigDecimal.ZERO;
+
+    @Column(name = "reference_externe", length = 100)
+    private String referenceExterne;
+
+    @Column(name = "date_transaction", nullable = false)
+    private LocalDateTime dateTransaction;
+
+    @PrePersist
+    protected void onCreate() {
+        if (dateTransaction == null) {
+            dateTransaction = LocalDateTime.now();
+        }
+    }
+
+    public enum TypeTransaction {
+        CREDIT_LIVRAISON,
+        RETRAIT
+    }
+
+    public static String genererReference(TypeTransaction type, Integer livreurId) {
+        String prefix = type == TypeTransaction.CREDIT_LIVRAISON ? "CL" : "RL";
+        return String.format("%s_%d_%d", prefix, livreurId, System.currentTimeMillis());
+    }
+}
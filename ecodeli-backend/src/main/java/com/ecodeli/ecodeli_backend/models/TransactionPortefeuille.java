@@ -8,7 +8,9 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "TRANSACTION_PORTEFEUILLE")
+@Table(name = "TRANSACTION_PORTEFEUILLE", indexes = {
+    @Index(name = "idx_transaction_portefeuille_date", columnList = "id_portefeuille, date_transaction")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -96,6 +98,14 @@ public class TransactionPortefeuille {
         public String getLabel() {
             return label;
         }
+
+        public boolean estCredit() {
+            return this == CREDIT_MISSION || this == BONUS || this == REMBOURSEMENT;
+        }
+
+        public boolean estDebit() {
+            return this == RETRAIT_PRESTATAIRE || this == FRAIS_SERVICE;
+        }
     }
     
     public enum StatutTransaction {
@@ -131,35 +141,52 @@ public class TransactionPortefeuille {
     }
     
     public boolean isCredit() {
-        return typeTransaction == TypeTransaction.CREDIT_MISSION ||
-               typeTransaction == TypeTransaction.BONUS ||
-               typeTransaction == TypeTransaction.REMBOURSEMENT;
+        return typeTransaction != null && typeTransaction.estCredit();
     }
     
     public boolean isDebit() {
-        return typeTransaction == TypeTransaction.RETRAIT_PRESTATAIRE ||
-               typeTransaction == TypeTransaction.FRAIS_SERVICE;
+        return typeTransaction != null && typeTransaction.estDebit();
     }
     
     public String getDescriptionComplete() {
+        String titreMission = candidature != null && candidature.getDemandeService() != null
+            ? candidature.getDemandeService().getTitre() : null;
+        return descriptionComplete(description, typeTransaction, titreMission, montant);
+    }
+
+    /**
+     * Description saisie, sinon type, mission éventuelle et montant signé
+     */
+    public static String descriptionComplete(String description, TypeTransaction type, String titreMission,
+                                             BigDecimal montant) {
         if (description != null && !description.trim().isEmpty()) {
             return description;
         }
         
         StringBuilder desc = new StringBuilder();
-        desc.append(typeTransaction.getLabel());
+        desc.append(type.getLabel());
         
-        if (candidature != null && candidature.getDemandeService() != null) {
-            desc.append(" - ").append(candidature.getDemandeService().getTitre());
+        if (titreMission != null) {
+            desc.append(" - ").append(titreMission);
         }
         
         if (montant != null) {
-            String signe = isCredit() ? "+" : "-";
+            String signe = type.estCredit() ? "+" : "-";
             desc.append(" (").append(signe).append(montant).append("€)");
         }
         
         return desc.toString();
     }
+
+    /**
+     * IBAN masqué pour l'affichage (4 premiers et 4 derniers caractères)
+     */
+    public static String masquerIban(String iban) {
+        if (iban == null || iban.length() < 8) {
+            return iban;
+        }
+        return iban.substring(0, 4) + " ****" + iban.substring(iban.length() - 4);
+    }
     
     public static String genererReference(TypeTransaction type, Long prestataireId) {
         String prefix = type == TypeTransaction.CREDIT_MISSION ? "CM" :
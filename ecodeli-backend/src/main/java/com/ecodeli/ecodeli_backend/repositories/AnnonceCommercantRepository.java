@@ -13,6 +13,10 @@ import java.util.List;
 
 @Repository
 public interface AnnonceCommercantRepository extends JpaRepository<AnnonceCommercant, Integer> {
+
+    String ACTIVES_PAR_CATEGORIE =
+        "SELECT a FROM AnnonceCommercant a WHERE a.categorie = :categorie AND a.statut = 'ACTIVE' " +
+        "AND (a.dateExpiration IS NULL OR a.dateExpiration > :now) ORDER BY a.dateCreation DESC";
     
     List<AnnonceCommercant> findByCommercantOrderByDateCreationDesc(Commercant commercant);
     
@@ -35,7 +39,7 @@ public interface AnnonceCommercantRepository extends JpaRepository<AnnonceCommer
     @Query("SELECT a FROM AnnonceCommercant a WHERE a.statut = 'ACTIVE' AND (a.dateExpiration IS NULL OR a.dateExpiration > :now) ORDER BY a.dateCreation DESC")
     List<AnnonceCommercant> findActiveAnnouncements(@Param("now") LocalDateTime now);
     
-    @Query("SELECT a FROM AnnonceCommercant a WHERE a.categorie = :categorie AND a.statut = 'ACTIVE' AND (a.dateExpiration IS NULL OR a.dateExpiration > :now) ORDER BY a.dateCreation DESC")
+    @Query(ACTIVES_PAR_CATEGORIE)
     List<AnnonceCommercant> findActiveByCategorieAnnouncements(@Param("categorie") CategorieAnnonce categorie, 
                                                               @Param("now") LocalDateTime now);
 
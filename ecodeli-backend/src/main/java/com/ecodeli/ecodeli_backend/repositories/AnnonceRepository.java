@@ -1,8 +1,97 @@
 package com.ecodeli.ecodeli_backend.repositories;
 
+import com.ecodeli.ecodeli_backend.dto.response.AnnonceFeedItem;
 import com.ecodeli.ecodeli_backend.models.Annonce;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Repository
-public interface AnnonceRepository extends JpaRepository<Annonce, Integer> {}
+public interface AnnonceRepository extends JpaRepository<Annonce, Integer> {
+
+    String FEED_SELECT =
+        "SELECT new com.ecodeli.ecodeli_backend.dto.response.AnnonceFeedItem(" +
+        "a.idAnnonce, a.titre, a.prixUnitaire, a.statut, a.adresseDepart, a.adresseFin, " +
+        "a.codePostalDepart, a.villeDepart, a.livraisonPartielleAutorisee, a.dateCreation) " +
+        "FROM Annonce a ";
+
+    String FEED_FILTRES =
+        "WHERE a.statut = :statut " +
+        "AND (:codePostal IS NULL OR a.codePostalDepart = :codePostal) " +
+        "AND (:ville IS NULL OR a.villeDepart = :ville) " +
+        "AND (:prixMin IS NULL OR a.prixUnitaire >= :prixMin) " +
+        "AND (:prixMax IS NULL OR a.prixUnitaire <= :prixMax) " +
+        "AND (:partielle IS NULL OR a.livraisonPartielleAutorisee = :partielle) ";
+
+    String FEED_ORDRE = "ORDER BY a.dateCreation DESC, a.idAnnonce DESC";
+
+    String FEED = FEED_SELECT + FEED_FILTRES + FEED_ORDRE;
+
+    String FEED_APRES = FEED_SELECT + FEED_FILTRES +
+        "AND (a.dateCreation < :apresDate " +
+        "     OR (a.dateCreation = :apresDate AND a.idAnnonce < :apresId)) " +
+        FEED_ORDRE;
+
+    String ANNONCES_EXPEDITEUR = "SELECT a FROM Annonce a WHERE a.expediteur.idUtilisateur = :expediteurId";
+
+    /**
+     * Récupérer les annonces d'un expéditeur
+     */
+    @Query(ANNONCES_EXPEDITEUR)
+    List<Annonce> findByExpediteurIdUtilisateur(@Param("expediteurId") Integer expediteurId);
+
+    /**
+     * Récupérer les annonces prises en charge par un livreur
+     */
+    List<Annonce> findByLivreurIdUtilisateur(Integer livreurId);
+
+    /**
+     * Récupérer les annonces par statut
+     */
+    List<Annonce> findByStatut(Annonce.StatutAnnonce statut);
+
+    /**
+     * Fil des annonces : première page
+     */
+    @Query(FEED)
+    List<AnnonceFeedItem> findFeed(
+        @Param("statut") Annonce.StatutAnnonce statut,
+        @Param("codePostal") String codePostal,
+        @Param("ville") String ville,
+        @Param("prixMin") BigDecimal prixMin,
+        @Param("prixMax") BigDecimal prixMax,
+        @Param("partielle") Boolean partielle,
+        Pageable pageable);
+
+    /**
+     * Fil des annonces : page suivante, après le curseur (dateCreation, idAnnonce)
+     */
+    @Query(FEED_APRES)
+    List<AnnonceFeedItem> findFeedApres(
+        @Param("statut") Annonce.StatutAnnonce statut,
+        @Param("codePostal") String codePostal,
+        @Param("ville") String ville,
+        @Param("prixMin") BigDecimal prixMin,
+        @Param("prixMax") BigDecimal prixMax,
+        @Param("partielle") Boolean partielle,
+        @Param("apresDate") LocalDateTime apresDate,
+        @Param("apresId") Integer apresId,
+        Pageable pageable);
+
+    /**
+     * Mettre à jour le prix d'une annonce tant qu'elle n'a pas été prise en charge
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Annonce a SET a.prixUnitaire = :prix WHERE a.idAnnonce = :annonceId " +
+           "AND a.statut = 'PUBLIEE'")
+    int updatePrixSiPubliee(@Param("annonceId") Integer annonceId, @Param("prix") BigDecimal prix);
+}
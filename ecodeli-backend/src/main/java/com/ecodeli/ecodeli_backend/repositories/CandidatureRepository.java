@@ -1,5 +1,8 @@
 package com.ecodeli.ecodeli_backend.repositories;
 
+import com.ecodeli.ecodeli_backend.dto.response.CandidatureEnvoyeeItem;
+import com.ecodeli.ecodeli_backend.dto.response.MissionClientItem;
+import com.ecodeli.ecodeli_backend.dto.response.MissionPrestataireItem;
 import com.ecodeli.ecodeli_backend.models.Candidature;
 import com.ecodeli.ecodeli_backend.models.DemandeService;
 import com.ecodeli.ecodeli_backend.models.Prestataire;
@@ -9,6 +12,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -82,13 +86,6 @@ public interface CandidatureRepository extends JpaRepository<Candidature, Long>
            "ORDER BY c.dateCandidature DESC")
     List<Candidature> findRecentCandidatures(@Param("dateLimit") LocalDateTime dateLimit);
     
-    /**
-     * Récupérer les candidatures acceptées d'un prestataire
-     */
-    @Query("SELECT c FROM Candidature c WHERE c.prestataire.idUtilisateur = :prestataireId " +
-           "AND c.statut = 'ACCEPTEE' ORDER BY c.dateReponse DESC")
-    List<Candidature> findAcceptedByPrestataire(@Param("prestataireId") Integer prestataireId);
-    
     /**
      * Statistiques globales des candidatures
      */
@@ -107,4 +104,75 @@ public interface CandidatureRepository extends JpaRepository<Candidature, Long>
     List<Candidature> findByPrixRange(
         @Param("prixMin") java.math.BigDecimal prixMin,
         @Param("prixMax") java.math.BigDecimal prixMax);
-}
\ No newline at end of file
+    
+    /**
+     * Récupérer les candidatures d'une demande avec leur prestataire en une requête
+     */
+    @Query("SELECT c FROM Candidature c JOIN FETCH c.prestataire " +
+           "WHERE c.demandeService.idDemande = :demandeId ORDER BY c.dateCandidature ASC")
+    List<Candidature> findByDemandeAvecPrestataire(@Param("demandeId") Long demandeId);
+    
+    /**
+     * Compter les candidatures (total, acceptées) de plusieurs prestataires : [idPrestataire, total, acceptées]
+     */
+    @Query("SELECT c.prestataire.idUtilisateur, COUNT(c), " +
+           "SUM(CASE WHEN c.statut = 'ACCEPTEE' THEN 1 ELSE 0 END) " +
+           "FROM Candidature c WHERE c.prestataire.idUtilisateur IN :prestataireIds " +
+           "GROUP BY c.prestataire.idUtilisateur")
+    List<Object[]> countCandidaturesParPrestataires(@Param("prestataireIds") Collection<Integer> prestataireIds);
+
+    /**
+     * Éléments de chiffrage de plusieurs candidatures : [idCandidature, idPrestataire, prenom, nom, categorieService]
+     */
+    @Query("SELECT c.idCandidature, p.idUtilisateur, p.prenom, p.nom, d.categorieService " +
+           "FROM Candidature c JOIN c.prestataire p JOIN c.demandeService d " +
+           "WHERE c.idCandidature IN :candidatureIds")
+    List<Object[]> findElementsDevis(@Param("candidatureIds") Collection<Long> candidatureIds);
+
+    String MISSION_PRESTATAIRE_SELECT =
+        "SELECT new com.ecodeli.ecodeli_backend.dto.response.MissionPrestataireItem(" +
+        "c.idCandidature, c.prixPropose, c.dateReponse, d.statut, d.dateModification, " +
+        "d.idDemande, d.titre, d.description, d.categorieService, d.dateSouhaitee, " +
+        "d.adresseDepart, d.adresseArrivee, d.creneauHoraire, " +
+        "cl.idUtilisateur, cl.prenom, cl.nom, cl.email, cl.telephone) " +
+        "FROM Candidature c JOIN c.demandeService d JOIN d.client cl ";
+
+    /**
+     * Récupérer les missions (candidatures acceptées) d'un prestataire en une requête
+     */
+    @Query(MISSION_PRESTATAIRE_SELECT +
+           "WHERE c.prestataire.idUtilisateur = :prestataireId AND c.statut = 'ACCEPTEE' " +
+           "ORDER BY c.dateReponse DESC")
+    List<MissionPrestataireItem> findMissionsPrestataire(@Param("prestataireId") Integer prestataireId);
+
+    /**
+     * Récupérer une mission (candidature acceptée) par son identifiant
+     */
+    @Query(MISSION_PRESTATAIRE_SELECT +
+           "WHERE c.idCandidature = :candidatureId AND c.statut = 'ACCEPTEE'")
+    Optional<MissionPrestataireItem> findMissionPrestataire(@Param("candidatureId") Long candidatureId);
+
+    /**
+     * Récupérer les missions d'un client (demandes avec un prestataire retenu) en une requête
+     */
+    @Query("SELECT new com.ecodeli.ecodeli_backend.dto.response.MissionClientItem(" +
+           "c.idCandidature, c.prixPropose, c.dateReponse, d.statut, " +
+           "p.idUtilisateur, p.prenom, p.nom, p.email, " +
+           "d.idDemande, d.titre, d.description, d.dateSouhaitee, d.adresseDepart) " +
+           "FROM Candidature c JOIN c.demandeService d JOIN c.prestataire p " +
+           "WHERE d.client.idUtilisateur = :clientId AND c.statut = 'ACCEPTEE' " +
+           "AND d.statut IN ('PRESTATAIRE_SELECTIONNE', 'EN_COURS', 'TERMINEE') " +
+           "ORDER BY d.idDemande")
+    List<MissionClientItem> findMissionsClient(@Param("clientId") Integer clientId);
+
+    /**
+     * Récupérer les candidatures d'un prestataire avec leur demande et leur client en une requête
+     */
+    @Query("SELECT new com.ecodeli.ecodeli_backend.dto.response.CandidatureEnvoyeeItem(" +
+           "c.idCandidature, c.prixPropose, c.messagePrestataire, c.statut, c.dateCandidature, c.delaiPropose, " +
+           "d.idDemande, d.titre, d.description, d.categorieService, d.dateSouhaitee, d.adresseDepart, " +
+           "d.creneauHoraire, cl.idUtilisateur, cl.prenom, cl.nom, cl.email) " +
+           "FROM Candidature c JOIN c.demandeService d JOIN d.client cl " +
+           "WHERE c.prestataire.idUtilisateur = :prestataireId")
+    List<CandidatureEnvoyeeItem> findCandidaturesEnvoyees(@Param("prestataireId") Integer prestataireId);
+}
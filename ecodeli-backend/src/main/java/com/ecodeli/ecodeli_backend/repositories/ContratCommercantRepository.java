@@ -3,12 +3,16 @@ package com.ecodeli.ecodeli_backend.repositories;
 import com.ecodeli.ecodeli_backend.models.ContratCommercant;
 import com.ecodeli.ecodeli_backend.models.Commercant;
 import com.ecodeli.ecodeli_backend.models.ContratCommercant.StatutContrat;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ContratCommercantRepository extends JpaRepository<ContratCommercant, Integer> {
@@ -30,4 +34,16 @@ public interface ContratCommercantRepository extends JpaRepository<ContratCommer
     List<ContratCommercant> findByStatutInOrderByDateDemandeDesc(List<StatutContrat> statuts);
     
     boolean existsByCommercant_IdUtilisateur(Integer idCommercant);
-}
\ No newline at end of file
+
+    /**
+     * Lignes de l'export CSV des contrats, lues au fil de l'eau
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c.idContrat, cm.idUtilisateur, cm.nomCommerce, cm.email, c.statut, c.dateDemande, " +
+           "c.dateCreationContrat, c.dateSignature, c.signatureCommercant " +
+           "FROM ContratCommercant c JOIN c.commercant cm ORDER BY c.idContrat")
+    Stream<Object[]> streamExport();
+}
@@ -14,6 +14,35 @@ import java.util.List;
 
 @Repository
 public interface DemandeServiceRepository extends JpaRepository<DemandeService, Long> {
+
+    /**
+     * Demandes publiées dans une catégorie validée (PrestataireCategorie VALIDE) du prestataire,
+     * auxquelles il n'a pas encore candidaté
+     */
+    String DISPONIBLES =
+        "FROM DemandeService d WHERE d.categorieService IN (SELECT pc.categorieService FROM PrestataireCategorie pc " +
+        "                WHERE pc.prestataire.idUtilisateur = :prestataireId " +
+        "                AND pc.statutValidation = 'VALIDE') " +
+        "AND d.statut = 'PUBLIEE' " +
+        "AND NOT EXISTS (SELECT 1 FROM Candidature c " +
+        "                WHERE c.prestataire.idUtilisateur = :prestataireId " +
+        "                AND c.demandeService.idDemande = d.idDemande) ";
+
+    String DISPONIBLES_FILTRES = DISPONIBLES +
+        "AND (:search IS NULL OR LOWER(d.titre) LIKE LOWER(CONCAT('%', :search, '%')) " +
+        "     OR LOWER(d.description) LIKE LOWER(CONCAT('%', :search, '%'))) " +
+        "AND (:localisation IS NULL OR LOWER(d.adresseDepart) LIKE LOWER(CONCAT('%', :localisation, '%'))) " +
+        "AND (:dateMin IS NULL OR d.dateSouhaitee >= :dateMin) " +
+        "AND (:dateMax IS NULL OR d.dateSouhaitee < :dateMax) ";
+
+    String DISPONIBLES_TRIEES = "SELECT d " + DISPONIBLES + "ORDER BY d.dateCreation DESC, d.idDemande DESC";
+
+    String RECHERCHE =
+        "SELECT d FROM DemandeService d WHERE (:categorie IS NULL OR d.categorieService = :categorie) " +
+        "AND (:statut IS NULL OR d.statut = :statut) " +
+        "AND (:urgence IS NULL OR d.detailsUrgence = :urgence) " +
+        "AND (:frequence IS NULL OR d.detailsFrequence = :frequence) " +
+        "ORDER BY d.idDemande";
     
     /**
      * Récupérer les demandes par statut
@@ -51,17 +80,43 @@ public interface DemandeServiceRepository extends JpaRepository<DemandeService,
     List<Object[]> countByStatut();
 
     /**
-     * Récupérer les demandes publiées par catégorie avec pagination et filtres
+     * Récupérer les demandes publiées des catégories validées du prestataire auxquelles il n'a pas encore candidaté
      */
-    @Query("SELECT d FROM DemandeService d WHERE d.categorieService = :categorie " +
-           "AND d.statut = 'PUBLIEE' " +
-           "AND (:search IS NULL OR LOWER(d.titre) LIKE LOWER(CONCAT('%', :search, '%')) " +
-           "     OR LOWER(d.description) LIKE LOWER(CONCAT('%', :search, '%'))) " +
-           "AND (:localisation IS NULL OR LOWER(d.adresseDepart) LIKE LOWER(CONCAT('%', :localisation, '%'))) " +
-           "ORDER BY d.dateCreation DESC")
-    Page<DemandeService> findPublishedByCategorieWithFilters(
-        @Param("categorie") ServiceType categorie,
+    @Query(value = DISPONIBLES_TRIEES,
+           countQuery = "SELECT COUNT(d) " + DISPONIBLES)
+    Page<DemandeService> findDisponiblesPourPrestataire(
+        @Param("prestataireId") Integer prestataireId,
+        Pageable pageable);
+
+    /**
+     * Page de demandes disponibles pour un prestataire, filtres appliqués (sans requête de comptage)
+     */
+    @Query("SELECT d " + DISPONIBLES_FILTRES + "ORDER BY d.dateCreation DESC, d.idDemande DESC")
+    List<DemandeService> findDisponiblesAvecFiltres(
+        @Param("prestataireId") Integer prestataireId,
         @Param("search") String search,
         @Param("localisation") String localisation,
+        @Param("dateMin") LocalDateTime dateMin,
+        @Param("dateMax") LocalDateTime dateMax,
         Pageable pageable);
+
+    /**
+     * Compter les demandes disponibles pour un prestataire, filtres appliqués
+     */
+    @Query("SELECT COUNT(d) " + DISPONIBLES_FILTRES)
+    long countDisponiblesAvecFiltres(
+        @Param("prestataireId") Integer prestataireId,
+        @Param("search") String search,
+        @Param("localisation") String localisation,
+        @Param("dateMin") LocalDateTime dateMin,
+        @Param("dateMax") LocalDateTime dateMax);
+
+    /**
+     * Rechercher des demandes par catégorie, statut et détails spécifiques (colonnes virtuelles indexées)
+     */
+    @Query(RECHERCHE)
+    List<DemandeService> rechercher(@Param("categorie") ServiceType categorie,
+                                    @Param("statut") DemandeService.StatutDemande statut,
+                                    @Param("urgence") String urgence,
+                                    @Param("frequence") String frequence);
 }
@@ -0,0 +1,16 @@
+package com.ecodeli.ecodeli_backend.repositories;
+
+import com.ecodeli.ecodeli_backend.models.DistanceTrajet;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface DistanceTrajetRepository extends JpaRepository<DistanceTrajet, Long> {
+
+    /**
+     * Retrouver une distance déjà résolue pour un couple origine/destination normalisé
+     */
+    Optional<DistanceTrajet> findByOrigineAndDestination(String origine, String destination);
+}
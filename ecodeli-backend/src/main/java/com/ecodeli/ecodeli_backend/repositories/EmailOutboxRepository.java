@@ -0,0 +1,70 @@
+package com.ecodeli.ecodeli_backend.repositories;
+
+import com.ecodeli.ecodeli_backend.models.EmailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    /**
+     * Emails échus : en attente dont la prochaine tentative est passée, ou en cours dont le bail a expiré.
+     * Les lignes déjà verrouillées par une autre instance sont sautées.
+     */
+    String ECHUS_SQL =
+        "SELECT id_email FROM EMAIL_OUTBOX " +
+        "WHERE statut IN ('EN_ATTENTE', 'EN_COURS') AND prochaine_tentative <= :maintenant " +
+        "ORDER BY id_email LIMIT :limite FOR UPDATE SKIP LOCKED";
+
+    /**
+     * Verrouiller les emails échus, en sautant ceux qu'une autre instance est en train de réserver
+     */
+    @Query(value = ECHUS_SQL, nativeQuery = true)
+    List<Long> verrouillerEchus(@Param("maintenant") LocalDateTime maintenant, @Param("limite") int limite);
+
+    /**
+     * Réserver des emails verrouillés jusqu'à la fin du bail
+     */
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.statut = :enCours, e.jetonReservation = :jeton, " +
+           "e.prochaineTentative = :finBail WHERE e.idEmail IN :ids")
+    int reserver(
+        @Param("ids") Collection<Long> ids,
+        @Param("jeton") String jeton,
+        @Param("finBail") LocalDateTime finBail,
+        @Param("enCours") EmailOutbox.StatutEmail enCours);
+
+    /**
+     * Récupérer les emails d'une réservation
+     */
+    List<EmailOutbox> findByJetonReservationOrderByIdEmailAsc(String jetonReservation);
+
+    /**
+     * Enregistrer le résultat d'un envoi, tant que la réservation tient (0 ligne si le bail a été repris)
+     */
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.statut = :statut, e.tentatives = :tentatives, " +
+           "e.prochaineTentative = :prochaineTentative, e.derniereErreur = :derniereErreur, " +
+           "e.dateEnvoi = :dateEnvoi, e.jetonReservation = NULL " +
+           "WHERE e.idEmail = :idEmail AND e.jetonReservation = :jeton")
+    int enregistrerResultat(
+        @Param("idEmail") Long idEmail,
+        @Param("jeton") String jeton,
+        @Param("statut") EmailOutbox.StatutEmail statut,
+        @Param("tentatives") Integer tentatives,
+        @Param("prochaineTentative") LocalDateTime prochaineTentative,
+        @Param("derniereErreur") String derniereErreur,
+        @Param("dateEnvoi") LocalDateTime dateEnvoi);
+
+    /**
+     * Compter les emails par statut
+     */
+    long countByStatut(EmailOutbox.StatutEmail statut);
+}
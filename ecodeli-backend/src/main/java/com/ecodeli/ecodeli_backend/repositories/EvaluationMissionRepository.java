@@ -1,6 +1,8 @@
 package com.ecodeli.ecodeli_backend.repositories;
 
+import com.ecodeli.ecodeli_backend.dto.response.EvaluationItem;
 import com.ecodeli.ecodeli_backend.models.EvaluationMission;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,6 +14,16 @@ import java.util.Optional;
 
 @Repository
 public interface EvaluationMissionRepository extends JpaRepository<EvaluationMission, Long> {
+
+    String EVALUATION_ITEM_SELECT =
+        "SELECT new com.ecodeli.ecodeli_backend.dto.response.EvaluationItem(" +
+        "e.idEvaluation, e.noteGlobale, e.noteQualite, e.noteDelais, e.noteCommunication, " +
+        "e.noteProfessionnalisme, e.commentaire, e.dateEvaluation, cl.prenom, cl.nom, cl.email, " +
+        "d.titre, d.description, d.categorieService) " +
+        "FROM EvaluationMission e JOIN e.client cl JOIN e.candidature c JOIN c.demandeService d ";
+
+    String EVALUATION_ITEMS_PRESTATAIRE = EVALUATION_ITEM_SELECT +
+        "WHERE e.prestataire.idUtilisateur = :prestataireId ORDER BY e.dateEvaluation DESC";
     
     /**
      * Récupérer l'évaluation d'une candidature/mission
@@ -101,6 +113,14 @@ public interface EvaluationMissionRepository extends JpaRepository<EvaluationMis
     @Query("SELECT CASE WHEN COUNT(e) > 0 THEN true ELSE false END FROM EvaluationMission e " +
            "WHERE e.candidature.idCandidature = :candidatureId")
     Boolean existsByCandidature(@Param("candidatureId") Long candidatureId);
+
+    /**
+     * Verrouiller en partage toutes les évaluations et les intervalles entre elles (verrous de clé
+     * suivante, en REPEATABLE READ) : une évaluation non validée est attendue, une nouvelle évaluation
+     * attend la fin de la transaction appelante
+     */
+    @Query(value = "SELECT COUNT(*) FROM EVALUATION_MISSION LOCK IN SHARE MODE", nativeQuery = true)
+    long verrouillerEvaluations();
     
     /**
      * Statistiques globales des évaluations
@@ -113,20 +133,32 @@ public interface EvaluationMissionRepository extends JpaRepository<EvaluationMis
            "FROM EvaluationMission e")
     Object[] getStatistiquesGlobales();
     
-    /**
-     * Récupérer les prestataires les mieux notés
-     */
-    @Query("SELECT e.prestataire.idUtilisateur, AVG(e.noteGlobale) as moyenne, COUNT(e) as nombre " +
-           "FROM EvaluationMission e " +
-           "GROUP BY e.prestataire.idUtilisateur " +
-           "HAVING COUNT(e) >= :minEvaluations " +
-           "ORDER BY moyenne DESC")
-    List<Object[]> getTopPrestatairesByNote(@Param("minEvaluations") Long minEvaluations);
-    
     /**
      * Récupérer les évaluations par plage de notes
      */
     @Query("SELECT e FROM EvaluationMission e WHERE e.noteGlobale BETWEEN :noteMin AND :noteMax " +
            "ORDER BY e.dateEvaluation DESC")
     List<EvaluationMission> findByNoteRange(@Param("noteMin") Integer noteMin, @Param("noteMax") Integer noteMax);
-}
\ No newline at end of file
+
+    /**
+     * Récupérer les évaluations d'un prestataire avec leur client et leur mission en une requête
+     */
+    @Query(EVALUATION_ITEMS_PRESTATAIRE)
+    List<EvaluationItem> findEvaluationItemsByPrestataire(@Param("prestataireId") Integer prestataireId);
+
+    /**
+     * Récupérer les dernières évaluations commentées d'un prestataire avec leur client et leur mission
+     */
+    @Query(EVALUATION_ITEM_SELECT +
+           "WHERE e.prestataire.idUtilisateur = :prestataireId " +
+           "AND e.commentaire IS NOT NULL AND e.commentaire != '' " +
+           "ORDER BY e.dateEvaluation DESC")
+    List<EvaluationItem> findEvaluationItemsAvecCommentaires(@Param("prestataireId") Integer prestataireId,
+                                                             Pageable pageable);
+
+    /**
+     * Récupérer l'évaluation d'une candidature/mission avec son client et sa mission
+     */
+    @Query(EVALUATION_ITEM_SELECT + "WHERE c.idCandidature = :candidatureId")
+    Optional<EvaluationItem> findEvaluationItemByCandidature(@Param("candidatureId") Long candidatureId);
+}
@@ -1,8 +1,120 @@
 package com.ecodeli.ecodeli_backend.repositories;
 
+import com.ecodeli.ecodeli_backend.dto.response.LivraisonAdminItem;
 import com.ecodeli.ecodeli_backend.models.Livraison;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
-public interface LivraisonRepository extends JpaRepository<Livraison, Integer> {}
+public interface LivraisonRepository extends JpaRepository<Livraison, Integer> {
+
+    /**
+     * Livraisons d'un livreur : DIRECTE via ANNONCE.id_livreur, PARTIELLE via
+     * les colonnes de segment. Une branche par index pour éviter un OR non indexable.
+     */
+    String LIVRAISONS_LIVREUR_SQL =
+        "SELECT l.* FROM LIVRAISON l " +
+        "JOIN ANNONCE a ON a.id_annonce = l.id_annonce " +
+        "WHERE a.id_livreur = :livreurId AND l.type_livraison = 'DIRECTE' " +
+        "UNION ALL " +
+        "SELECT l.* FROM LIVRAISON l " +
+        "WHERE l.livreur_segment_1 = :livreurId AND l.type_livraison = 'PARTIELLE' " +
+        "UNION ALL " +
+        "SELECT l.* FROM LIVRAISON l " +
+        "WHERE l.livreur_segment_2 = :livreurId AND l.type_livraison = 'PARTIELLE' " +
+        "AND (l.livreur_segment_1 IS NULL OR l.livreur_segment_1 <> :livreurId)";
+
+    String LIVRAISONS_LIVREUR_TRIEES =
+        "SELECT * FROM (" + LIVRAISONS_LIVREUR_SQL + ") livraisons_livreur ORDER BY id_livraison DESC";
+
+    String LIVRAISONS_FILTREES =
+        "SELECT l FROM Livraison l WHERE (:statut IS NULL OR l.statut = :statut) " +
+        "AND (:type IS NULL OR l.typeLivraison = :type) ORDER BY l.idLivraison DESC";
+
+    String ADMIN_FILTRES =
+        "FROM Livraison l LEFT JOIN l.annonce a LEFT JOIN l.expediteur e LEFT JOIN l.destinataire d " +
+        "WHERE (:statut IS NULL OR l.statut = :statut) " +
+        "AND (:type IS NULL OR l.typeLivraison = :type) " +
+        "AND (:search IS NULL OR LOWER(l.adresseEnvoi) LIKE :search OR LOWER(l.adresseDeLivraison) LIKE :search " +
+        "     OR LOWER(e.email) LIKE :search OR LOWER(d.email) LIKE :search OR LOWER(a.titre) LIKE :search " +
+        "     OR CAST(l.idLivraison AS string) LIKE :search) ";
+
+    /**
+     * Récupérer toutes les livraisons d'un livreur (directes et partielles)
+     */
+    @Query(value = LIVRAISONS_LIVREUR_TRIEES, nativeQuery = true)
+    List<Livraison> findAllByLivreur(@Param("livreurId") Integer livreurId);
+
+    /**
+     * Récupérer les livraisons d'un livreur avec pagination
+     */
+    @Query(value = LIVRAISONS_LIVREUR_TRIEES,
+           countQuery = "SELECT COUNT(*) FROM (" + LIVRAISONS_LIVREUR_SQL + ") livraisons_livreur",
+           nativeQuery = true)
+    Page<Livraison> findPageByLivreur(@Param("livreurId") Integer livreurId, Pageable pageable);
+
+    /**
+     * Lignes de l'export CSV des livraisons, lues au fil de l'eau
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT l.idLivraison, a.idAnnonce, l.typeLivraison, l.statut, l.dateDebut, l.dateFin, " +
+           "l.adresseEnvoi, l.codePostalEnvoi, l.adresseDeLivraison, l.codePostalLivraison, l.prix, " +
+           "l.livreurSegment1.idUtilisateur, l.livreurSegment2.idUtilisateur, l.entrepotVille " +
+           "FROM Livraison l LEFT JOIN l.annonce a ORDER BY l.idLivraison")
+    Stream<Object[]> streamExport();
+
+    /**
+     * Tableau des livraisons du back office : filtres, tri et pagination en base. Une Slice lit
+     * une ligne de plus que la page pour savoir s'il en reste, sans COUNT sur tout l'historique.
+     * Avec le tri par défaut (idLivraison, clé primaire) la lecture s'arrête dès la page remplie ;
+     * la recherche (LIKE '%...%' sur plusieurs colonnes jointes) n'utilise aucun index et parcourt
+     * les livraisons jusqu'à trouver assez de correspondances, comme un tri sur une autre colonne.
+     */
+    @Query("SELECT new com.ecodeli.ecodeli_backend.dto.response.LivraisonAdminItem(" +
+           "l.idLivraison, l.statut, l.typeLivraison, l.adresseEnvoi, l.codePostalEnvoi, " +
+           "l.adresseDeLivraison, l.codePostalLivraison, l.prix, l.dateDebut, l.dateFin, " +
+           "a.idAnnonce, a.titre, e.email, d.email) " + ADMIN_FILTRES)
+    Slice<LivraisonAdminItem> findAdmin(
+        @Param("statut") Livraison.StatutLivraison statut,
+        @Param("type") Livraison.TypeLivraison type,
+        @Param("search") String search,
+        Pageable pageable);
+
+    /**
+     * Récupérer les livraisons filtrées par statut et type (filtres optionnels)
+     */
+    @Query(LIVRAISONS_FILTREES)
+    List<Livraison> findByFiltres(@Param("statut") Livraison.StatutLivraison statut,
+                                  @Param("type") Livraison.TypeLivraison type);
+
+    /**
+     * Comptages par statut et type : [statut, typeLivraison, nombre, revenus des livraisons terminées]
+     */
+    @Query("SELECT l.statut, l.typeLivraison, COUNT(l), " +
+           "SUM(CASE WHEN l.statut = 'TERMINEE' THEN COALESCE(l.prix, 0) ELSE 0 END) " +
+           "FROM Livraison l GROUP BY l.statut, l.typeLivraison")
+    List<Object[]> countParStatutEtType();
+
+    /**
+     * Durées des livraisons terminées : [nombre de livraisons datées, somme des durées en secondes]
+     */
+    @Query(value = "SELECT COUNT(*), COALESCE(SUM(TIMESTAMPDIFF(SECOND, date_debut, date_fin)), 0) " +
+                   "FROM LIVRAISON WHERE statut = 'TERMINEE' " +
+                   "AND date_debut IS NOT NULL AND date_fin IS NOT NULL AND date_fin >= date_debut",
+           nativeQuery = true)
+    List<Object[]> sommeDureesTerminees();
+}
@@ -2,7 +2,41 @@ package com.ecodeli.ecodeli_backend.repositories;
 
 import com.ecodeli.ecodeli_backend.models.Livreur;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+
 @Repository
-public interface LivreurRepository extends JpaRepository<Livreur, Integer> {}
+public interface LivreurRepository extends JpaRepository<Livreur, Integer> {
+
+    /**
+     * Créditer atomiquement le portefeuille d'un livreur
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE Livreur SET " +
+                   "solde_portefeuille = COALESCE(solde_portefeuille, 0) + :montant, " +
+                   "total_gagnes = COALESCE(total_gagnes, 0) + :montant " +
+                   "WHERE id_utilisateur = :livreurId",
+           nativeQuery = true)
+    int crediterSolde(@Param("livreurId") Integer livreurId, @Param("montant") BigDecimal montant);
+
+    /**
+     * Débiter atomiquement le portefeuille si le solde est suffisant (0 ligne sinon)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE Livreur SET solde_portefeuille = solde_portefeuille - :montant " +
+                   "WHERE id_utilisateur = :livreurId AND solde_portefeuille >= :montant",
+           nativeQuery = true)
+    int debiterSoldeSiSuffisant(@Param("livreurId") Integer livreurId, @Param("montant") BigDecimal montant);
+
+    /**
+     * Mettre à jour l'IBAN sans réécrire les soldes
+     */
+    @Modifying
+    @Query(value = "UPDATE Livreur SET iban_livreur = :iban WHERE id_utilisateur = :livreurId",
+           nativeQuery = true)
+    int updateIban(@Param("livreurId") Integer livreurId, @Param("iban") String iban);
+}
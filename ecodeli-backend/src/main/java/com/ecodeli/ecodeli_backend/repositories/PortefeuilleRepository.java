@@ -2,6 +2,7 @@ package com.ecodeli.ecodeli_backend.repositories;
 
 import com.ecodeli.ecodeli_backend.models.PortefeuillePrestataire;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -89,4 +90,30 @@ public interface PortefeuilleRepository extends JpaRepository<PortefeuillePresta
     @Query("SELECT p FROM PortefeuillePrestataire p " +
            "WHERE p.soldeDisponible < 0 OR p.soldeEnAttente < 0")
     List<PortefeuillePrestataire> findPortefeuillesAvecProblemes();
-}
\ No newline at end of file
+    
+    /**
+     * Créditer atomiquement un portefeuille (gain de mission)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE PortefeuillePrestataire p SET " +
+           "p.soldeDisponible = p.soldeDisponible + :montant, " +
+           "p.totalGagne = p.totalGagne + :montant, " +
+           "p.nombreTransactions = p.nombreTransactions + 1, " +
+           "p.dateModification = CURRENT_TIMESTAMP, " +
+           "p.version = p.version + 1 " +
+           "WHERE p.idPortefeuille = :portefeuilleId")
+    int crediter(@Param("portefeuilleId") Long portefeuilleId, @Param("montant") BigDecimal montant);
+    
+    /**
+     * Débiter atomiquement un portefeuille si le solde disponible suffit (0 ligne sinon)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE PortefeuillePrestataire p SET " +
+           "p.soldeDisponible = p.soldeDisponible - :montant, " +
+           "p.totalRetire = p.totalRetire + :montant, " +
+           "p.nombreTransactions = p.nombreTransactions + 1, " +
+           "p.dateModification = CURRENT_TIMESTAMP, " +
+           "p.version = p.version + 1 " +
+           "WHERE p.idPortefeuille = :portefeuilleId AND p.soldeDisponible >= :montant")
+    int debiterSiSoldeSuffisant(@Param("portefeuilleId") Long portefeuilleId, @Param("montant") BigDecimal montant);
+}
@@ -2,21 +2,34 @@ package com.ecodeli.ecodeli_backend.repositories;
 
 import com.ecodeli.ecodeli_backend.models.PrestataireCategorie;
 import com.ecodeli.ecodeli_backend.models.ServiceType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PrestataireCategorieRepository extends JpaRepository<PrestataireCategorie, Long> {
+
+    /**
+     * Région du cache de requêtes des tarifs, vidée par AdminPrestataireService à chaque modification
+     */
+    String REGION_REQUETES_TARIFS = "requetes.tarifsPrestataire";
     
     /**
      * Récupérer toutes les validations d'un prestataire
      */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = REGION_REQUETES_TARIFS)
+    })
     List<PrestataireCategorie> findByPrestataireIdUtilisateur(Integer prestataireId);
     
     /**
@@ -32,6 +45,10 @@ public interface PrestataireCategorieRepository extends JpaRepository<Prestatair
     /**
      * Trouver une validation spécifique prestataire/catégorie
      */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = REGION_REQUETES_TARIFS)
+    })
     Optional<PrestataireCategorie> findByPrestataireIdUtilisateurAndCategorieService(
         Integer prestataireId, ServiceType categorieService);
     
@@ -87,4 +104,20 @@ public interface PrestataireCategorieRepository extends JpaRepository<Prestatair
     @Query("SELECT pc.categorieService, COUNT(pc) FROM PrestataireCategorie pc " +
            "WHERE pc.statutValidation = :statut GROUP BY pc.categorieService")
     List<Object[]> countByStatutAndCategorie(@Param("statut") PrestataireCategorie.StatutValidation statut);
-}
\ No newline at end of file
+    
+    /**
+     * Catégories validées de plusieurs prestataires :
+     * [idPrestataire, categorieService, statutValidation, tarifHoraire, dateValidation]
+     */
+    @Query("SELECT pc.prestataire.idUtilisateur, pc.categorieService, pc.statutValidation, " +
+           "pc.tarifHoraire, pc.dateValidation FROM PrestataireCategorie pc " +
+           "WHERE pc.prestataire.idUtilisateur IN :prestataireIds AND pc.statutValidation = 'VALIDE'")
+    List<Object[]> findCategoriesValideesParPrestataires(@Param("prestataireIds") Collection<Integer> prestataireIds);
+
+    /**
+     * Tarifs définis de tous les prestataires : [idPrestataire, categorieService, tarifHoraire]
+     */
+    @Query("SELECT pc.prestataire.idUtilisateur, pc.categorieService, pc.tarifHoraire " +
+           "FROM PrestataireCategorie pc WHERE pc.tarifHoraire IS NOT NULL")
+    List<Object[]> findTarifsDefinis();
+}
@@ -0,0 +1,45 @@
+package com.ecodeli.ecodeli_backend.repositories;
+
+import com.ecodeli.ecodeli_backend.models.Prestataire;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface PrestataireRepository extends JpaRepository<Prestataire, Integer>, JpaSpecificationExecutor<Prestataire> {
+
+    /**
+     * Nombre de prestataires par domaine d'expertise : [domaineExpertise, nombre]
+     */
+    @Query("SELECT p.domaineExpertise, COUNT(p) FROM Prestataire p " +
+           "WHERE p.domaineExpertise IS NOT NULL GROUP BY p.domaineExpertise")
+    List<Object[]> countParDomaine();
+
+    /**
+     * Statistiques globales : [total, disponibles, tarif horaire moyen des tarifs définis]
+     */
+    @Query("SELECT COUNT(p), " +
+           "SUM(CASE WHEN p.disponible = true THEN 1 ELSE 0 END), " +
+           "AVG(CASE WHEN p.tarifHoraire > 0 THEN p.tarifHoraire ELSE NULL END) " +
+           "FROM Prestataire p")
+    List<Object[]> statistiquesGlobales();
+
+    /**
+     * Lignes de l'export CSV, lues au fil de l'eau :
+     * [id, nom, prénom, email, entreprise, siret, domaine, tarif horaire, disponible]
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p.idUtilisateur, p.nom, p.prenom, p.email, p.nomEntreprise, p.siret, " +
+           "p.domaineExpertise, p.tarifHoraire, p.disponible FROM Prestataire p ORDER BY p.idUtilisateur")
+    Stream<Object[]> streamExport();
+}
@@ -0,0 +1,109 @@
+package com.ecodeli.ecodeli_backend.repositories;
+
+import com.ecodeli.ecodeli_backend.models.Prestataire;
+import com.ecodeli.ecodeli_backend.models.PrestataireCategorie;
+import com.ecodeli.ecodeli_backend.models.ServiceType;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Filtres composables pour la recherche de prestataires.
+ * Chaque méthode renvoie null quand son critère est absent, ce que Specification.where/and ignorent.
+ */
+public final class PrestataireSpecifications {
+
+    private PrestataireSpecifications() {
+    }
+
+    public static Specification<Prestataire> recherche(String texte) {
+        if (texte == null || texte.isBlank()) {
+            return null;
+        }
+        String motif = "%" + texte.trim().toLowerCase() + "%";
+        return (root, query, cb) -> cb.or(
+            cb.like(cb.lower(root.get("nom")), motif),
+            cb.like(cb.lower(root.get("prenom")), motif),
+            cb.like(cb.lower(root.get("email")), motif),
+            cb.like(cb.lower(root.get("nomEntreprise")), motif)
+        );
+    }
+
+    public static Specification<Prestataire> statutValidation(Prestataire.StatutValidationPrestataire statut) {
+        if (statut == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("statutValidation"), statut);
+    }
+
+    public static Specification<Prestataire> domaineExpertise(ServiceType domaine) {
+        if (domaine == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("domaineExpertise"), domaine);
+    }
+
+    /**
+     * Prestataires dont la catégorie a été validée par un administrateur
+     */
+    public static Specification<Prestataire> categorieValidee(ServiceType categorie) {
+        if (categorie == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            Subquery<Long> validation = query.subquery(Long.class);
+            Root<PrestataireCategorie> pc = validation.from(PrestataireCategorie.class);
+            validation.select(pc.get("idPrestataireCategorie"))
+                .where(
+                    cb.equal(pc.get("prestataire"), root),
+                    cb.equal(pc.get("categorieService"), categorie),
+                    cb.equal(pc.get("statutValidation"), PrestataireCategorie.StatutValidation.VALIDE)
+                );
+            return cb.exists(validation);
+        };
+    }
+
+    public static Specification<Prestataire> ville(String ville) {
+        if (ville == null || ville.isBlank()) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(cb.lower(root.get("ville")), ville.trim().toLowerCase());
+    }
+
+    public static Specification<Prestataire> disponible(Boolean disponible) {
+        if (disponible == null) {
+            return null;
+        }
+        if (disponible) {
+            return (root, query, cb) -> cb.isTrue(root.get("disponible"));
+        }
+        return (root, query, cb) -> cb.or(cb.isNull(root.get("disponible")), cb.isFalse(root.get("disponible")));
+    }
+
+    public static Specification<Prestataire> tarifEntre(Double tarifMin, Double tarifMax) {
+        if (tarifMin == null && tarifMax == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            if (tarifMin != null && tarifMax != null) {
+                return cb.between(root.get("tarifHoraire"), tarifMin, tarifMax);
+            }
+            return tarifMin != null
+                ? cb.greaterThanOrEqualTo(root.get("tarifHoraire"), tarifMin)
+                : cb.lessThanOrEqualTo(root.get("tarifHoraire"), tarifMax);
+        };
+    }
+
+    /**
+     * Prestataires dont le tarif horaire est défini (strictement positif), ou l'inverse
+     */
+    public static Specification<Prestataire> tarifDefini(boolean defini) {
+        if (defini) {
+            return (root, query, cb) -> cb.greaterThan(root.get("tarifHoraire"), 0.0);
+        }
+        return (root, query, cb) -> cb.or(
+            cb.isNull(root.get("tarifHoraire")),
+            cb.lessThanOrEqualTo(root.get("tarifHoraire"), 0.0)
+        );
+    }
+}
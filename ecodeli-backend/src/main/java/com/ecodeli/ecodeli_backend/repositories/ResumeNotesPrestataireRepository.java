@@ -0,0 +1,81 @@
+package com.ecodeli.ecodeli_backend.repositories;
+
+import com.ecodeli.ecodeli_backend.models.ResumeNotesPrestataire;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ResumeNotesPrestataireRepository extends JpaRepository<ResumeNotesPrestataire, Integer> {
+
+    /**
+     * Récupérer les résumés de notes de plusieurs prestataires
+     */
+    List<ResumeNotesPrestataire> findByIdPrestataireIn(Collection<Integer> prestataireIds);
+
+    /**
+     * Ajouter une évaluation au résumé du prestataire (création de la ligne au besoin)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO RESUME_NOTES_PRESTATAIRE (id_prestataire, nombre_evaluations, somme_globale, " +
+                   "somme_qualite, somme_delais, somme_communication, somme_professionnalisme, " +
+                   "nb_note_1, nb_note_2, nb_note_3, nb_note_4, nb_note_5, date_mise_a_jour) " +
+                   "VALUES (:prestataireId, 1, :globale, :qualite, :delais, :communication, :professionnalisme, " +
+                   "IF(:globale = 1, 1, 0), IF(:globale = 2, 1, 0), IF(:globale = 3, 1, 0), " +
+                   "IF(:globale = 4, 1, 0), IF(:globale = 5, 1, 0), NOW()) " +
+                   "ON DUPLICATE KEY UPDATE " +
+                   "nombre_evaluations = nombre_evaluations + 1, " +
+                   "somme_globale = somme_globale + VALUES(somme_globale), " +
+                   "somme_qualite = somme_qualite + VALUES(somme_qualite), " +
+                   "somme_delais = somme_delais + VALUES(somme_delais), " +
+                   "somme_communication = somme_communication + VALUES(somme_communication), " +
+                   "somme_professionnalisme = somme_professionnalisme + VALUES(somme_professionnalisme), " +
+                   "nb_note_1 = nb_note_1 + VALUES(nb_note_1), " +
+                   "nb_note_2 = nb_note_2 + VALUES(nb_note_2), " +
+                   "nb_note_3 = nb_note_3 + VALUES(nb_note_3), " +
+                   "nb_note_4 = nb_note_4 + VALUES(nb_note_4), " +
+                   "nb_note_5 = nb_note_5 + VALUES(nb_note_5), " +
+                   "date_mise_a_jour = NOW()",
+           nativeQuery = true)
+    int ajouterEvaluation(
+        @Param("prestataireId") Integer prestataireId,
+        @Param("globale") Integer noteGlobale,
+        @Param("qualite") Integer noteQualite,
+        @Param("delais") Integer noteDelais,
+        @Param("communication") Integer noteCommunication,
+        @Param("professionnalisme") Integer noteProfessionnalisme);
+
+    /**
+     * Vider tous les résumés (avant reconstruction)
+     */
+    @Modifying
+    @Query(value = "DELETE FROM RESUME_NOTES_PRESTATAIRE", nativeQuery = true)
+    int viderResumes();
+
+    /**
+     * Recalculer tous les résumés à partir des évaluations
+     */
+    @Modifying
+    @Query(value = "INSERT INTO RESUME_NOTES_PRESTATAIRE (id_prestataire, nombre_evaluations, somme_globale, " +
+                   "somme_qualite, somme_delais, somme_communication, somme_professionnalisme, " +
+                   "nb_note_1, nb_note_2, nb_note_3, nb_note_4, nb_note_5, date_mise_a_jour) " +
+                   "SELECT e.id_prestataire, COUNT(*), SUM(e.note_globale), SUM(e.note_qualite), SUM(e.note_delais), " +
+                   "SUM(e.note_communication), SUM(e.note_professionnalisme), " +
+                   "SUM(e.note_globale = 1), SUM(e.note_globale = 2), SUM(e.note_globale = 3), " +
+                   "SUM(e.note_globale = 4), SUM(e.note_globale = 5), NOW() " +
+                   "FROM EVALUATION_MISSION e GROUP BY e.id_prestataire",
+           nativeQuery = true)
+    int recalculerResumes();
+
+    /**
+     * Résumés avec la catégorie du prestataire : [idPrestataire, nombreEvaluations, sommeGlobale, domaineExpertise]
+     */
+    @Query("SELECT r.idPrestataire, r.nombreEvaluations, r.sommeGlobale, p.domaineExpertise " +
+           "FROM ResumeNotesPrestataire r, Prestataire p WHERE p.idUtilisateur = r.idPrestataire")
+    List<Object[]> findResumesAvecCategorie();
+}
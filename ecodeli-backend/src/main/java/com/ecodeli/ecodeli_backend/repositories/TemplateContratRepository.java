@@ -1,7 +1,10 @@
 package com.ecodeli.ecodeli_backend.repositories;
 
 import com.ecodeli.ecodeli_backend.models.TemplateContrat;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,12 +12,30 @@ import java.util.Optional;
 
 @Repository
 public interface TemplateContratRepository extends JpaRepository<TemplateContrat, Integer> {
+
+    String REGION_REQUETES_TEMPLATES = "requetes.templatesContrat";
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = REGION_REQUETES_TEMPLATES)
+    })
     List<TemplateContrat> findByActifTrueOrderByDateCreationDesc();
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = REGION_REQUETES_TEMPLATES)
+    })
     List<TemplateContrat> findAllByOrderByDateCreationDesc();
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = REGION_REQUETES_TEMPLATES)
+    })
     Optional<TemplateContrat> findByNomTemplate(String nomTemplate);
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = REGION_REQUETES_TEMPLATES)
+    })
     boolean existsByNomTemplate(String nomTemplate);
 }
\ No newline at end of file
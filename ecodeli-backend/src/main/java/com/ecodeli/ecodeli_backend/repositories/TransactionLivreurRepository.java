@@ -0,0 +1,30 @@
+package com.ecodeli.ecodeli_backend.repositories;
+
+import com.ecodeli.ecodeli_backend.models.TransactionLivreur;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface TransactionLivreurRepository extends JpaRepository<TransactionLivreur, Long> {
+
+    String JOURNAL_LIVREUR =
+        "SELECT t FROM TransactionLivreur t WHERE t.livreur.idUtilisateur = :livreurId ORDER BY t.dateTransaction DESC";
+
+    /**
+     * Récupérer le journal d'un livreur
+     */
+    @Query(JOURNAL_LIVREUR)
+    List<TransactionLivreur> findByLivreurIdUtilisateurOrderByDateTransactionDesc(@Param("livreurId") Integer livreurId);
+
+    /**
+     * Recalculer le solde d'un livreur à partir du journal
+     */
+    @Query("SELECT COALESCE(SUM(CASE WHEN t.typeTransaction = 'CREDIT_LIVRAISON' THEN t.montant ELSE -t.montant END), 0) " +
+           "FROM TransactionLivreur t WHERE t.livreur.idUtilisateur = :livreurId")
+    BigDecimal calculerSoldeJournal(@Param("livreurId") Integer livreurId);
+}
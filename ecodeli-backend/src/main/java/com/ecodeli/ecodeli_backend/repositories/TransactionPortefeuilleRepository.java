@@ -1,10 +1,16 @@
 package com.ecodeli.ecodeli_backend.repositories;
 
+import com.ecodeli.ecodeli_backend.dto.response.TransactionPortefeuilleItem;
 import com.ecodeli.ecodeli_backend.models.TransactionPortefeuille;
 import com.ecodeli.ecodeli_backend.models.TransactionPortefeuille.TypeTransaction;
 import com.ecodeli.ecodeli_backend.models.TransactionPortefeuille.StatutTransaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -12,9 +18,19 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionPortefeuilleRepository extends JpaRepository<TransactionPortefeuille, Long> {
+
+    String TRANSACTION_ITEM_SELECT =
+        "SELECT new com.ecodeli.ecodeli_backend.dto.response.TransactionPortefeuilleItem(" +
+        "t.idTransaction, t.typeTransaction, t.montant, t.statutTransaction, t.description, t.dateTransaction, " +
+        "t.dateTraitement, t.referenceExterne, t.ibanDestinataire, d.titre) " +
+        "FROM TransactionPortefeuille t LEFT JOIN t.candidature c LEFT JOIN c.demandeService d ";
+
+    String TRANSACTION_ITEMS_PRESTATAIRE = TRANSACTION_ITEM_SELECT +
+        "WHERE t.portefeuille.prestataire.idUtilisateur = :prestataireId ORDER BY t.dateTransaction DESC";
     
     /**
      * Récupérer toutes les transactions d'un portefeuille
@@ -148,4 +164,57 @@ public interface TransactionPortefeuilleRepository extends JpaRepository<Transac
     @Query("SELECT t FROM TransactionPortefeuille t WHERE t.candidature.idCandidature = :candidatureId " +
            "ORDER BY t.dateTransaction DESC")
     List<TransactionPortefeuille> findByCandidatureId(@Param("candidatureId") Long candidatureId);
-}
\ No newline at end of file
+    
+    /**
+     * Récupérer les transactions dont le traitement n'est pas terminé
+     */
+    List<TransactionPortefeuille> findByStatutTransactionIn(List<StatutTransaction> statuts);
+    
+    /**
+     * Passer une transaction d'un statut à un autre (0 ligne si elle n'est plus dans le statut attendu)
+     */
+    @Modifying
+    @Query("UPDATE TransactionPortefeuille t SET t.statutTransaction = :nouveauStatut, " +
+           "t.dateModification = CURRENT_TIMESTAMP " +
+           "WHERE t.idTransaction = :transactionId AND t.statutTransaction = :statutAttendu")
+    int changerStatut(
+        @Param("transactionId") Long transactionId,
+        @Param("statutAttendu") StatutTransaction statutAttendu,
+        @Param("nouveauStatut") StatutTransaction nouveauStatut);
+    
+    /**
+     * Marquer une transaction en cours comme effectuée
+     */
+    @Modifying
+    @Query("UPDATE TransactionPortefeuille t SET t.statutTransaction = 'EFFECTUE', " +
+           "t.dateTraitement = :dateTraitement, t.dateModification = CURRENT_TIMESTAMP " +
+           "WHERE t.idTransaction = :transactionId AND t.statutTransaction = 'EN_COURS'")
+    int marquerEffectueeSiEnCours(
+        @Param("transactionId") Long transactionId,
+        @Param("dateTraitement") LocalDateTime dateTraitement);
+
+    /**
+     * Lignes de l'export CSV des transactions de portefeuille, lues au fil de l'eau
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t.idTransaction, p.prestataire.idUtilisateur, t.typeTransaction, t.statutTransaction, " +
+           "t.montant, t.fraisTransaction, t.commissionEcodeli, t.referenceExterne, t.dateTransaction, t.dateTraitement " +
+           "FROM TransactionPortefeuille t JOIN t.portefeuille p ORDER BY t.idTransaction")
+    Stream<Object[]> streamExport();
+
+    /**
+     * Récupérer l'historique d'un prestataire avec le titre des missions en une requête
+     */
+    @Query(TRANSACTION_ITEMS_PRESTATAIRE)
+    List<TransactionPortefeuilleItem> findItemsByPrestataire(@Param("prestataireId") Integer prestataireId,
+                                                             Pageable pageable);
+
+    /**
+     * Récupérer une transaction avec le titre de sa mission
+     */
+    @Query(TRANSACTION_ITEM_SELECT + "WHERE t.idTransaction = :transactionId")
+    Optional<TransactionPortefeuilleItem> findItemById(@Param("transactionId") Long transactionId);
+}
@@ -1,9 +1,14 @@
 package com.ecodeli.ecodeli_backend.repositories;
 
 import com.ecodeli.ecodeli_backend.models.Utilisateur;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +17,24 @@ public interface UtilisateurRepository extends JpaRepository<Utilisateur, Intege
     Optional<Utilisateur> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    /**
+     * Récupérer les utilisateurs d'un type (filtre sur la colonne type_utilisateur)
+     */
+    @Query("SELECT u FROM Utilisateur u WHERE TYPE(u) = :type ORDER BY u.idUtilisateur")
+    List<Utilisateur> findByType(@Param("type") Class<? extends Utilisateur> type);
+
+    /**
+     * Récupérer les utilisateurs d'un type avec pagination
+     */
+    @Query(value = "SELECT u FROM Utilisateur u WHERE TYPE(u) = :type",
+           countQuery = "SELECT COUNT(u) FROM Utilisateur u WHERE TYPE(u) = :type")
+    Page<Utilisateur> findPageByType(@Param("type") Class<? extends Utilisateur> type, Pageable pageable);
+
+    /**
+     * Nombre d'utilisateurs par type : [type_utilisateur, nombre]
+     */
+    @Query(value = "SELECT type_utilisateur, COUNT(*) FROM UTILISATEUR GROUP BY type_utilisateur",
+           nativeQuery = true)
+    List<Object[]> countParType();
 }
@@ -0,0 +1,21 @@
+package com.ecodeli.ecodeli_backend.security;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Identité extraite d'un JWT dont la signature a déjà été vérifiée.
+ */
+public record JwtPrincipal(String email, Integer userId, String userType, long expirationMillis) {
+
+    public static JwtPrincipal fromClaims(Claims claims) {
+        return new JwtPrincipal(
+            claims.getSubject(),
+            claims.get("userId", Integer.class),
+            claims.get("userType", String.class),
+            claims.getExpiration().getTime());
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return expirationMillis <= nowMillis;
+    }
+}
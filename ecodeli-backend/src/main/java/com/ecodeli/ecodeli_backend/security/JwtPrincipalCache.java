@@ -0,0 +1,59 @@
+package com.ecodeli.ecodeli_backend.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache borné empreinte SHA-256 du token → principal vérifié. Une entrée
+ * n'est plus servie dès que le token qu'elle représente a expiré.
+ */
+@Component
+public class JwtPrincipalCache {
+
+    private final int tailleMax;
+    private final ConcurrentHashMap<String, JwtPrincipal> principals = new ConcurrentHashMap<>();
+
+    public JwtPrincipalCache(@Value("${jwt.cache.taille-max:10000}") int tailleMax) {
+        this.tailleMax = tailleMax;
+    }
+
+    public JwtPrincipal get(String token) {
+        String empreinte = empreinte(token);
+        JwtPrincipal principal = principals.get(empreinte);
+        if (principal != null && principal.isExpired(System.currentTimeMillis())) {
+            principals.remove(empreinte, principal);
+            return null;
+        }
+        return principal;
+    }
+
+    public void put(String token, JwtPrincipal principal) {
+        if (principals.size() >= tailleMax) {
+            long now = System.currentTimeMillis();
+            principals.values().removeIf(p -> p.isExpired(now));
+            if (principals.size() >= tailleMax) {
+                principals.clear();
+            }
+        }
+        principals.put(empreinte(token), principal);
+    }
+
+    public int size() {
+        return principals.size();
+    }
+
+    private static String empreinte(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+}
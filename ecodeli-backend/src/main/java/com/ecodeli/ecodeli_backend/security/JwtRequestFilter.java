@@ -2,7 +2,9 @@ package com.ecodeli.ecodeli_backend.security;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -10,6 +12,7 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,9 +22,20 @@ import jakarta.servlet.http.HttpServletResponse;
 public class JwtRequestFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
+    private final JwtPrincipalCache principalCache;
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
+    private final long intervalleResume;
 
-    public JwtRequestFilter(JwtUtil jwtUtil) {
+    private final AtomicLong requetes = new AtomicLong();
+    private final AtomicLong sansToken = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong tokensRejetes = new AtomicLong();
+
+    public JwtRequestFilter(JwtUtil jwtUtil, JwtPrincipalCache principalCache,
+                            @Value("${jwt.log.intervalle-resume:1000}") long intervalleResume) {
         this.jwtUtil = jwtUtil;
+        this.principalCache = principalCache;
+        this.intervalleResume = intervalleResume;
     }
 
     @Override
@@ -29,7 +43,6 @@ public class JwtRequestFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
 
         String jwt = null;
-        String email = null;
 
         final String authorizationHeader = request.getHeader("Authorization");
 
@@ -40,34 +53,63 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         if (jwt == null) {
             jwt = request.getParameter("token");
         }
-        if (jwt != null) {
-            try {
-                email = jwtUtil.extractEmail(jwt);
-                logger.info("JWT trouvé pour email: " + email);
-            } catch (Exception e) {
-                logger.error("Erreur lors de l'extraction du JWT", e);
+
+        if (jwt == null) {
+            sansToken.incrementAndGet();
+            if (logger.isDebugEnabled()) {
+                logger.debug("Aucun JWT trouvé dans la requête: " + request.getRequestURI());
             }
-        } else {
-            logger.info("Aucun JWT trouvé dans la requête: " + request.getRequestURI());
-        }
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            if (jwtUtil.validateToken(jwt)) {
-                String userType = jwtUtil.extractUserType(jwt);
-                logger.info("Token valide pour email: " + email + ", userType: " + userType + ", role créé: ROLE_" + userType);
+        } else if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            JwtPrincipal principal = resolvePrincipal(jwt, request);
+            if (principal != null) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                    email, null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + userType))
+                    principal.email(), null,
+                    Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + principal.userType()))
                 );
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                authToken.setDetails(detailsSource.buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
-                logger.info("Authentification réussie pour: " + email + " avec rôle: ROLE_" + userType);
-            } else {
-                logger.warn("Token JWT invalide ou expiré pour email: " + email);
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Authentification réussie pour: " + principal.email() + " avec rôle: ROLE_" + principal.userType());
+                }
             }
-        } else if (email == null) {
-            logger.info("Email null, pas d'authentification pour: " + request.getRequestURI());
-        } else {
-            logger.info("Authentification déjà présente pour: " + email);
         }
+
+        logResumeEchantillonne();
         chain.doFilter(request, response);
     }
+
+    private JwtPrincipal resolvePrincipal(String jwt, HttpServletRequest request) {
+        JwtPrincipal principal = principalCache.get(jwt);
+        if (principal != null) {
+            cacheHits.incrementAndGet();
+            return principal;
+        }
+
+        try {
+            principal = JwtPrincipal.fromClaims(jwtUtil.extractAllClaims(jwt));
+        } catch (JwtException | IllegalArgumentException e) {
+            tokensRejetes.incrementAndGet();
+            if (logger.isDebugEnabled()) {
+                logger.debug("Token JWT invalide ou expiré pour " + request.getRequestURI() + ": " + e.getMessage());
+            }
+            return null;
+        }
+
+        if (principal.email() == null) {
+            tokensRejetes.incrementAndGet();
+            return null;
+        }
+
+        principalCache.put(jwt, principal);
+        return principal;
+    }
+
+    private void logResumeEchantillonne() {
+        long total = requetes.incrementAndGet();
+        if (intervalleResume > 0 && total % intervalleResume == 0) {
+            logger.info("JWT: " + total + " requêtes, " + sansToken.get() + " sans token, "
+                + cacheHits.get() + " servies par le cache, " + tokensRejetes.get() + " tokens rejetés, "
+                + principalCache.size() + " principals en cache");
+        }
+    }
 }
@@ -1,49 +1,76 @@
 package com.ecodeli.ecodeli_backend.services;
 
+import com.ecodeli.ecodeli_backend.exceptions.ValidationException;
 import com.ecodeli.ecodeli_backend.models.*;
 import com.ecodeli.ecodeli_backend.repositories.UtilisateurRepository;
 import com.ecodeli.ecodeli_backend.repositories.PrestataireCategorieRepository;
+import com.ecodeli.ecodeli_backend.repositories.PrestataireRepository;
 import com.ecodeli.ecodeli_backend.repositories.JustificatifRepository;
+import com.ecodeli.ecodeli_backend.repositories.TransactionPortefeuilleRepository;
+import com.ecodeli.ecodeli_backend.services.export.ExportCsvService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.ByteArrayOutputStream;
-import java.io.PrintWriter;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+
+import static com.ecodeli.ecodeli_backend.repositories.PrestataireSpecifications.*;
 
 @Service
 public class AdminPrestataireService {
 
+    private static final int TAILLE_PAGE_MAX = 100;
+
+    private static final Set<String> CHAMPS_TRI = Set.of(
+        "idUtilisateur", "nom", "prenom", "email", "nomEntreprise", "ville",
+        "domaineExpertise", "tarifHoraire", "statutValidation", "dateValidation");
+
+    private static final Sort TRI_PAR_DEFAUT = Sort.by("nom", "prenom", "idUtilisateur");
+
     @Autowired
     private UtilisateurRepository utilisateurRepository;
 
+    @Autowired
+    private PrestataireRepository prestataireRepository;
+
     @Autowired
     private PrestataireCategorieRepository prestataireCategorieRepository;
 
     @Autowired
     private JustificatifRepository justificatifRepository;
 
+    @Autowired
+    private TransactionPortefeuilleRepository transactionPortefeuilleRepository;
+
+    @Autowired
+    private ExportCsvService exportCsvService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PrixCalculService prixCalculService;
+
     /**
      * Récupérer tous les prestataires
      */
     public List<Prestataire> getAllPrestataires() {
-        return utilisateurRepository.findAll().stream()
-                .filter(user -> user instanceof Prestataire)
-                .map(user -> (Prestataire) user)
-                .collect(Collectors.toList());
+        return prestataireRepository.findAll();
     }
 
     /**
      * Récupérer un prestataire par ID
      */
     public Prestataire getPrestataireById(Integer id) {
-        Optional<Utilisateur> utilisateur = utilisateurRepository.findById(id);
-        if (utilisateur.isPresent() && utilisateur.get() instanceof Prestataire) {
-            return (Prestataire) utilisateur.get();
-        }
-        throw new RuntimeException("Prestataire non trouvé avec l'ID: " + id);
+        return prestataireRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Prestataire non trouvé avec l'ID: " + id));
     }
 
     /**
@@ -90,6 +117,7 @@ public class AdminPrestataireService {
         validation.setDateValidation(LocalDateTime.now());
         
         validation = prestataireCategorieRepository.save(validation);
+        evincerCacheTarifs(validation);
         
         updateStatutGlobalPrestataire(prestataire);
         
@@ -126,6 +154,7 @@ public class AdminPrestataireService {
         tarifCategorie.setTarifHoraire(tarifHoraire);
         
         tarifCategorie = prestataireCategorieRepository.save(tarifCategorie);
+        evincerCacheTarifs(tarifCategorie);
         
         prestataire.setTarifHoraire(tarifHoraire);
         utilisateurRepository.save(prestataire);
@@ -151,142 +180,168 @@ public class AdminPrestataireService {
         return justificatifRepository.save(justificatif);
     }
 
+    /**
+     * Rechercher des prestataires. Filtres reconnus : search, statutValidation, domaineExpertise,
+     * categorieValidee, ville, disponible, tarifMin, tarifMax
+     */
     public List<Prestataire> rechercherPrestataires(Map<String, Object> filtres) {
-        List<Prestataire> prestataires = getAllPrestataires();
-        
-        return prestataires.stream()
-                .filter(prestataire -> {
-                    if (filtres.get("search") != null) {
-                        String search = ((String) filtres.get("search")).toLowerCase();
-                        boolean matches = prestataire.getNom().toLowerCase().contains(search) ||
-                                        prestataire.getPrenom().toLowerCase().contains(search) ||
-                                        prestataire.getEmail().toLowerCase().contains(search) ||
-                                        (prestataire.getNomEntreprise() != null && 
-                                         prestataire.getNomEntreprise().toLowerCase().contains(search));
-                        if (!matches) {
-                            return false;
-                        }
-                    }
-                    
-                    if (filtres.get("domaineExpertise") != null) {
-                        String domaine = (String) filtres.get("domaineExpertise");
-                        try {
-                            ServiceType serviceType = ServiceType.valueOf(domaine);
-                            if (prestataire.getDomaineExpertise() != serviceType) {
-                                return false;
-                            }
-                        } catch (IllegalArgumentException e) {
-                            return false;
-                        }
-                    }
-                    
-                    return true;
-                })
-                .collect(Collectors.toList());
+        return prestataireRepository.findAll(construireSpecification(filtres), TRI_PAR_DEFAUT);
+    }
+
+    /**
+     * Rechercher des prestataires avec tri et pagination
+     */
+    public Page<Prestataire> rechercherPrestataires(Map<String, Object> filtres, int page, int size, String tri, String sens) {
+        Sort ordre = TRI_PAR_DEFAUT;
+        if (tri != null && !tri.isBlank()) {
+            if (!CHAMPS_TRI.contains(tri)) {
+                throw new ValidationException("Tri non supporté: " + tri);
+            }
+            Sort.Direction direction = "desc".equalsIgnoreCase(sens) ? Sort.Direction.DESC : Sort.Direction.ASC;
+            ordre = Sort.by(direction, tri).and(Sort.by("idUtilisateur"));
+        }
+
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), TAILLE_PAGE_MAX), ordre);
+        return prestataireRepository.findAll(construireSpecification(filtres), pageRequest);
+    }
+
+    /**
+     * Compter les prestataires correspondant aux filtres
+     */
+    public long compterPrestataires(Map<String, Object> filtres) {
+        return prestataireRepository.count(construireSpecification(filtres));
+    }
+
+    private Specification<Prestataire> construireSpecification(Map<String, Object> filtres) {
+        if (filtres == null) {
+            filtres = Map.of();
+        }
+        return Specification.where(recherche(texte(filtres.get("search"))))
+            .and(statutValidation(enumeration(Prestataire.StatutValidationPrestataire.class, filtres.get("statutValidation"), "Statut de validation invalide: ")))
+            .and(domaineExpertise(enumeration(ServiceType.class, filtres.get("domaineExpertise"), "Catégorie de service invalide: ")))
+            .and(categorieValidee(enumeration(ServiceType.class, filtres.get("categorieValidee"), "Catégorie de service invalide: ")))
+            .and(ville(texte(filtres.get("ville"))))
+            .and(disponible(booleen(filtres.get("disponible"))))
+            .and(tarifEntre(nombre(filtres.get("tarifMin")), nombre(filtres.get("tarifMax"))));
+    }
+
+    private String texte(Object valeur) {
+        return valeur != null && !valeur.toString().isBlank() ? valeur.toString() : null;
+    }
+
+    private <E extends Enum<E>> E enumeration(Class<E> type, Object valeur, String messageErreur) {
+        String texte = texte(valeur);
+        if (texte == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, texte);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException(messageErreur + texte);
+        }
+    }
+
+    private Boolean booleen(Object valeur) {
+        if (valeur instanceof Boolean b) {
+            return b;
+        }
+        String texte = texte(valeur);
+        return texte != null ? Boolean.valueOf(texte) : null;
+    }
+
+    private Double nombre(Object valeur) {
+        if (valeur instanceof Number n) {
+            return n.doubleValue();
+        }
+        String texte = texte(valeur);
+        if (texte == null) {
+            return null;
+        }
+        try {
+            return Double.valueOf(texte);
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Tarif invalide: " + texte);
+        }
     }
 
     public Map<String, Object> getStatistiquesPrestataires() {
-        List<Prestataire> prestataires = getAllPrestataires();
         Map<String, Object> stats = new HashMap<>();
         
-        stats.put("totalPrestataires", prestataires.size());
+        Object[] globales = prestataireRepository.statistiquesGlobales().get(0);
+        long total = ((Number) globales[0]).longValue();
+        long disponibles = globales[1] != null ? ((Number) globales[1]).longValue() : 0;
+        stats.put("totalPrestataires", total);
         
-        Map<String, Long> parDomaine = prestataires.stream()
-                .filter(p -> p.getDomaineExpertise() != null)
-                .collect(Collectors.groupingBy(
-                        p -> p.getDomaineExpertise().name(),
-                        Collectors.counting()
-                ));
+        Map<String, Long> parDomaine = new HashMap<>();
+        for (Object[] ligne : prestataireRepository.countParDomaine()) {
+            parDomaine.put(((ServiceType) ligne[0]).name(), ((Number) ligne[1]).longValue());
+        }
         stats.put("parDomaine", parDomaine);
         
-        long disponibles = prestataires.stream()
-                .mapToLong(p -> (p.getDisponible() != null && p.getDisponible()) ? 1 : 0)
-                .sum();
         stats.put("disponibles", disponibles);
-        stats.put("nonDisponibles", prestataires.size() - disponibles);
-        
-        OptionalDouble tarifMoyen = prestataires.stream()
-                .filter(p -> p.getTarifHoraire() != null && p.getTarifHoraire() > 0)
-                .mapToDouble(Prestataire::getTarifHoraire)
-                .average();
-        stats.put("tarifMoyen", tarifMoyen.orElse(0.0));
+        stats.put("nonDisponibles", total - disponibles);
+        stats.put("tarifMoyen", globales[2] != null ? ((Number) globales[2]).doubleValue() : 0.0);
         
         return stats;
     }
 
-    public byte[] exporterPrestataires(String format) {
-        List<Prestataire> prestataires = getAllPrestataires();
-        
-        if ("csv".equals(format)) {
-            return exporterCSV(prestataires);
-        } else {
+    /**
+     * Export des prestataires, écrit en flux dans la réponse
+     */
+    public StreamingResponseBody exporterPrestataires(String format, boolean gzip) {
+        if (!"csv".equals(format)) {
             throw new RuntimeException("Format d'export non supporté: " + format);
         }
-    }
 
-    private byte[] exporterCSV(List<Prestataire> prestataires) {
-        try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            PrintWriter writer = new PrintWriter(baos);
-
-            writer.println("ID,Nom,Prénom,Email,Entreprise,SIRET,Domaine,Tarif Horaire,Disponible");
-            
-            for (Prestataire p : prestataires) {
-                writer.printf("%d,%s,%s,%s,%s,%s,%s,%.2f,%s%n",
-                        p.getIdUtilisateur(),
-                        escapeCSV(p.getNom()),
-                        escapeCSV(p.getPrenom()),
-                        escapeCSV(p.getEmail()),
-                        escapeCSV(p.getNomEntreprise()),
-                        escapeCSV(p.getSiret()),
-                        p.getDomaineExpertise() != null ? p.getDomaineExpertise().name() : "",
-                        p.getTarifHoraire() != null ? p.getTarifHoraire() : 0.0,
-                        p.getDisponible() != null ? (p.getDisponible() ? "Oui" : "Non") : "Non renseigné"
-                );
-            }
-            
-            writer.flush();
-            return baos.toByteArray();
-        } catch (Exception e) {
-            throw new RuntimeException("Erreur lors de l'export CSV", e);
-        }
+        return exportCsvService.exporter(
+            List.of("ID", "Nom", "Prénom", "Email", "Entreprise", "SIRET", "Domaine", "Tarif Horaire", "Disponible"),
+            prestataireRepository::streamExport,
+            ligne -> {
+                Double tarif = (Double) ligne[7];
+                Boolean disponible = (Boolean) ligne[8];
+                return new Object[] {
+                    ligne[0], ligne[1], ligne[2], ligne[3], ligne[4], ligne[5], ligne[6],
+                    String.format(Locale.ROOT, "%.2f", tarif != null ? tarif : 0.0),
+                    disponible != null ? (disponible ? "Oui" : "Non") : "Non renseigné"
+                };
+            },
+            gzip);
     }
 
-    private String escapeCSV(String value) {
-        if (value == null) return "";
-        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
-            return "\"" + value.replace("\"", "\"\"") + "\"";
-        }
-        return value;
+    /**
+     * Export des transactions des portefeuilles prestataires, écrit en flux dans la réponse
+     */
+    public StreamingResponseBody exporterTransactions(boolean gzip) {
+        return exportCsvService.exporter(
+            List.of("ID", "Prestataire", "Type", "Statut", "Montant", "Frais", "Commission",
+                    "Référence", "Date Transaction", "Date Traitement"),
+            transactionPortefeuilleRepository::streamExport,
+            ligne -> ligne,
+            gzip);
     }
 
     public List<Prestataire> getPrestatairesParCategorie(String categorie) {
+        ServiceType serviceType;
         try {
-            ServiceType serviceType = ServiceType.valueOf(categorie);
-            return getAllPrestataires().stream()
-                    .filter(p -> p.getDomaineExpertise() == serviceType)
-                    .collect(Collectors.toList());
+            serviceType = ServiceType.valueOf(categorie);
         } catch (IllegalArgumentException e) {
             return new ArrayList<>();
         }
+        return prestataireRepository.findAll(domaineExpertise(serviceType), TRI_PAR_DEFAUT);
     }
 
     /**
      * Récupérer les prestataires validés (avec tarif défini)
      */
     public List<Prestataire> getPrestatairesValides() {
-        return getAllPrestataires().stream()
-                .filter(p -> p.getTarifHoraire() != null && p.getTarifHoraire() > 0)
-                .collect(Collectors.toList());
+        return prestataireRepository.findAll(tarifDefini(true), TRI_PAR_DEFAUT);
     }
 
     /**
      * Récupérer les prestataires en attente de validation
      */
     public List<Prestataire> getPrestatairesEnAttente() {
-        return getAllPrestataires().stream()
-                .filter(p -> p.getTarifHoraire() == null || p.getTarifHoraire() <= 0)
-                .collect(Collectors.toList());
+        return prestataireRepository.findAll(tarifDefini(false), TRI_PAR_DEFAUT);
     }
 
     /**
@@ -298,6 +353,19 @@ public class AdminPrestataireService {
         utilisateurRepository.save(prestataire);
     }
 
+    /**
+     * Retirer du cache de second niveau la validation modifiée et les requêtes de tarifs mises en cache,
+     * puis reconstruire l'instantané des tarifs de PrixCalculService.
+     * Hibernate invalide déjà ces entrées lors des écritures par l'ORM ; l'éviction explicite garantit que
+     * les candidatures relisent le nouveau tarif dès la réponse de l'admin.
+     */
+    private void evincerCacheTarifs(PrestataireCategorie validation) {
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        cache.evictEntityData(PrestataireCategorie.class, validation.getIdPrestataireCategorie());
+        cache.evictQueryRegion(PrestataireCategorieRepository.REGION_REQUETES_TARIFS);
+        prixCalculService.rechargerTarifs();
+    }
+
     /**
      * Mettre à jour le statut global du prestataire basé sur ses validations de catégories
      */
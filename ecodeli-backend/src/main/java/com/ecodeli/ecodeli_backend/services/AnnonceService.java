@@ -1,5 +1,6 @@
 package com.ecodeli.ecodeli_backend.services;
 
+import com.ecodeli.ecodeli_backend.dto.response.AnnonceFeedItem;
 import com.ecodeli.ecodeli_backend.exceptions.ResourceNotFoundException;
 import com.ecodeli.ecodeli_backend.models.Annonce;
 import com.ecodeli.ecodeli_backend.models.Colis;
@@ -12,17 +13,23 @@ import com.ecodeli.ecodeli_backend.repositories.UtilisateurRepository;
 import com.ecodeli.ecodeli_backend.repositories.CandidatureLivraisonRepository;
 import com.ecodeli.ecodeli_backend.repositories.LivreurRepository;
 import com.ecodeli.ecodeli_backend.repositories.LivraisonRepository;
+import com.ecodeli.ecodeli_backend.services.distance.AffinageDistanceService;
+import com.ecodeli.ecodeli_backend.services.distance.DistanceLocaleService;
+import com.ecodeli.ecodeli_backend.services.distance.DistanceService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Service
 public class AnnonceService {
@@ -30,6 +37,9 @@ public class AnnonceService {
     @Autowired
     private AnnonceRepository annonceRepository;
 
+    @Autowired
+    private LivraisonStatistiquesService livraisonStatistiquesService;
+
     @Autowired
     private UtilisateurRepository utilisateurRepository;
 
@@ -45,13 +55,22 @@ public class AnnonceService {
     @Autowired
     private LivraisonRepository livraisonRepository;
 
-    @Value("${GOOGLE_MAPS_API_KEY}")
-    private String googleMapsApiKey;
+    @Autowired
+    private DistanceService distanceService;
+
+    @Autowired
+    private DistanceLocaleService distanceLocaleService;
+
+    @Autowired
+    private AffinageDistanceService affinageDistanceService;
 
-    private final RestTemplate restTemplate = new RestTemplate();
     private final Random random = new Random();
 
     private static final BigDecimal TARIF_PAR_KM = new BigDecimal("0.80");
+    // Prix plancher : une distance nulle ou quasi nulle ne doit pas produire une annonce gratuite
+    private static final BigDecimal PRIX_MINIMUM = new BigDecimal("5.00");
+    private static final int FEED_TAILLE_MAX = 100;
+    private static final Pattern CODE_POSTAL_VILLE = Pattern.compile("\\b(\\d{5})\\s+([^,\\d][^,]*)");
 
     public List<Annonce> getAllAnnonces() {
         return annonceRepository.findAll();
@@ -103,6 +122,7 @@ public class AnnonceService {
             annonce.setDescription((String) annonceData.get("description"));
             annonce.setAdresseDepart((String) annonceData.get("adresseDepart"));
             annonce.setAdresseFin((String) annonceData.get("adresseFin"));
+            renseignerLocalisationDepart(annonce);
             annonce.setEmailDestinataire((String) annonceData.get("emailDestinataire"));
             annonce.setExpediteur(expediteur);
             annonce.setColis(colis);
@@ -112,14 +132,23 @@ public class AnnonceService {
                 annonce.setLivraisonPartielleAutorisee(livraisonPartielleAutorisee);
             }
 
-            BigDecimal distance = calculateDistance(annonce.getAdresseDepart(), annonce.getAdresseFin());
-            BigDecimal prix = distance.multiply(TARIF_PAR_KM).setScale(2, RoundingMode.HALF_UP);
-            annonce.setPrixUnitaire(prix);
+            Optional<BigDecimal> distanceEstimee = distanceLocaleService.estimerDistanceKm(
+                annonce.getAdresseDepart(), annonce.getAdresseFin());
+            BigDecimal distance = distanceEstimee.orElseGet(
+                () -> calculateDistance(annonce.getAdresseDepart(), annonce.getAdresseFin()));
+            annonce.setPrixUnitaire(calculatePrice(distance));
 
             annonce.setStatut(Annonce.StatutAnnonce.PUBLIEE);
             annonce.setTypeAnnonce(Annonce.TypeAnnonce.unique);
 
-            return annonceRepository.save(annonce);
+            Annonce saved = annonceRepository.save(annonce);
+
+            if (distanceEstimee.isPresent()) {
+                affinageDistanceService.planifierAffinagePrix(
+                    saved.getIdAnnonce(), saved.getAdresseDepart(), saved.getAdresseFin(), this::calculatePrice);
+            }
+
+            return saved;
 
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de la création de l'annonce: " + e.getMessage());
@@ -127,42 +156,16 @@ public class AnnonceService {
     }
 
     public BigDecimal calculateDistance(String adresseDepart, String adresseFin) {
-        try {
-            String url = String.format(
-                "https://maps.googleapis.com/maps/api/distancematrix/json?origins=%s&destinations=%s&units=metric&key=%s",
-                adresseDepart.replace(" ", "+"),
-                adresseFin.replace(" ", "+"),
-                googleMapsApiKey
-            );
-
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
-
-            if (response != null && "OK".equals(response.get("status"))) {
-                List<Map<String, Object>> rows = (List<Map<String, Object>>) response.get("rows");
-                if (!rows.isEmpty()) {
-                    List<Map<String, Object>> elements = (List<Map<String, Object>>) rows.get(0).get("elements");
-                    if (!elements.isEmpty()) {
-                        Map<String, Object> element = elements.get(0);
-                        if ("OK".equals(element.get("status"))) {
-                            Map<String, Object> distance = (Map<String, Object>) element.get("distance");
-                            Integer distanceInMeters = (Integer) distance.get("value");
-
-                            return new BigDecimal(distanceInMeters).divide(new BigDecimal("1000"), 2, RoundingMode.HALF_UP);
-                        }
-                    }
-                }
-            }
-            return new BigDecimal("10.00");
-        } catch (Exception e) {
-            return new BigDecimal("10.00");
-        }
+        return distanceService.calculerDistance(adresseDepart, adresseFin);
+    }
+
+    public BigDecimal estimateDistance(String adresseDepart, String adresseFin) {
+        return distanceLocaleService.estimerDistanceKm(adresseDepart, adresseFin)
+            .orElseGet(() -> calculateDistance(adresseDepart, adresseFin));
     }
 
     public List<Annonce> getAnnoncesByUser(Integer userId) {
-        return annonceRepository.findAll().stream()
-            .filter(annonce -> annonce.getExpediteur() != null &&
-                     annonce.getExpediteur().getIdUtilisateur().equals(userId))
-            .toList();
+        return annonceRepository.findByExpediteurIdUtilisateur(userId);
     }
 
     public void cancelAnnonce(Integer annonceId) {
@@ -181,9 +184,24 @@ public class AnnonceService {
     }
 
     public List<Annonce> getAvailableAnnonces() {
-        return annonceRepository.findAll().stream()
-            .filter(annonce -> annonce.getStatut() == Annonce.StatutAnnonce.PUBLIEE)
-            .toList();
+        return annonceRepository.findByStatut(Annonce.StatutAnnonce.PUBLIEE);
+    }
+
+    public List<AnnonceFeedItem> getAnnoncesFeed(Annonce.StatutAnnonce statut, String codePostal, String ville,
+                                                 BigDecimal prixMin, BigDecimal prixMax, Boolean partielle,
+                                                 LocalDateTime apresDate, Integer apresId, int size) {
+        Annonce.StatutAnnonce statutFiltre = statut != null ? statut : Annonce.StatutAnnonce.PUBLIEE;
+        String codePostalFiltre = codePostal != null && !codePostal.isBlank() ? codePostal.trim() : null;
+        String villeFiltre = ville != null && !ville.isBlank() ? ville.trim() : null;
+        Pageable limite = PageRequest.of(0, Math.max(1, Math.min(size, FEED_TAILLE_MAX)));
+
+        if (apresDate == null || apresId == null) {
+            return annonceRepository.findFeed(statutFiltre, codePostalFiltre, villeFiltre,
+                prixMin, prixMax, partielle, limite);
+        }
+
+        return annonceRepository.findFeedApres(statutFiltre, codePostalFiltre, villeFiltre,
+            prixMin, prixMax, partielle, apresDate, apresId, limite);
     }
 
     public void takeAnnonce(Integer annonceId, Integer livreurId) {
@@ -210,6 +228,7 @@ public class AnnonceService {
         livraison.setStatut(Livraison.StatutLivraison.VALIDEE);
 
         livraisonRepository.save(livraison);
+        livraisonStatistiquesService.enregistrerCreation(livraison);
         annonceRepository.save(annonce);
     }
 
@@ -236,10 +255,7 @@ public class AnnonceService {
     }
 
     public List<Annonce> getAnnoncesByLivreur(Integer livreurId) {
-        return annonceRepository.findAll().stream()
-            .filter(annonce -> annonce.getLivreur() != null &&
-                     annonce.getLivreur().getIdUtilisateur().equals(livreurId))
-            .toList();
+        return annonceRepository.findByLivreurIdUtilisateur(livreurId);
     }
 
     public String generateDeliveryCode(Integer annonceId) {
@@ -292,8 +308,20 @@ public class AnnonceService {
         return true;
     }
 
+    private void renseignerLocalisationDepart(Annonce annonce) {
+        if (annonce.getAdresseDepart() == null) {
+            return;
+        }
+
+        Matcher matcher = CODE_POSTAL_VILLE.matcher(annonce.getAdresseDepart());
+        if (matcher.find()) {
+            annonce.setCodePostalDepart(matcher.group(1));
+            annonce.setVilleDepart(matcher.group(2).trim());
+        }
+    }
+
     public BigDecimal calculatePrice(BigDecimal distance) {
-        return distance.multiply(TARIF_PAR_KM).setScale(2, RoundingMode.HALF_UP);
+        return distance.multiply(TARIF_PAR_KM).setScale(2, RoundingMode.HALF_UP).max(PRIX_MINIMUM);
     }
 
     public void validerLivreursPartielle(Integer annonceId) {
@@ -348,6 +376,7 @@ public class AnnonceService {
         livraison.setStatut(Livraison.StatutLivraison.VALIDEE);
 
         livraisonRepository.save(livraison);
+        livraisonStatistiquesService.enregistrerCreation(livraison);
 
         annonce.setStatut(Annonce.StatutAnnonce.VALIDEE);
         annonceRepository.save(annonce);
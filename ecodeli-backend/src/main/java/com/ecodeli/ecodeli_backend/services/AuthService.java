@@ -25,6 +25,9 @@ public class AuthService {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private UserService userService;
+
     public AuthResponse login(LoginRequest loginRequest) {
         try {
             Utilisateur utilisateur = utilisateurRepository.findByEmail(loginRequest.getEmail())
@@ -62,6 +65,7 @@ public class AuthService {
             utilisateur.setMotDePasse(passwordEncoder.encode(registerRequest.getMotDePasse()));
 
             utilisateur = utilisateurRepository.save(utilisateur);
+            userService.invaliderComptages();
 
             emailService.sendWelcomeEmail(utilisateur);
 
@@ -27,6 +27,9 @@ public class CandidatureLivraisonService {
     @Autowired
     private AnnonceRepository annonceRepository;
 
+    @Autowired
+    private LivraisonStatistiquesService livraisonStatistiquesService;
+
     @Autowired
     private UtilisateurRepository utilisateurRepository;
 
@@ -115,6 +118,7 @@ public class CandidatureLivraisonService {
         livraison.setStatut(Livraison.StatutLivraison.VALIDEE);
 
         livraisonRepository.save(livraison);
+        livraisonStatistiquesService.enregistrerCreation(livraison);
 
         List<CandidatureLivraison> autresCandidatures = candidatureLivraisonRepository
             .findByAnnonceIdAnnonce(annonce.getIdAnnonce());
@@ -1,9 +1,12 @@
 package com.ecodeli.ecodeli_backend.services;
 
+import com.ecodeli.ecodeli_backend.dto.response.CandidatureEnvoyeeItem;
+import com.ecodeli.ecodeli_backend.dto.response.CandidaturePrestataireResponse;
 import com.ecodeli.ecodeli_backend.models.*;
 import com.ecodeli.ecodeli_backend.repositories.CandidatureRepository;
 import com.ecodeli.ecodeli_backend.repositories.DemandeServiceRepository;
 import com.ecodeli.ecodeli_backend.repositories.PrestataireCategorieRepository;
+import com.ecodeli.ecodeli_backend.repositories.ResumeNotesPrestataireRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,43 +27,61 @@ public class CandidatureService {
     @Autowired
     private PrestataireCategorieRepository prestataireCategorieRepository;
 
+    @Autowired
+    private ResumeNotesPrestataireRepository resumeNotesRepository;
+
     @Autowired
     private EmailService emailService;
 
     /**
      * Récupérer toutes les candidatures pour une demande de service avec profils prestataires
      */
-    public List<Map<String, Object>> getCandidaturesWithPrestatairesByDemande(Long demandeId) {
-        List<Candidature> candidatures = candidatureRepository.findByDemandeServiceIdDemande(demandeId.intValue());
+    public List<CandidaturePrestataireResponse> getCandidaturesWithPrestatairesByDemande(Long demandeId) {
+        List<Candidature> candidatures = candidatureRepository.findByDemandeAvecPrestataire(demandeId);
+        if (candidatures.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        Set<Integer> prestataireIds = candidatures.stream()
+            .map(c -> c.getPrestataire().getIdUtilisateur())
+            .collect(Collectors.toSet());
+        
+        // Une requête groupée par type d'information, quel que soit le nombre de candidats
+        Map<Integer, Object[]> compteurs = indexerParPrestataire(candidatureRepository.countCandidaturesParPrestataires(prestataireIds));
+        Map<Integer, ResumeNotesPrestataire> notes = resumeNotesRepository.findByIdPrestataireIn(prestataireIds).stream()
+            .collect(Collectors.toMap(ResumeNotesPrestataire::getIdPrestataire, resume -> resume));
+        Map<Integer, List<CandidaturePrestataireResponse.CategorieValidee>> categories = new HashMap<>();
+        for (Object[] ligne : prestataireCategorieRepository.findCategoriesValideesParPrestataires(prestataireIds)) {
+            categories.computeIfAbsent((Integer) ligne[0], id -> new ArrayList<>()).add(
+                new CandidaturePrestataireResponse.CategorieValidee(
+                    ((ServiceType) ligne[1]).name(),
+                    ((PrestataireCategorie.StatutValidation) ligne[2]).name(),
+                    (Double) ligne[3],
+                    (LocalDateTime) ligne[4]));
+        }
         
         return candidatures.stream().map(candidature -> {
-            Map<String, Object> candidatureWithPrestataire = new HashMap<>();
-            
-            candidatureWithPrestataire.put("idCandidature", candidature.getIdCandidature());
-            candidatureWithPrestataire.put("prixPropose", candidature.getPrixPropose());
-            candidatureWithPrestataire.put("messagePrestataire", candidature.getMessagePrestataire());
-            candidatureWithPrestataire.put("statut", candidature.getStatut().name());
-            candidatureWithPrestataire.put("dateCandidature", candidature.getDateCandidature());
-            candidatureWithPrestataire.put("delaiPropose", candidature.getDelaiPropose());
-            
             Prestataire prestataire = candidature.getPrestataire();
-            Map<String, Object> prestataireInfo = new HashMap<>();
-            prestataireInfo.put("idUtilisateur", prestataire.getIdUtilisateur());
-            prestataireInfo.put("nom", prestataire.getNom());
-            prestataireInfo.put("prenom", prestataire.getPrenom());
-            prestataireInfo.put("email", prestataire.getEmail());
-            prestataireInfo.put("telephone", prestataire.getTelephone());
-            prestataireInfo.put("adresse", prestataire.getAdresse());
-            
-            Map<String, Object> statistiques = getStatistiquesPrestataire(prestataire);
-            prestataireInfo.put("statistiques", statistiques);
-            
-            List<Map<String, Object>> categoriesValidees = getCategoriesValideesAvecTarifs(prestataire);
-            prestataireInfo.put("categoriesValidees", categoriesValidees);
-            
-            candidatureWithPrestataire.put("prestataire", prestataireInfo);
-            
-            return candidatureWithPrestataire;
+            Integer prestataireId = prestataire.getIdUtilisateur();
+            
+            CandidaturePrestataireResponse.ProfilPrestataire profil = new CandidaturePrestataireResponse.ProfilPrestataire(
+                prestataireId,
+                prestataire.getNom(),
+                prestataire.getPrenom(),
+                prestataire.getEmail(),
+                prestataire.getTelephone(),
+                prestataire.getAdresse(),
+                construireStatistiques(compteurs.get(prestataireId), notes.get(prestataireId)),
+                categories.getOrDefault(prestataireId, new ArrayList<>()));
+            
+            return new CandidaturePrestataireResponse(
+                candidature.getIdCandidature(),
+                candidature.getPrixPropose(),
+                candidature.getMessagePrestataire(),
+                candidature.getStatut().name(),
+                candidature.getDateCandidature(),
+                candidature.getDelaiPropose(),
+                profil);
         }).collect(Collectors.toList());
     }
 
@@ -160,46 +181,29 @@ public class CandidatureService {
         }
     }
 
-    private Map<String, Object> getStatistiquesPrestataire(Prestataire prestataire) {
-        Map<String, Object> stats = new HashMap<>();
-        
-        List<Candidature> candidaturesPrestataire = candidatureRepository.findByPrestataireIdUtilisateur(prestataire.getIdUtilisateur());
-        
-        long totalCandidatures = candidaturesPrestataire.size();
-        long candidaturesAcceptees = candidaturesPrestataire.stream()
-            .filter(c -> c.getStatut() == Candidature.StatutCandidature.ACCEPTEE)
-            .count();
-        
-        double tauxAcceptation = totalCandidatures > 0 ? (candidaturesAcceptees * 100.0 / totalCandidatures) : 0;
-        
-        stats.put("totalCandidatures", totalCandidatures);
-        stats.put("candidaturesAcceptees", candidaturesAcceptees);
-        stats.put("tauxAcceptation", Math.round(tauxAcceptation * 100.0) / 100.0);
-        stats.put("missionsRealisees", candidaturesAcceptees);
-        
-        stats.put("noteMoyenne", 4.2); // Valeur fictive pour l'instant
-        stats.put("nombreEvaluations", candidaturesAcceptees > 0 ? candidaturesAcceptees : 0);
-        
-        return stats;
+    private Map<Integer, Object[]> indexerParPrestataire(List<Object[]> lignes) {
+        Map<Integer, Object[]> index = new HashMap<>();
+        for (Object[] ligne : lignes) {
+            index.put((Integer) ligne[0], ligne);
+        }
+        return index;
     }
 
-    private List<Map<String, Object>> getCategoriesValideesAvecTarifs(Prestataire prestataire) {
-        List<Map<String, Object>> categories = new ArrayList<>();
-        
-        List<PrestataireCategorie> categoriesPrestataire = prestataireCategorieRepository.findByPrestataireIdUtilisateur(prestataire.getIdUtilisateur());
+    private CandidaturePrestataireResponse.Statistiques construireStatistiques(Object[] compteurs, ResumeNotesPrestataire notes) {
+        long totalCandidatures = compteurs != null ? ((Number) compteurs[1]).longValue() : 0;
+        long candidaturesAcceptees = compteurs != null && compteurs[2] != null ? ((Number) compteurs[2]).longValue() : 0;
+        double tauxAcceptation = totalCandidatures > 0 ? (candidaturesAcceptees * 100.0 / totalCandidatures) : 0;
         
-        for (PrestataireCategorie pc : categoriesPrestataire) {
-            if (pc.getStatutValidation() == PrestataireCategorie.StatutValidation.VALIDE) {
-                Map<String, Object> categorieInfo = new HashMap<>();
-                categorieInfo.put("categorieService", pc.getCategorieService().name());
-                categorieInfo.put("statut", pc.getStatutValidation().name());
-                categorieInfo.put("tarifHoraire", pc.getTarifHoraire());
-                categorieInfo.put("dateValidation", pc.getDateValidation());
-                categories.add(categorieInfo);
-            }
-        }
+        double noteMoyenne = notes != null ? notes.getMoyenneGlobale() : 0.0;
+        long nombreEvaluations = notes != null ? notes.getNombreEvaluations() : 0;
         
-        return categories;
+        return new CandidaturePrestataireResponse.Statistiques(
+            totalCandidatures,
+            candidaturesAcceptees,
+            Math.round(tauxAcceptation * 100.0) / 100.0,
+            candidaturesAcceptees,
+            Math.round(noteMoyenne * 10.0) / 10.0,
+            nombreEvaluations);
     }
 
     private void envoyerEmailAcceptationCandidature(Candidature candidature) {
@@ -343,44 +347,8 @@ public class CandidatureService {
         }
     }
 
-    public List<Map<String, Object>> getCandidaturesByPrestataire(Integer prestataireId) {
-        List<Candidature> candidatures = candidatureRepository.findByPrestataireIdUtilisateur(prestataireId);
-        
-        return candidatures.stream().map(candidature -> {
-            Map<String, Object> candidatureMap = new HashMap<>();
-            
-            candidatureMap.put("idCandidature", candidature.getIdCandidature());
-            candidatureMap.put("prixPropose", candidature.getPrixPropose());
-            candidatureMap.put("messagePrestataire", candidature.getMessagePrestataire());
-            candidatureMap.put("statut", candidature.getStatut().name());
-            candidatureMap.put("dateCandidature", candidature.getDateCandidature());
-            candidatureMap.put("dateCreation", candidature.getDateCandidature());
-            candidatureMap.put("delaiPropose", candidature.getDelaiPropose());
-            
-            if (candidature.getDemandeService() != null) {
-                Map<String, Object> demandeMap = new HashMap<>();
-                demandeMap.put("idDemande", candidature.getDemandeService().getIdDemande());
-                demandeMap.put("titre", candidature.getDemandeService().getTitre());
-                demandeMap.put("description", candidature.getDemandeService().getDescription());
-                demandeMap.put("categorieService", candidature.getDemandeService().getCategorieService().name());
-                demandeMap.put("dateSouhaitee", candidature.getDemandeService().getDateSouhaitee());
-                demandeMap.put("adresseDepart", candidature.getDemandeService().getAdresseDepart());
-                demandeMap.put("creneauHoraire", candidature.getDemandeService().getCreneauHoraire());
-                
-                if (candidature.getDemandeService().getClient() != null) {
-                    Map<String, Object> clientMap = new HashMap<>();
-                    clientMap.put("idUtilisateur", candidature.getDemandeService().getClient().getIdUtilisateur());
-                    clientMap.put("prenom", candidature.getDemandeService().getClient().getPrenom());
-                    clientMap.put("nom", candidature.getDemandeService().getClient().getNom());
-                    clientMap.put("email", candidature.getDemandeService().getClient().getEmail());
-                    demandeMap.put("client", clientMap);
-                }
-                
-                candidatureMap.put("demandeService", demandeMap);
-            }
-            
-            return candidatureMap;
-        }).collect(Collectors.toList());
+    public List<CandidatureEnvoyeeItem> getCandidaturesByPrestataire(Integer prestataireId) {
+        return candidatureRepository.findCandidaturesEnvoyees(prestataireId);
     }
 
     public Map<String, Object> getStatistiquesCandidaturesDemande(Long demandeId) {
@@ -0,0 +1,177 @@
+package com.ecodeli.ecodeli_backend.services;
+
+import com.ecodeli.ecodeli_backend.models.ServiceType;
+import com.ecodeli.ecodeli_backend.repositories.ResumeNotesPrestataireRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Classement des prestataires par note bayésienne : (C × m + somme des notes) / (C + nombre d'évaluations),
+ * où m est la note moyenne de la plateforme et C le poids de cet a priori.
+ * Un prestataire peu évalué est ainsi rapproché de la moyenne au lieu d'être classé sur une seule note.
+ *
+ * L'entrée courante de chaque prestataire est tenue dans une map ; les ensembles triés peuvent contenir
+ * brièvement une entrée remplacée, que les lectures ignorent.
+ */
+@Service
+@Slf4j
+public class ClassementPrestatairesService {
+
+    public record EntreeClassement(Integer prestataireId, ServiceType categorie, long nombreEvaluations,
+                                   long sommeNotes, double noteBayesienne) {
+
+        public double getMoyenne() {
+            return nombreEvaluations > 0 ? (double) sommeNotes / nombreEvaluations : 0.0;
+        }
+    }
+
+    private static final Comparator<EntreeClassement> ORDRE = Comparator
+        .comparingDouble(EntreeClassement::noteBayesienne).reversed()
+        .thenComparing(Comparator.comparingLong(EntreeClassement::nombreEvaluations).reversed())
+        .thenComparing(EntreeClassement::prestataireId);
+
+    private final ResumeNotesPrestataireRepository resumeNotesRepository;
+    private final double poidsAPriori;
+    private final double noteAPrioriParDefaut;
+
+    private final Map<Integer, EntreeClassement> entrees = new ConcurrentHashMap<>();
+    private final NavigableSet<EntreeClassement> classementGlobal = new ConcurrentSkipListSet<>(ORDRE);
+    private final Map<ServiceType, NavigableSet<EntreeClassement>> classementsParCategorie = new EnumMap<>(ServiceType.class);
+
+    private volatile double noteAPriori;
+
+    public ClassementPrestatairesService(ResumeNotesPrestataireRepository resumeNotesRepository,
+                                         @Value("${app.classement.poids-a-priori:5}") double poidsAPriori,
+                                         @Value("${app.classement.note-a-priori:3.5}") double noteAPrioriParDefaut) {
+        this.resumeNotesRepository = resumeNotesRepository;
+        this.poidsAPriori = poidsAPriori;
+        this.noteAPrioriParDefaut = noteAPrioriParDefaut;
+        this.noteAPriori = noteAPrioriParDefaut;
+        for (ServiceType type : ServiceType.values()) {
+            classementsParCategorie.put(type, new ConcurrentSkipListSet<>(ORDRE));
+        }
+    }
+
+    /**
+     * Charge le classement depuis les résumés de notes, après leur initialisation par EvaluationService
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(1)
+    public synchronized void recharger() {
+        List<Object[]> lignes = resumeNotesRepository.findResumesAvecCategorie();
+
+        long nombreTotal = 0;
+        long sommeTotale = 0;
+        for (Object[] ligne : lignes) {
+            nombreTotal += ((Number) ligne[1]).longValue();
+            sommeTotale += ((Number) ligne[2]).longValue();
+        }
+        noteAPriori = nombreTotal > 0 ? (double) sommeTotale / nombreTotal : noteAPrioriParDefaut;
+
+        entrees.clear();
+        classementGlobal.clear();
+        classementsParCategorie.values().forEach(NavigableSet::clear);
+
+        for (Object[] ligne : lignes) {
+            Integer prestataireId = (Integer) ligne[0];
+            long nombre = ((Number) ligne[1]).longValue();
+            long somme = ((Number) ligne[2]).longValue();
+            ServiceType categorie = (ServiceType) ligne[3];
+            entrees.compute(prestataireId, (id, ancienne) -> remplacer(ancienne, creerEntree(id, categorie, nombre, somme)));
+        }
+
+        log.info("Classement des prestataires chargé: {} prestataire(s), note a priori {}", entrees.size(), noteAPriori);
+    }
+
+    /**
+     * Prend en compte une nouvelle évaluation (à appeler une fois celle-ci validée en base)
+     */
+    public void enregistrerEvaluation(Integer prestataireId, ServiceType categorie, int noteGlobale) {
+        entrees.compute(prestataireId, (id, ancienne) -> {
+            long nombre = ancienne != null ? ancienne.nombreEvaluations() : 0;
+            long somme = ancienne != null ? ancienne.sommeNotes() : 0;
+            return remplacer(ancienne, creerEntree(id, categorie, nombre + 1, somme + noteGlobale));
+        });
+    }
+
+    /**
+     * Les meilleurs prestataires, éventuellement limités à une catégorie
+     */
+    public List<EntreeClassement> getTop(int limite, ServiceType categorie, long minEvaluations) {
+        NavigableSet<EntreeClassement> classement = categorie != null ? classementsParCategorie.get(categorie) : classementGlobal;
+
+        List<EntreeClassement> resultat = new ArrayList<>(Math.max(limite, 0));
+        for (EntreeClassement entree : classement) {
+            if (resultat.size() >= limite) {
+                break;
+            }
+            if (estCourante(entree) && entree.nombreEvaluations() >= minEvaluations) {
+                resultat.add(entree);
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * Rang (à partir de 1) d'un prestataire dans le classement global ou dans sa catégorie
+     */
+    public Optional<Integer> getRang(Integer prestataireId, boolean dansSaCategorie) {
+        EntreeClassement entree = entrees.get(prestataireId);
+        if (entree == null) {
+            return Optional.empty();
+        }
+
+        NavigableSet<EntreeClassement> classement = dansSaCategorie && entree.categorie() != null
+            ? classementsParCategorie.get(entree.categorie()) : classementGlobal;
+
+        int rang = 1;
+        for (EntreeClassement devant : classement.headSet(entree, false)) {
+            if (estCourante(devant)) {
+                rang++;
+            }
+        }
+        return Optional.of(rang);
+    }
+
+    public Optional<EntreeClassement> getEntree(Integer prestataireId) {
+        return Optional.ofNullable(entrees.get(prestataireId));
+    }
+
+    private EntreeClassement creerEntree(Integer prestataireId, ServiceType categorie, long nombre, long somme) {
+        double note = (poidsAPriori * noteAPriori + somme) / (poidsAPriori + nombre);
+        return new EntreeClassement(prestataireId, categorie, nombre, somme, note);
+    }
+
+    // Appelé dans entrees.compute : les mises à jour d'un même prestataire sont donc sérialisées
+    private EntreeClassement remplacer(EntreeClassement ancienne, EntreeClassement nouvelle) {
+        classementGlobal.add(nouvelle);
+        if (nouvelle.categorie() != null) {
+            classementsParCategorie.get(nouvelle.categorie()).add(nouvelle);
+        }
+        if (ancienne != null && !ancienne.equals(nouvelle)) {
+            classementGlobal.remove(ancienne);
+            if (ancienne.categorie() != null) {
+                classementsParCategorie.get(ancienne.categorie()).remove(ancienne);
+            }
+        }
+        return nouvelle;
+    }
+
+    private boolean estCourante(EntreeClassement entree) {
+        return entrees.get(entree.prestataireId()) == entree;
+    }
+}
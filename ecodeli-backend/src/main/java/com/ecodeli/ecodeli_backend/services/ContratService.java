@@ -6,15 +6,21 @@ import com.ecodeli.ecodeli_backend.models.ContratCommercant.StatutContrat;
 import com.ecodeli.ecodeli_backend.repositories.ContratCommercantRepository;
 import com.ecodeli.ecodeli_backend.repositories.TemplateContratRepository;
 import com.ecodeli.ecodeli_backend.repositories.UtilisateurRepository;
+import com.ecodeli.ecodeli_backend.services.export.ExportCsvService;
+import com.ecodeli.ecodeli_backend.services.template.TemplateService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import jakarta.annotation.PostConstruct;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -34,6 +40,12 @@ public class ContratService {
     
     @Autowired
     private EmailService emailService;
+    
+    @Autowired
+    private TemplateService templateService;
+
+    @Autowired
+    private ExportCsvService exportCsvService;
 
     @PostConstruct
     private void initDefaultTemplateOnStartup() {
@@ -301,6 +313,7 @@ public class ContratService {
         }
         
         template.setDateModification(LocalDateTime.now());
+        templateService.invaliderContrat(idTemplate);
         
         return templateRepository.save(template);
     }
@@ -310,6 +323,26 @@ public class ContratService {
             throw new ResourceNotFoundException("Template non trouvé");
         }
         templateRepository.deleteById(idTemplate);
+        templateService.invaliderContrat(idTemplate);
+    }
+    
+    /**
+     * Génère le contenu d'un contrat à partir d'un template, avec les informations du commerçant
+     */
+    public String genererContenuContrat(Integer idTemplate, Integer idContrat) {
+        TemplateContrat template = getTemplateById(idTemplate);
+        Commercant commercant = getContratById(idContrat).getCommercant();
+        
+        Map<String, String> valeurs = new HashMap<>();
+        valeurs.put("NOM_COMMERCE", commercant.getNomCommerce());
+        valeurs.put("PRENOM_COMMERCANT", commercant.getPrenom());
+        valeurs.put("NOM_COMMERCANT", commercant.getNom());
+        valeurs.put("EMAIL_COMMERCANT", commercant.getEmail());
+        valeurs.put("TELEPHONE_COMMERCANT", commercant.getTelephone());
+        valeurs.put("SIRET", commercant.getSiret());
+        valeurs.put("DATE_AUJOURDHUI", LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
+        
+        return templateService.rendreContrat(template, valeurs);
     }
 
     public Map<String, Long> getStatistiquesContrats() {
@@ -387,4 +420,20 @@ public class ContratService {
             System.err.println("Erreur lors de l'envoi de la notification commerçant : " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Export CSV des contrats commerçants, écrit en flux dans la réponse
+     */
+    public StreamingResponseBody exporterContrats(boolean gzip) {
+        return exportCsvService.exporter(
+            List.of("ID", "Commerçant", "Commerce", "Email", "Statut", "Date Demande", "Date Création",
+                    "Date Signature", "Signé"),
+            contratRepository::streamExport,
+            ligne -> {
+                Boolean signe = (Boolean) ligne[8];
+                ligne[8] = Boolean.TRUE.equals(signe) ? "Oui" : "Non";
+                return ligne;
+            },
+            gzip);
+    }
+}
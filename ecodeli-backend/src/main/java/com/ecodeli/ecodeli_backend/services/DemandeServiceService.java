@@ -215,38 +215,21 @@ public class DemandeServiceService {
         }
     }
 
+    /**
+     * Rechercher des demandes : catégorie, statut et détails spécifiques (urgence, fréquence) filtrés en SQL
+     */
     public List<DemandeService> rechercherDemandesService(Map<String, Object> filtres) {
-        List<DemandeService> demandes = demandeServiceRepository.findAll();
-        
-        return demandes.stream()
-                .filter(demande -> {
-                    if (filtres.get("categorie") != null) {
-                        String categorieFiltre = (String) filtres.get("categorie");
-                        try {
-                            ServiceType serviceType = ServiceType.valueOf(categorieFiltre);
-                            if (demande.getCategorieService() != serviceType) {
-                                return false;
-                            }
-                        } catch (IllegalArgumentException e) {
-                            return false;
-                        }
-                    }
-                    
-                    if (filtres.get("statut") != null) {
-                        String statutFiltre = (String) filtres.get("statut");
-                        try {
-                            DemandeService.StatutDemande statut = DemandeService.StatutDemande.valueOf(statutFiltre);
-                            if (demande.getStatut() != statut) {
-                                return false;
-                            }
-                        } catch (IllegalArgumentException e) {
-                            return false;
-                        }
-                    }
-                    
-                    return true;
-                })
-                .collect(Collectors.toList());
+        ServiceType categorie;
+        DemandeService.StatutDemande statut;
+        try {
+            categorie = filtres.get("categorie") != null ? ServiceType.valueOf((String) filtres.get("categorie")) : null;
+            statut = filtres.get("statut") != null ? DemandeService.StatutDemande.valueOf((String) filtres.get("statut")) : null;
+        } catch (IllegalArgumentException e) {
+            return new ArrayList<>();
+        }
+
+        return demandeServiceRepository.rechercher(categorie, statut,
+            (String) filtres.get("urgence"), (String) filtres.get("frequence"));
     }
 
     public Map<String, Object> getStatistiquesDemandesService() {
@@ -0,0 +1,217 @@
+package com.ecodeli.ecodeli_backend.services;
+
+import com.ecodeli.ecodeli_backend.models.EmailOutbox;
+import com.ecodeli.ecodeli_backend.repositories.EmailOutboxRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Envoie les emails de la table EMAIL_OUTBOX : un poller réserve les emails échus et les répartit
+ * en lots, chaque lot étant envoyé sur une seule connexion SMTP par un pool borné.
+ * La réservation (EN_COURS, jeton et bail) vaut entre instances du backend : un email n'est envoyé
+ * que par l'instance qui le détient, et redevient échu si elle s'arrête avant d'avoir enregistré
+ * le résultat (envoi au moins une fois).
+ */
+@Service
+@Slf4j
+public class EmailOutboxService {
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final JavaMailSender mailSender;
+    private final String fromEmail;
+    private final int tailleLot;
+    private final int tentativesMax;
+    private final long delaiBaseSecondes;
+    private final long intervalleMs;
+    private final long bailSecondes;
+    private final int threads;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ScheduledExecutorService poller;
+    private final ThreadPoolExecutor executor;
+
+    public EmailOutboxService(EmailOutboxRepository emailOutboxRepository,
+                              JavaMailSender mailSender,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${MAIL_FROM}") String fromEmail,
+                              @Value("${app.email.outbox.threads:2}") int threads,
+                              @Value("${app.email.outbox.taille-lot:20}") int tailleLot,
+                              @Value("${app.email.outbox.tentatives-max:5}") int tentativesMax,
+                              @Value("${app.email.outbox.delai-base-secondes:30}") long delaiBaseSecondes,
+                              @Value("${app.email.outbox.intervalle-ms:2000}") long intervalleMs,
+                              @Value("${app.email.outbox.bail-secondes:300}") long bailSecondes) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.mailSender = mailSender;
+        this.fromEmail = fromEmail;
+        this.threads = threads;
+        this.tailleLot = tailleLot;
+        this.tentativesMax = tentativesMax;
+        this.delaiBaseSecondes = delaiBaseSecondes;
+        this.intervalleMs = intervalleMs;
+        this.bailSecondes = bailSecondes;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "email-outbox-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(threads),
+            runnable -> {
+                Thread thread = new Thread(runnable, "email-outbox");
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void demarrer() {
+        poller.scheduleWithFixedDelay(this::releverEmails, intervalleMs, intervalleMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void arreter() {
+        poller.shutdown();
+        executor.shutdown();
+    }
+
+    /**
+     * Réserve les emails échus et attend la fin de leur envoi avant le relevé suivant
+     */
+    private void releverEmails() {
+        try {
+            List<EmailOutbox> emails = reserverEmails();
+            if (emails.isEmpty()) {
+                return;
+            }
+
+            List<Callable<Void>> lots = new ArrayList<>();
+            for (int debut = 0; debut < emails.size(); debut += tailleLot) {
+                List<EmailOutbox> lot = emails.subList(debut, Math.min(debut + tailleLot, emails.size()));
+                lots.add(() -> {
+                    envoyerLot(lot);
+                    return null;
+                });
+            }
+            executor.invokeAll(lots);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Erreur lors du relevé des emails à envoyer: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Réservation dans une transaction courte : les lignes échues sont verrouillées (celles qu'une autre
+     * instance verrouille déjà sont sautées), puis passées EN_COURS avec le jeton de cette réservation et
+     * un bail ; un bail expiré rend l'email à nouveau échu.
+     */
+    private List<EmailOutbox> reserverEmails() {
+        String jeton = UUID.randomUUID().toString();
+        LocalDateTime maintenant = LocalDateTime.now();
+        Integer reserves = transactionTemplate.execute(statut -> {
+            List<Long> ids = emailOutboxRepository.verrouillerEchus(maintenant, tailleLot * threads);
+            return ids.isEmpty() ? 0 : emailOutboxRepository.reserver(ids, jeton,
+                maintenant.plusSeconds(bailSecondes), EmailOutbox.StatutEmail.EN_COURS);
+        });
+        return reserves == null || reserves == 0
+            ? List.of()
+            : emailOutboxRepository.findByJetonReservationOrderByIdEmailAsc(jeton);
+    }
+
+    private void envoyerLot(List<EmailOutbox> lot) {
+        Map<MimeMessage, EmailOutbox> messages = new IdentityHashMap<>();
+        for (EmailOutbox email : lot) {
+            try {
+                messages.put(construireMessage(email), email);
+            } catch (MessagingException | UnsupportedEncodingException e) {
+                email.marquerEchec(e.getMessage(), tentativesMax, delaiBaseSecondes);
+            }
+        }
+
+        Map<Object, Exception> echecs = Map.of();
+        try {
+            if (!messages.isEmpty()) {
+                mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+            }
+        } catch (MailSendException e) {
+            echecs = e.getFailedMessages();
+            if (echecs.isEmpty()) {
+                // Échec de connexion : aucun message du lot n'est parti
+                messages.values().forEach(email -> email.marquerEchec(e.getMessage(), tentativesMax, delaiBaseSecondes));
+                messages.clear();
+            }
+        } catch (MailException e) {
+            messages.values().forEach(email -> email.marquerEchec(e.getMessage(), tentativesMax, delaiBaseSecondes));
+            messages.clear();
+        }
+
+        for (Map.Entry<MimeMessage, EmailOutbox> entry : messages.entrySet()) {
+            Exception echec = echecs.get(entry.getKey());
+            if (echec == null) {
+                entry.getValue().marquerEnvoye();
+            } else {
+                entry.getValue().marquerEchec(echec.getMessage(), tentativesMax, delaiBaseSecondes);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(statut -> {
+            for (EmailOutbox email : lot) {
+                int enregistre = emailOutboxRepository.enregistrerResultat(email.getIdEmail(), email.getJetonReservation(),
+                    email.getStatut(), email.getTentatives(), email.getProchaineTentative(),
+                    email.getDerniereErreur(), email.getDateEnvoi());
+                if (enregistre == 0) {
+                    log.warn("Bail de l'email {} expiré pendant l'envoi, résultat non enregistré", email.getIdEmail());
+                }
+            }
+        });
+
+        for (EmailOutbox email : lot) {
+            if (email.getStatut() == EmailOutbox.StatutEmail.ECHEC_DEFINITIF) {
+                log.error("Email {} abandonné après {} tentatives pour {}: {}",
+                    email.getIdEmail(), email.getTentatives(), email.getDestinataire(), email.getDerniereErreur());
+            }
+        }
+        log.debug("Lot de {} email(s) traité", lot.size());
+    }
+
+    private MimeMessage construireMessage(EmailOutbox email) throws MessagingException, UnsupportedEncodingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, StandardCharsets.UTF_8.name());
+
+        helper.setFrom(fromEmail, "EcoDeli");
+        helper.setTo(email.getDestinataire());
+        helper.setSubject(email.getSujet());
+        helper.setText(email.getContenuHtml(), true);
+
+        return message;
+    }
+}
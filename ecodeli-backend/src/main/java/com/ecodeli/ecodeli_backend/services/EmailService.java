@@ -1,21 +1,14 @@
 package com.ecodeli.ecodeli_backend.services;
 
+import com.ecodeli.ecodeli_backend.models.EmailOutbox;
 import com.ecodeli.ecodeli_backend.models.Utilisateur;
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import com.ecodeli.ecodeli_backend.repositories.EmailOutboxRepository;
+import com.ecodeli.ecodeli_backend.services.template.TemplateService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
-import java.io.UnsupportedEncodingException;
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
@@ -27,12 +20,11 @@ public class EmailService {
     private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
 
     @Autowired
-    private JavaMailSender mailSender;
+    private EmailOutboxRepository emailOutboxRepository;
 
-    @Value("${MAIL_FROM}")
-    private String fromEmail;
+    @Autowired
+    private TemplateService templateService;
 
-    @Async
     public void sendWelcomeEmail(Utilisateur utilisateur) {
         try {
             logger.info("Envoi de l'email de bienvenue pour : {}", utilisateur.getEmail());
@@ -52,78 +44,28 @@ public class EmailService {
                 htmlContent
             );
 
-            logger.info("Email de bienvenue envoyé avec succès à : {}", utilisateur.getEmail());
+            logger.info("Email de bienvenue mis en file pour : {}", utilisateur.getEmail());
 
         } catch (Exception e) {
             logger.error("Erreur lors de l'envoi de l'email de bienvenue pour : {}", utilisateur.getEmail(), e);
         }
     }
 
-    public void sendHtmlEmail(String to, String subject, String htmlContent) throws MessagingException, UnsupportedEncodingException {
-        MimeMessage message = mailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(message, true, StandardCharsets.UTF_8.name());
-
-        helper.setFrom(fromEmail, "EcoDeli");
-        helper.setTo(to);
-        helper.setSubject(subject);
-        helper.setText(htmlContent, true);
-
-        mailSender.send(message);
+    /**
+     * Enregistre l'email dans EMAIL_OUTBOX, dans la transaction de l'appelant s'il y en a une.
+     * L'envoi SMTP est effectué ensuite par EmailOutboxService.
+     */
+    public void sendHtmlEmail(String to, String subject, String htmlContent) {
+        EmailOutbox email = new EmailOutbox();
+        email.setDestinataire(to);
+        email.setSujet(subject);
+        email.setContenuHtml(htmlContent);
+
+        emailOutboxRepository.save(email);
     }
 
-    private String loadWelcomeTemplate(Map<String, String> data) throws IOException {
-        ClassPathResource resource = new ClassPathResource("templates/welcome-email.html");
-        String template = new String(resource.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
-
-        for (Map.Entry<String, String> entry : data.entrySet()) {
-            template = template.replace("{{" + entry.getKey() + "}}", entry.getValue());
-        }
-
-        String roleFeatures = getRoleFeaturesHtml(data.get("role"));
-        template = template.replace("<!-- Contenu dynamique selon le rôle -->", roleFeatures);
-
-        return template;
-    }
-
-    private String getRoleFeaturesHtml(String role) {
-        Map<String, String[]> roleFeatures = new HashMap<>();
-
-        roleFeatures.put("CLIENT", new String[]{
-            "📦 Créer des demandes de livraison",
-            "👀 Voir les candidatures des livreurs",
-            "📊 Suivre vos commandes en temps réel",
-            "⭐ Évaluer les services reçus"
-        });
-
-        roleFeatures.put("LIVREUR", new String[]{
-            "🚚 Consulter les annonces disponibles",
-            "✋ Postuler pour des livraisons",
-            "📍 Gérer vos trajets et livraisons",
-            "💰 Suivre vos revenus"
-        });
-
-        roleFeatures.put("PRESTATAIRE", new String[]{
-            "🔧 Proposer vos services",
-            "📋 Gérer vos prestations",
-            "👥 Répondre aux demandes clients",
-            "📈 Développer votre activité"
-        });
-
-        roleFeatures.put("COMMERCANT", new String[]{
-            "🏪 Gérer votre boutique",
-            "📦 Organiser vos livraisons",
-            "🤝 Collaborer avec des livreurs",
-            "📊 Suivre vos ventes"
-        });
-
-        String[] features = roleFeatures.getOrDefault(role, new String[]{"🌱 Découvrir EcoDeli"});
-
-        StringBuilder html = new StringBuilder();
-        for (String feature : features) {
-            html.append("<li>").append(feature).append("</li>");
-        }
-
-        return html.toString();
+    private String loadWelcomeTemplate(Map<String, String> data) {
+        return templateService.rendreClasspath("templates/welcome-email.html", data);
     }
 
     private String getRoleDisplayName(String role) {
@@ -137,7 +79,6 @@ public class EmailService {
         return roleDisplayNames.getOrDefault(role, role);
     }
 
-    @Async
     public void sendCandidatureNotification(String clientEmail, String livreurNom, String annonceTitle) {
         try {
             String subject = "Nouvelle candidature reçue pour : " + annonceTitle;
@@ -149,14 +90,13 @@ public class EmailService {
             );
 
             sendHtmlEmail(clientEmail, subject, content);
-            logger.info("Email de notification candidature envoyé à : {}", clientEmail);
+            logger.info("Email de notification candidature mis en file pour : {}", clientEmail);
 
         } catch (Exception e) {
             logger.error("Erreur lors de l'envoi de la notification candidature", e);
         }
     }
 
-    @Async
     public void sendCandidaturePartielleNotification(String clientEmail, String livreurNom, String annonceTitle, String segment, String entrepot) {
         try {
             String subject = "🚚 Nouvelle candidature partielle - " + annonceTitle;
@@ -182,14 +122,13 @@ public class EmailService {
             );
 
             sendHtmlEmail(clientEmail, subject, content);
-            logger.info("Email de notification candidature partielle envoyé à : {}", clientEmail);
+            logger.info("Email de notification candidature partielle mis en file pour : {}", clientEmail);
 
         } catch (Exception e) {
             logger.error("Erreur lors de l'envoi de la notification candidature partielle", e);
         }
     }
 
-    @Async
     public void sendSegment2Notification(String livreurEmail, String annonceTitle, String entrepotVille) {
         try {
             String subject = "🚚 Segment 1 terminé - Vous pouvez démarrer !";
@@ -216,14 +155,13 @@ public class EmailService {
             );
 
             sendHtmlEmail(livreurEmail, subject, content);
-            logger.info("Email segment 2 ready envoyé à : {}", livreurEmail);
+            logger.info("Email segment 2 ready mis en file pour : {}", livreurEmail);
 
         } catch (Exception e) {
             logger.error("Erreur lors de l'envoi de la notification segment 2", e);
         }
     }
 
-    @Async
     public void sendDeliveryCode(String destinataireEmail, String code, String annonceTitle) {
         try {
             String subject = "Code de validation livraison - " + annonceTitle;
@@ -250,7 +188,6 @@ public class EmailService {
         }
     }
 
-    @Async
     public void sendDeliveryOTP(String destinataireEmail, String otp, String annonceTitle) {
         try {
             String subject = "Code OTP livraison - " + annonceTitle;
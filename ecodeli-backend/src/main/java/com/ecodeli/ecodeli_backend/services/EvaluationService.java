@@ -1,22 +1,39 @@
 package com.ecodeli.ecodeli_backend.services;
 
+import com.ecodeli.ecodeli_backend.dto.response.EvaluationItem;
 import com.ecodeli.ecodeli_backend.models.*;
 import com.ecodeli.ecodeli_backend.repositories.*;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
+@Slf4j
 public class EvaluationService {
 
+    private static final int TAILLE_PAGE_MAX = 100;
+
     @Autowired
     private EvaluationMissionRepository evaluationRepository;
 
+    @Autowired
+    private ResumeNotesPrestataireRepository resumeNotesRepository;
+
+    @Autowired
+    private ClassementPrestatairesService classementPrestatairesService;
+
     @Autowired
     private CandidatureRepository candidatureRepository;
 
@@ -71,6 +88,13 @@ public class EvaluationService {
         evaluation.setDateEvaluation(LocalDateTime.now());
         
         evaluation = evaluationRepository.save(evaluation);
+        resumeNotesRepository.ajouterEvaluation(
+            candidature.getPrestataire().getIdUtilisateur(),
+            noteGlobale, noteQualite, noteDelais, noteCommunication, noteProfessionnalisme);
+        
+        Integer prestataireId = candidature.getPrestataire().getIdUtilisateur();
+        ServiceType categorie = candidature.getPrestataire().getDomaineExpertise();
+        apresCommit(() -> classementPrestatairesService.enregistrerEvaluation(prestataireId, categorie, noteGlobale));
         
         Map<String, Object> paiementResult = null;
         try {
@@ -93,7 +117,7 @@ public class EvaluationService {
         
         Map<String, Object> result = new HashMap<>();
         result.put("success", true);
-        result.put("message", "Évaluation créée et mission payée avec succès");
+        result.put("message", "Évaluation créée, paiement de la mission en cours");
         result.put("evaluationId", evaluation.getIdEvaluation());
         result.put("noteGlobale", evaluation.getNoteGlobale());
         result.put("noteLabel", evaluation.getNoteGlobaleLabel());
@@ -103,6 +127,8 @@ public class EvaluationService {
             result.put("montantPaye", paiementResult.get("montantTotal"));
             result.put("montantPrestataire", paiementResult.get("montantPrestataire"));
             result.put("commissionEcodeli", paiementResult.get("commissionEcodeli"));
+            result.put("paiementTransactionId", paiementResult.get("transactionId"));
+            result.put("paiementStatut", paiementResult.get("statut"));
         } else {
             result.put("paiementEffectue", false);
             result.put("paiementError", paiementResult != null ? paiementResult.get("error") : "Erreur inconnue");
@@ -112,74 +138,83 @@ public class EvaluationService {
     }
 
     public Map<String, Object> getStatistiquesPrestataire(Integer prestataireId) {
-        Map<String, Object> stats = new HashMap<>();
-    
-        Double noteMoyenne = evaluationRepository.getNoteMoyenneByPrestataire(prestataireId);
-        stats.put("noteMoyenne", noteMoyenne != null ? Math.round(noteMoyenne * 10.0) / 10.0 : 0.0);
-        
-        Long totalEvaluations = evaluationRepository.countEvaluationsByPrestataire(prestataireId);
-        stats.put("totalEvaluations", totalEvaluations != null ? totalEvaluations : 0L);
+        ResumeNotesPrestataire resume = resumeNotesRepository.findById(prestataireId)
+            .orElseGet(ResumeNotesPrestataire::new);
         
-        Object[] notesCriteres = evaluationRepository.getNotesMoyennesCriteresByPrestataire(prestataireId);
-        if (notesCriteres != null && notesCriteres.length == 4) {
-            stats.put("noteQualite", notesCriteres[0] != null ? Math.round((Double)notesCriteres[0] * 10.0) / 10.0 : 0.0);
-            stats.put("noteDelais", notesCriteres[1] != null ? Math.round((Double)notesCriteres[1] * 10.0) / 10.0 : 0.0);
-            stats.put("noteCommunication", notesCriteres[2] != null ? Math.round((Double)notesCriteres[2] * 10.0) / 10.0 : 0.0);
-            stats.put("noteProfessionnalisme", notesCriteres[3] != null ? Math.round((Double)notesCriteres[3] * 10.0) / 10.0 : 0.0);
-        } else {
-            stats.put("noteQualite", 0.0);
-            stats.put("noteDelais", 0.0);
-            stats.put("noteCommunication", 0.0);
-            stats.put("noteProfessionnalisme", 0.0);
-        }
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("noteMoyenne", arrondir(resume.getMoyenneGlobale()));
+        stats.put("totalEvaluations", resume.getNombreEvaluations());
+        stats.put("noteQualite", arrondir(resume.getMoyenneQualite()));
+        stats.put("noteDelais", arrondir(resume.getMoyenneDelais()));
+        stats.put("noteCommunication", arrondir(resume.getMoyenneCommunication()));
+        stats.put("noteProfessionnalisme", arrondir(resume.getMoyenneProfessionnalisme()));
         
-        List<Object[]> repartitionNotes = evaluationRepository.getStatistiquesNotesGlobalesByPrestataire(prestataireId);
         Map<Integer, Long> repartition = new HashMap<>();
         for (int i = 1; i <= 5; i++) {
-            repartition.put(i, 0L);
-        }
-        for (Object[] row : repartitionNotes) {
-            Integer note = (Integer) row[0];
-            Long count = (Long) row[1];
-            repartition.put(note, count);
+            repartition.put(i, resume.getNombreNote(i));
         }
         stats.put("repartitionNotes", repartition);
         
         long evaluationsPositives = repartition.get(4) + repartition.get(5);
-        double pourcentagePositif = totalEvaluations > 0 ? 
-            (double) evaluationsPositives / totalEvaluations * 100 : 0.0;
-        stats.put("pourcentagePositif", Math.round(pourcentagePositif * 10.0) / 10.0);
+        double pourcentagePositif = resume.getNombreEvaluations() > 0 ? 
+            (double) evaluationsPositives / resume.getNombreEvaluations() * 100 : 0.0;
+        stats.put("pourcentagePositif", arrondir(pourcentagePositif));
         
         return stats;
     }
 
-    public List<Map<String, Object>> getDernieresEvaluationsAvecCommentaires(Integer prestataireId, int limit) {
-        List<EvaluationMission> evaluations = evaluationRepository
-            .findEvaluationsWithCommentsByPrestataire(prestataireId);
-        
-        return evaluations.stream()
-            .limit(limit)
-            .map(this::formatEvaluationForResponse)
-            .collect(Collectors.toList());
+    /**
+     * Recalcule les résumés de notes de tous les prestataires depuis EVALUATION_MISSION.
+     * Les évaluations sont d'abord verrouillées : creerEvaluation insère l'évaluation puis incrémente
+     * le résumé dans la même transaction, elle est donc soit entièrement comptée par le recalcul
+     * (validée avant le verrou), soit appliquée au résumé reconstruit (bloquée jusqu'au commit).
+     */
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public int reconstruireResumesNotes() {
+        evaluationRepository.verrouillerEvaluations();
+        resumeNotesRepository.viderResumes();
+        int resumes = resumeNotesRepository.recalculerResumes();
+        apresCommit(classementPrestatairesService::recharger);
+        return resumes;
     }
 
-    public List<Map<String, Object>> getEvaluationsPrestataire(Integer prestataireId) {
-        List<EvaluationMission> evaluations = evaluationRepository
-            .findByPrestataireIdUtilisateurOrderByDateEvaluationDesc(prestataireId);
-        
-        return evaluations.stream()
-            .map(this::formatEvaluationForResponse)
-            .collect(Collectors.toList());
+    /**
+     * Construit les résumés au premier démarrage si des évaluations existent déjà
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    @Transactional
+    public void initialiserResumesNotes() {
+        if (resumeNotesRepository.count() == 0 && evaluationRepository.count() > 0) {
+            int resumes = resumeNotesRepository.recalculerResumes();
+            log.info("Résumés de notes construits pour {} prestataire(s)", resumes);
+        }
     }
 
-    public Map<String, Object> getEvaluationByCandidature(Long candidatureId) {
-        Optional<EvaluationMission> evaluationOpt = evaluationRepository.findByCandidatureIdCandidature(candidatureId);
-        
-        if (evaluationOpt.isPresent()) {
-            return formatEvaluationForResponse(evaluationOpt.get());
-        }
-        
-        return null;
+    public List<EvaluationItem> getDernieresEvaluationsAvecCommentaires(Integer prestataireId, int limit) {
+        return evaluationRepository.findEvaluationItemsAvecCommentaires(prestataireId,
+            PageRequest.of(0, Math.min(Math.max(limit, 1), TAILLE_PAGE_MAX)));
+    }
+
+    public List<EvaluationItem> getEvaluationsPrestataire(Integer prestataireId) {
+        return evaluationRepository.findEvaluationItemsByPrestataire(prestataireId);
+    }
+
+    public EvaluationItem getEvaluationByCandidature(Long candidatureId) {
+        return evaluationRepository.findEvaluationItemByCandidature(candidatureId).orElse(null);
+    }
+
+    private void apresCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private double arrondir(double valeur) {
+        return Math.round(valeur * 10.0) / 10.0;
     }
 
     private void validerNotes(Integer... notes) {
@@ -190,44 +225,6 @@ public class EvaluationService {
         }
     }
 
-    private Map<String, Object> formatEvaluationForResponse(EvaluationMission evaluation) {
-        Map<String, Object> evalMap = new HashMap<>();
-        
-        evalMap.put("idEvaluation", evaluation.getIdEvaluation());
-        evalMap.put("noteGlobale", evaluation.getNoteGlobale());
-        evalMap.put("noteGlobaleLabel", evaluation.getNoteGlobaleLabel());
-        evalMap.put("noteQualite", evaluation.getNoteQualite());
-        evalMap.put("noteDelais", evaluation.getNoteDelais());
-        evalMap.put("noteCommunication", evaluation.getNoteCommunication());
-        evalMap.put("noteProfessionnalisme", evaluation.getNoteProfessionnalisme());
-        evalMap.put("commentaire", evaluation.getCommentaire());
-        evalMap.put("dateEvaluation", evaluation.getDateEvaluation());
-        evalMap.put("sentiment", evaluation.getSentiment());
-        
-        if (evaluation.getClient() != null) {
-            Map<String, Object> clientMap = new HashMap<>();
-            clientMap.put("prenom", evaluation.getClient().getPrenom());
-            clientMap.put("nom", evaluation.getClient().getNom());
-            String email = evaluation.getClient().getEmail();
-            if (email != null && email.contains("@")) {
-                String[] parts = email.split("@");
-                clientMap.put("emailMasque", parts[0].charAt(0) + "***@" + parts[1]);
-            }
-            evalMap.put("client", clientMap);
-        }
-        
-        if (evaluation.getCandidature() != null && evaluation.getCandidature().getDemandeService() != null) {
-            Map<String, Object> missionMap = new HashMap<>();
-            DemandeService demande = evaluation.getCandidature().getDemandeService();
-            missionMap.put("titre", demande.getTitre());
-            missionMap.put("description", demande.getDescription());
-            missionMap.put("categorieService", demande.getCategorieService().name());
-            evalMap.put("mission", missionMap);
-        }
-        
-        return evalMap;
-    }
-
     private void envoyerEmailNouvelleEvaluation(EvaluationMission evaluation) {
         try {
             String prestataireEmail = evaluation.getPrestataire().getEmail();
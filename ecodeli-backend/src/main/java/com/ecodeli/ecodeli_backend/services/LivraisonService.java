@@ -1,5 +1,6 @@
 package com.ecodeli.ecodeli_backend.services;
 
+import com.ecodeli.ecodeli_backend.dto.response.LivraisonAdminItem;
 import com.ecodeli.ecodeli_backend.exceptions.ResourceNotFoundException;
 import com.ecodeli.ecodeli_backend.models.Livraison;
 import com.ecodeli.ecodeli_backend.models.Livreur;
@@ -8,12 +9,19 @@ import com.ecodeli.ecodeli_backend.repositories.LivraisonRepository;
 import com.ecodeli.ecodeli_backend.repositories.LivreurRepository;
 import com.ecodeli.ecodeli_backend.repositories.UtilisateurRepository;
 import com.ecodeli.ecodeli_backend.repositories.AnnonceRepository;
+import com.ecodeli.ecodeli_backend.services.export.ExportCsvService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 
 @Service
 public class LivraisonService {
@@ -36,27 +44,26 @@ public class LivraisonService {
     @Autowired
     private PortefeuilleService portefeuilleService;
 
+    @Autowired
+    private ExportCsvService exportCsvService;
+
+    @Autowired
+    private LivraisonStatistiquesService livraisonStatistiquesService;
+
+    private static final int TAILLE_PAGE_MAX = 100;
+
+    private static final Set<String> CHAMPS_TRI_ADMIN = Set.of(
+        "idLivraison", "statut", "typeLivraison", "adresseEnvoi", "adresseDeLivraison", "prix", "dateDebut", "dateFin");
+
     private final Random random = new Random();
 
     public List<Livraison> getLivraisonsByLivreur(Integer livreurId) {
-        return livraisonRepository.findAll().stream()
-            .filter(livraison -> {
-                if (livraison.getTypeLivraison() == Livraison.TypeLivraison.DIRECTE) {
-                    return livraison.getAnnonce() != null &&
-                           livraison.getAnnonce().getLivreur() != null &&
-                           livraison.getAnnonce().getLivreur().getIdUtilisateur().equals(livreurId);
-                }
-
-                if (livraison.getTypeLivraison() == Livraison.TypeLivraison.PARTIELLE) {
-                    return (livraison.getLivreurSegment1() != null &&
-                            livraison.getLivreurSegment1().getIdUtilisateur().equals(livreurId)) ||
-                           (livraison.getLivreurSegment2() != null &&
-                            livraison.getLivreurSegment2().getIdUtilisateur().equals(livreurId));
-                }
+        return livraisonRepository.findAllByLivreur(livreurId);
+    }
 
-                return false;
-            })
-            .toList();
+    public Page<Livraison> getLivraisonsByLivreur(Integer livreurId, int page, int size) {
+        return livraisonRepository.findPageByLivreur(livreurId,
+            PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), TAILLE_PAGE_MAX)));
     }
 
     public void startLivraison(Integer livraisonId, Integer livreurId) {
@@ -67,6 +74,8 @@ public class LivraisonService {
             throw new RuntimeException("Vous ne pouvez pas démarrer cette livraison pour le moment");
         }
 
+        Livraison.StatutLivraison ancienStatut = livraison.getStatut();
+
         if (livraison.getTypeLivraison() == Livraison.TypeLivraison.DIRECTE) {
             if (livraison.getStatut() != Livraison.StatutLivraison.VALIDEE) {
                 throw new RuntimeException("Cette livraison ne peut pas être démarrée");
@@ -95,11 +104,13 @@ public class LivraisonService {
         }
 
         livraisonRepository.save(livraison);
+        livraisonStatistiquesService.enregistrerTransition(livraison, ancienStatut);
     }
 
     public void completeLivraison(Integer livraisonId, Integer livreurId) {
         Livraison livraison = livraisonRepository.findById(livraisonId)
             .orElseThrow(() -> new ResourceNotFoundException("Livraison non trouvée"));
+        Livraison.StatutLivraison ancienStatut = livraison.getStatut();
 
         if (livraison.getTypeLivraison() == Livraison.TypeLivraison.DIRECTE) {
             if (livraison.getStatut() != Livraison.StatutLivraison.EN_COURS) {
@@ -138,6 +149,7 @@ public class LivraisonService {
         }
 
         livraisonRepository.save(livraison);
+        livraisonStatistiquesService.enregistrerTransition(livraison, ancienStatut);
     }
 
     public boolean validateOTP(Integer livraisonId, String otp) {
@@ -162,6 +174,7 @@ public class LivraisonService {
         livraison.setOtpTimestamp(null);
 
         livraisonRepository.save(livraison);
+        livraisonStatistiquesService.enregistrerTransition(livraison, Livraison.StatutLivraison.ARRIVED);
 
         if (livraison.getAnnonce() != null) {
             Annonce annonce = livraison.getAnnonce();
@@ -274,6 +287,42 @@ public class LivraisonService {
         return livraisonRepository.findAll();
     }
 
+    /**
+     * Livraisons filtrées par statut et type. Un statut ou un type inconnu est ignoré.
+     */
+    public List<Livraison> getLivraisonsFiltrees(String statut, String type) {
+        return livraisonRepository.findByFiltres(parseEnum(Livraison.StatutLivraison.class, statut),
+            parseEnum(Livraison.TypeLivraison.class, type));
+    }
+
+    /**
+     * Tableau des livraisons du back office. Un statut ou un type inconnu est ignoré.
+     */
+    public Slice<LivraisonAdminItem> getLivraisonsAdmin(String statut, String type, String search,
+                                                       int page, int size, String tri, String sens) {
+        Sort ordre = Sort.by(Sort.Direction.DESC, "idLivraison");
+        if (tri != null && CHAMPS_TRI_ADMIN.contains(tri)) {
+            Sort.Direction direction = "asc".equalsIgnoreCase(sens) ? Sort.Direction.ASC : Sort.Direction.DESC;
+            ordre = Sort.by(direction, tri).and(Sort.by(Sort.Direction.DESC, "idLivraison"));
+        }
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), TAILLE_PAGE_MAX), ordre);
+
+        String motif = search != null && !search.isBlank() ? "%" + search.trim().toLowerCase() + "%" : null;
+        return livraisonRepository.findAdmin(parseEnum(Livraison.StatutLivraison.class, statut),
+            parseEnum(Livraison.TypeLivraison.class, type), motif, pageRequest);
+    }
+
+    private <E extends Enum<E>> E parseEnum(Class<E> type, String valeur) {
+        if (valeur == null || valeur.isEmpty()) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, valeur.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     public Livraison updateStatutLivraison(Integer livraisonId, Livraison.StatutLivraison nouveauStatut) {
         Livraison livraison = livraisonRepository.findById(livraisonId)
             .orElseThrow(() -> new ResourceNotFoundException("Livraison non trouvée"));
@@ -283,6 +332,7 @@ public class LivraisonService {
                                      livraison.getStatut() + " vers " + nouveauStatut);
         }
 
+        Livraison.StatutLivraison ancienStatut = livraison.getStatut();
         livraison.setStatut(nouveauStatut);
 
         switch (nouveauStatut) {
@@ -316,7 +366,9 @@ public class LivraisonService {
                 break;
         }
 
-        return livraisonRepository.save(livraison);
+        Livraison enregistree = livraisonRepository.save(livraison);
+        livraisonStatistiquesService.enregistrerTransition(enregistree, ancienStatut);
+        return enregistree;
     }
 
     public Livraison annulerLivraison(Integer livraisonId) {
@@ -356,4 +408,16 @@ public class LivraisonService {
             case ANNULEE -> newStatus == Livraison.StatutLivraison.VALIDEE;
         };
     }
+
+    /**
+     * Export CSV de toutes les livraisons, écrit en flux dans la réponse
+     */
+    public StreamingResponseBody exporterLivraisons(boolean gzip) {
+        return exportCsvService.exporter(
+            List.of("ID", "Annonce", "Type", "Statut", "Date Début", "Date Fin", "Adresse Envoi", "CP Envoi",
+                    "Adresse Livraison", "CP Livraison", "Prix", "Livreur Segment 1", "Livreur Segment 2", "Entrepôt"),
+            livraisonRepository::streamExport,
+            ligne -> ligne,
+            gzip);
+    }
 }
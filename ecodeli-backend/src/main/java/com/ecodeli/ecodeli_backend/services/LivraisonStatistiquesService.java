@@ -0,0 +1,212 @@
+package com.ecodeli.ecodeli_backend.services;
+
+import com.ecodeli.ecodeli_backend.models.Livraison;
+import com.ecodeli.ecodeli_backend.models.Livraison.StatutLivraison;
+import com.ecodeli.ecodeli_backend.models.Livraison.TypeLivraison;
+import com.ecodeli.ecodeli_backend.repositories.LivraisonRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistiques des livraisons, en deux modes :
+ * - exact : agrégats SQL (GROUP BY statut/type, somme des durées) ;
+ * - live : compteurs en mémoire, initialisés par ces agrégats puis mis à jour à chaque
+ *   création et changement de statut, et resynchronisés périodiquement.
+ *
+ * Chaque mise à jour incrémente une version : un recalcul exact lancé avant une mise à jour
+ * n'écrase pas les compteurs, pour ne pas perdre la transition.
+ */
+@Service
+@Slf4j
+public class LivraisonStatistiquesService {
+
+    private final LivraisonRepository livraisonRepository;
+    private final long resynchroMinutes;
+    private final ScheduledExecutorService resynchro;
+
+    private final long[] parStatut = new long[StatutLivraison.values().length];
+    private final long[] parType = new long[TypeLivraison.values().length];
+    private long revenusTermines;
+    private long nombreDurees;
+    private long sommeDureesSecondes;
+    private long version;
+    private LocalDateTime derniereSynchronisation;
+
+    private record StatistiquesExactes(long[] parStatut, long[] parType, long revenus, long nombreDurees, long sommeDurees) {
+    }
+
+    public LivraisonStatistiquesService(LivraisonRepository livraisonRepository,
+                                        @Value("${app.livraisons.stats.resynchro-minutes:10}") long resynchroMinutes) {
+        this.livraisonRepository = livraisonRepository;
+        this.resynchroMinutes = resynchroMinutes;
+        this.resynchro = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stats-livraisons");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void demarrer() {
+        synchroniser();
+        if (resynchroMinutes > 0) {
+            resynchro.scheduleWithFixedDelay(this::synchroniser, resynchroMinutes, resynchroMinutes, TimeUnit.MINUTES);
+        }
+    }
+
+    @PreDestroy
+    public void arreter() {
+        resynchro.shutdown();
+    }
+
+    /**
+     * Statistiques calculées en base ; les compteurs live en profitent pour se resynchroniser
+     */
+    public Map<String, Object> getStatistiquesExactes() {
+        StatistiquesExactes exactes = recalculer();
+        Map<String, Object> stats = formater(exactes.parStatut(), exactes.parType(), exactes.revenus(),
+            exactes.nombreDurees(), exactes.sommeDurees());
+        stats.put("mode", "exact");
+        return stats;
+    }
+
+    /**
+     * Statistiques tenues en mémoire, sans requête
+     */
+    public synchronized Map<String, Object> getStatistiquesLive() {
+        Map<String, Object> stats = formater(parStatut, parType, revenusTermines, nombreDurees, sommeDureesSecondes);
+        stats.put("mode", "live");
+        stats.put("derniereSynchronisation", derniereSynchronisation);
+        return stats;
+    }
+
+    /**
+     * À appeler après l'enregistrement d'une nouvelle livraison
+     */
+    public synchronized void enregistrerCreation(Livraison livraison) {
+        version++;
+        if (livraison.getStatut() != null) {
+            parStatut[livraison.getStatut().ordinal()]++;
+        }
+        if (livraison.getTypeLivraison() != null) {
+            parType[livraison.getTypeLivraison().ordinal()]++;
+        }
+        if (livraison.getStatut() == StatutLivraison.TERMINEE) {
+            compterTerminee(livraison);
+        }
+    }
+
+    /**
+     * À appeler après l'enregistrement d'un changement de statut
+     */
+    public synchronized void enregistrerTransition(Livraison livraison, StatutLivraison ancienStatut) {
+        StatutLivraison nouveauStatut = livraison.getStatut();
+        if (ancienStatut == nouveauStatut) {
+            return;
+        }
+        version++;
+        if (ancienStatut != null && parStatut[ancienStatut.ordinal()] > 0) {
+            parStatut[ancienStatut.ordinal()]--;
+        }
+        if (nouveauStatut != null) {
+            parStatut[nouveauStatut.ordinal()]++;
+        }
+        if (nouveauStatut == StatutLivraison.TERMINEE) {
+            compterTerminee(livraison);
+        }
+    }
+
+    private void synchroniser() {
+        try {
+            recalculer();
+        } catch (Exception e) {
+            log.error("Erreur lors de la synchronisation des statistiques de livraison: {}", e.getMessage());
+        }
+    }
+
+    private StatistiquesExactes recalculer() {
+        long versionLue;
+        synchronized (this) {
+            versionLue = version;
+        }
+        StatistiquesExactes exactes = calculer();
+        synchronized (this) {
+            if (version == versionLue) {
+                appliquer(exactes);
+            }
+        }
+        return exactes;
+    }
+
+    private StatistiquesExactes calculer() {
+        long[] statuts = new long[StatutLivraison.values().length];
+        long[] types = new long[TypeLivraison.values().length];
+        long revenus = 0;
+        for (Object[] ligne : livraisonRepository.countParStatutEtType()) {
+            long nombre = ((Number) ligne[2]).longValue();
+            if (ligne[0] != null) {
+                statuts[((StatutLivraison) ligne[0]).ordinal()] += nombre;
+            }
+            if (ligne[1] != null) {
+                types[((TypeLivraison) ligne[1]).ordinal()] += nombre;
+            }
+            revenus += ligne[3] != null ? ((Number) ligne[3]).longValue() : 0;
+        }
+
+        Object[] durees = livraisonRepository.sommeDureesTerminees().get(0);
+        return new StatistiquesExactes(statuts, types, revenus,
+            ((Number) durees[0]).longValue(), ((Number) durees[1]).longValue());
+    }
+
+    private void appliquer(StatistiquesExactes exactes) {
+        System.arraycopy(exactes.parStatut(), 0, parStatut, 0, parStatut.length);
+        System.arraycopy(exactes.parType(), 0, parType, 0, parType.length);
+        revenusTermines = exactes.revenus();
+        nombreDurees = exactes.nombreDurees();
+        sommeDureesSecondes = exactes.sommeDurees();
+        derniereSynchronisation = LocalDateTime.now();
+    }
+
+    private void compterTerminee(Livraison livraison) {
+        revenusTermines += livraison.getPrix() != null ? livraison.getPrix() : 0;
+        if (livraison.getDateDebut() != null && livraison.getDateFin() != null
+                && !livraison.getDateFin().isBefore(livraison.getDateDebut())) {
+            nombreDurees++;
+            sommeDureesSecondes += Duration.between(livraison.getDateDebut(), livraison.getDateFin()).getSeconds();
+        }
+    }
+
+    private Map<String, Object> formater(long[] statuts, long[] types, long revenus, long durees, long sommeDurees) {
+        Map<String, Object> stats = new HashMap<>();
+
+        long total = 0;
+        Map<String, Long> statutsMap = new HashMap<>();
+        for (StatutLivraison statut : StatutLivraison.values()) {
+            statutsMap.put(statut.name(), statuts[statut.ordinal()]);
+            total += statuts[statut.ordinal()];
+        }
+        Map<String, Long> typesMap = new HashMap<>();
+        for (TypeLivraison type : TypeLivraison.values()) {
+            typesMap.put(type.name(), types[type.ordinal()]);
+        }
+
+        stats.put("totalLivraisons", total);
+        stats.put("parStatut", statutsMap);
+        stats.put("parType", typesMap);
+        stats.put("revenusTotal", revenus);
+        stats.put("dureeMoyenneMinutes", durees > 0 ? Math.round(sommeDurees / 60.0 / durees * 10.0) / 10.0 : null);
+        return stats;
+    }
+}
@@ -1,5 +1,7 @@
 package com.ecodeli.ecodeli_backend.services;
 
+import com.ecodeli.ecodeli_backend.dto.response.MissionClientItem;
+import com.ecodeli.ecodeli_backend.dto.response.MissionPrestataireItem;
 import com.ecodeli.ecodeli_backend.models.*;
 import com.ecodeli.ecodeli_backend.repositories.*;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,7 +10,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 public class MissionService {
@@ -25,70 +26,11 @@ public class MissionService {
     @Autowired
     private EmailService emailService;
 
-    public List<Map<String, Object>> getMissionsByPrestataire(Integer prestataireId) {
-        List<Candidature> candidaturesAcceptees = candidatureRepository.findAcceptedByPrestataire(prestataireId);
-        
-        return candidaturesAcceptees.stream().map(candidature -> {
-            Map<String, Object> missionMap = new HashMap<>();
-            
-            missionMap.put("id", candidature.getIdCandidature());
-            missionMap.put("candidatureId", candidature.getIdCandidature());
-            
-            DemandeService demande = candidature.getDemandeService();
-            String statutMission = determinerStatutMission(demande.getStatut());
-            missionMap.put("statut", statutMission);
-            
-            missionMap.put("prixAccepte", candidature.getPrixPropose());
-            
-            missionMap.put("dateAcceptation", candidature.getDateReponse());
-            
-            if (demande.getStatut() == DemandeService.StatutDemande.EN_COURS) {
-                missionMap.put("dateDebut", candidature.getDateReponse());
-            }
-            
-            if (demande.getStatut() == DemandeService.StatutDemande.TERMINEE) {
-                missionMap.put("dateTerminaison", demande.getDateModification());
-            }
-            
-            if (demande != null) {
-                Map<String, Object> demandeMap = new HashMap<>();
-                demandeMap.put("idDemande", demande.getIdDemande());
-                demandeMap.put("titre", demande.getTitre());
-                demandeMap.put("description", demande.getDescription());
-                demandeMap.put("categorieService", demande.getCategorieService().name());
-                demandeMap.put("dateSouhaitee", demande.getDateSouhaitee());
-                demandeMap.put("adresseDepart", demande.getAdresseDepart());
-                demandeMap.put("adresseArrivee", demande.getAdresseArrivee());
-                demandeMap.put("creneauHoraire", demande.getCreneauHoraire());
-                
-                if (demande.getClient() != null) {
-                    Map<String, Object> clientMap = new HashMap<>();
-                    clientMap.put("idUtilisateur", demande.getClient().getIdUtilisateur());
-                    clientMap.put("prenom", demande.getClient().getPrenom());
-                    clientMap.put("nom", demande.getClient().getNom());
-                    clientMap.put("email", demande.getClient().getEmail());
-                    clientMap.put("telephone", demande.getClient().getTelephone());
-                    demandeMap.put("client", clientMap);
-                }
-                
-                missionMap.put("demandeService", demandeMap);
-            }
-            
-            return missionMap;
-        }).collect(Collectors.toList());
-    }
-
-    private String determinerStatutMission(DemandeService.StatutDemande statutDemande) {
-        switch (statutDemande) {
-            case PRESTATAIRE_SELECTIONNE:
-                return "PRESTATAIRE_SELECTIONNE";
-            case EN_COURS:
-                return "EN_COURS";
-            case TERMINEE:
-                return "TERMINEE";
-            default:
-                return "PRESTATAIRE_SELECTIONNE";
-        }
+    /**
+     * Missions d'un prestataire, construites directement par la requête
+     */
+    public List<MissionPrestataireItem> getMissionsByPrestataire(Integer prestataireId) {
+        return candidatureRepository.findMissionsPrestataire(prestataireId);
     }
 
     @Transactional
@@ -162,66 +104,15 @@ public class MissionService {
         return result;
     }
 
-    public Map<String, Object> getDetailsMission(Long missionId) {
-        Optional<Candidature> candidatureOpt = candidatureRepository.findById(missionId);
-        if (!candidatureOpt.isPresent()) {
-            return null;
-        }
-        
-        Candidature candidature = candidatureOpt.get();
-        List<Map<String, Object>> missions = getMissionsByPrestataire(candidature.getPrestataire().getIdUtilisateur());
-        
-        return missions.stream()
-            .filter(mission -> mission.get("id").equals(missionId))
-            .findFirst()
-            .orElse(null);
+    public MissionPrestataireItem getDetailsMission(Long missionId) {
+        return candidatureRepository.findMissionPrestataire(missionId).orElse(null);
     }
 
-    public List<Map<String, Object>> getMissionsByClient(Integer clientId) {
-        List<DemandeService> toutesDemandesClient = demandeServiceRepository.findByClientIdUtilisateur(clientId);
-        List<DemandeService> demandesAvecPrestataire = toutesDemandesClient.stream()
-            .filter(demande -> demande.getStatut() == DemandeService.StatutDemande.PRESTATAIRE_SELECTIONNE ||
-                              demande.getStatut() == DemandeService.StatutDemande.EN_COURS ||
-                              demande.getStatut() == DemandeService.StatutDemande.TERMINEE)
-            .collect(Collectors.toList());
-        
-        return demandesAvecPrestataire.stream().map(demande -> {
-            Map<String, Object> missionMap = new HashMap<>();
-            
-            Optional<Candidature> candidatureAcceptee = candidatureRepository
-                .findByDemandeServiceIdDemande(demande.getIdDemande().intValue())
-                .stream()
-                .filter(candidature -> candidature.getStatut() == Candidature.StatutCandidature.ACCEPTEE)
-                .findFirst();
-            
-            if (candidatureAcceptee.isPresent()) {
-                Candidature candidature = candidatureAcceptee.get();
-                
-                missionMap.put("id", candidature.getIdCandidature());
-                missionMap.put("statut", determinerStatutMission(demande.getStatut()));
-                missionMap.put("prixAccepte", candidature.getPrixPropose());
-                missionMap.put("dateAcceptation", candidature.getDateReponse());
-                
-                if (candidature.getPrestataire() != null) {
-                    Map<String, Object> prestataireMap = new HashMap<>();
-                    prestataireMap.put("idUtilisateur", candidature.getPrestataire().getIdUtilisateur());
-                    prestataireMap.put("prenom", candidature.getPrestataire().getPrenom());
-                    prestataireMap.put("nom", candidature.getPrestataire().getNom());
-                    prestataireMap.put("email", candidature.getPrestataire().getEmail());
-                    missionMap.put("prestataire", prestataireMap);
-                }
-                
-                Map<String, Object> demandeMap = new HashMap<>();
-                demandeMap.put("idDemande", demande.getIdDemande());
-                demandeMap.put("titre", demande.getTitre());
-                demandeMap.put("description", demande.getDescription());
-                demandeMap.put("dateSouhaitee", demande.getDateSouhaitee());
-                demandeMap.put("adresseDepart", demande.getAdresseDepart());
-                missionMap.put("demandeService", demandeMap);
-            }
-            
-            return missionMap;
-        }).collect(Collectors.toList());
+    /**
+     * Missions d'un client, construites directement par la requête
+     */
+    public List<MissionClientItem> getMissionsByClient(Integer clientId) {
+        return candidatureRepository.findMissionsClient(clientId);
     }
 
     @Transactional
@@ -1,17 +1,37 @@
 package com.ecodeli.ecodeli_backend.services;
 
+import com.ecodeli.ecodeli_backend.dto.response.PortefeuillePrestataireResume;
+import com.ecodeli.ecodeli_backend.dto.response.TransactionPortefeuilleItem;
 import com.ecodeli.ecodeli_backend.models.*;
 import com.ecodeli.ecodeli_backend.repositories.*;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Service
+@Slf4j
 public class PaiementFictifService {
 
     @Autowired
@@ -29,7 +49,31 @@ public class PaiementFictifService {
     @Autowired
     private EmailService emailService;
 
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate creationTemplate;
+
     private static final BigDecimal TAUX_COMMISSION = new BigDecimal("0.05");
+    private static final int MAX_TENTATIVES_VERROU = 3;
+
+    private final ScheduledThreadPoolExecutor executor;
+    private final long latencePaiementMs;
+    private final long latenceRetraitMs;
+
+    public PaiementFictifService(PlatformTransactionManager transactionManager,
+                                 @Value("${app.paiement.threads:2}") int threads,
+                                 @Value("${app.paiement.latence-mission-ms:1500}") long latencePaiementMs,
+                                 @Value("${app.paiement.latence-retrait-ms:2500}") long latenceRetraitMs) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.creationTemplate = new TransactionTemplate(transactionManager);
+        this.creationTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.latencePaiementMs = latencePaiementMs;
+        this.latenceRetraitMs = latenceRetraitMs;
+        this.executor = new ScheduledThreadPoolExecutor(threads, runnable -> {
+            Thread thread = new Thread(runnable, "traitement-paiement");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
 
 
     @Transactional
@@ -37,8 +81,6 @@ public class PaiementFictifService {
         Map<String, Object> result = new HashMap<>();
         
         try {
-            Thread.sleep(1500);
-            
             Optional<Candidature> candidatureOpt = candidatureRepository.findById(candidatureId);
             if (!candidatureOpt.isPresent()) {
                 throw new RuntimeException("Candidature non trouvée avec ID: " + candidatureId);
@@ -47,6 +89,15 @@ public class PaiementFictifService {
             Candidature candidature = candidatureOpt.get();
             Prestataire prestataire = candidature.getPrestataire();
             
+            Optional<TransactionPortefeuille> paiementExistant = transactionRepository.findByCandidatureId(candidatureId).stream()
+                .filter(t -> t.getTypeTransaction() == TransactionPortefeuille.TypeTransaction.CREDIT_MISSION &&
+                             t.getStatutTransaction() != TransactionPortefeuille.StatutTransaction.ECHOUE &&
+                             t.getStatutTransaction() != TransactionPortefeuille.StatutTransaction.ANNULE)
+                .findFirst();
+            if (paiementExistant.isPresent()) {
+                throw new RuntimeException("Un paiement a déjà été initié pour cette mission");
+            }
+            
             BigDecimal commissionEcodeli = montantTotal.multiply(TAUX_COMMISSION).setScale(2, RoundingMode.HALF_UP);
             BigDecimal montantPrestataire = montantTotal.subtract(commissionEcodeli);
             
@@ -58,9 +109,8 @@ public class PaiementFictifService {
             transaction.setTypeTransaction(TransactionPortefeuille.TypeTransaction.CREDIT_MISSION);
             transaction.setMontant(montantPrestataire);
             transaction.setCommissionEcodeli(commissionEcodeli);
-            transaction.setStatutTransaction(TransactionPortefeuille.StatutTransaction.EFFECTUE);
+            transaction.setStatutTransaction(TransactionPortefeuille.StatutTransaction.EN_ATTENTE);
             transaction.setDateTransaction(LocalDateTime.now());
-            transaction.setDateTraitement(LocalDateTime.now());
             transaction.setReferenceExterne(
                 TransactionPortefeuille.genererReference(
                     TransactionPortefeuille.TypeTransaction.CREDIT_MISSION,
@@ -74,24 +124,17 @@ public class PaiementFictifService {
             
             transaction = transactionRepository.save(transaction);
             
-            portefeuille.crediterMission(montantPrestataire);
-            portefeuille = portefeuilleRepository.save(portefeuille);
-            
-            envoyerEmailCreditMission(prestataire, montantPrestataire, descriptionMission);
+            planifierApresCommit(transaction.getIdTransaction(), latencePaiementMs);
             
             result.put("success", true);
-            result.put("message", "Paiement effectué avec succès");
+            result.put("message", "Paiement en cours de traitement");
             result.put("montantTotal", montantTotal);
             result.put("commissionEcodeli", commissionEcodeli);
             result.put("montantPrestataire", montantPrestataire);
-            result.put("nouveauSolde", portefeuille.getSoldeDisponible());
             result.put("transactionId", transaction.getIdTransaction());
             result.put("reference", transaction.getReferenceExterne());
+            result.put("statut", transaction.getStatutTransaction().name());
             
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            result.put("success", false);
-            result.put("error", "Interruption lors du traitement");
         } catch (Exception e) {
             System.err.println("Erreur simulation paiement: " + e.getMessage());
             result.put("success", false);
@@ -107,26 +150,27 @@ public class PaiementFictifService {
         Map<String, Object> result = new HashMap<>();
         
         try {
-            Thread.sleep(2500);
-            
             Optional<PortefeuillePrestataire> portefeuilleOpt = portefeuilleRepository.findByPrestataireIdUtilisateur(prestataireId);
             if (!portefeuilleOpt.isPresent()) {
                 throw new RuntimeException("Portefeuille non trouvé pour le prestataire ID: " + prestataireId);
             }
             
             PortefeuillePrestataire portefeuille = portefeuilleOpt.get();
+            Long portefeuilleId = portefeuille.getIdPortefeuille();
             
-            if (!portefeuille.peutRetirer(montantRetrait)) {
+            // Les fonds sont réservés immédiatement, seul le virement est traité en différé
+            if (portefeuilleRepository.debiterSiSoldeSuffisant(portefeuilleId, montantRetrait) == 0) {
                 throw new RuntimeException("Solde insuffisant pour effectuer ce retrait");
             }
             
+            portefeuille = portefeuilleRepository.findById(portefeuilleId).orElseThrow();
+            
             TransactionPortefeuille transaction = new TransactionPortefeuille();
             transaction.setPortefeuille(portefeuille);
             transaction.setTypeTransaction(TransactionPortefeuille.TypeTransaction.RETRAIT_PRESTATAIRE);
             transaction.setMontant(montantRetrait);
-            transaction.setStatutTransaction(TransactionPortefeuille.StatutTransaction.EFFECTUE);
+            transaction.setStatutTransaction(TransactionPortefeuille.StatutTransaction.EN_ATTENTE);
             transaction.setDateTransaction(LocalDateTime.now());
-            transaction.setDateTraitement(LocalDateTime.now());
             transaction.setIbanDestinataire(iban);
             transaction.setReferenceExterne(
                 TransactionPortefeuille.genererReference(
@@ -134,30 +178,23 @@ public class PaiementFictifService {
                     prestataireId.longValue()
                 )
             );
-            transaction.setDescription("Retrait vers " + masquerIban(iban));
+            transaction.setDescription("Retrait vers " + TransactionPortefeuille.masquerIban(iban));
             
             transaction = transactionRepository.save(transaction);
             
-            BigDecimal ancienSolde = portefeuille.getSoldeDisponible();
-            portefeuille.debiterRetrait(montantRetrait);
-            portefeuille = portefeuilleRepository.save(portefeuille);
-            
-            envoyerEmailRetraitEffectue(portefeuille.getPrestataire(), montantRetrait, iban);
+            planifierApresCommit(transaction.getIdTransaction(), latenceRetraitMs);
             
             result.put("success", true);
-            result.put("message", "Retrait effectué avec succès");
+            result.put("message", "Retrait en cours de traitement");
             result.put("montantRetrait", montantRetrait);
-            result.put("ancienSolde", ancienSolde);
+            result.put("ancienSolde", portefeuille.getSoldeDisponible().add(montantRetrait));
             result.put("nouveauSolde", portefeuille.getSoldeDisponible());
-            result.put("ibanDestination", masquerIban(iban));
+            result.put("ibanDestination", TransactionPortefeuille.masquerIban(iban));
             result.put("transactionId", transaction.getIdTransaction());
             result.put("reference", transaction.getReferenceExterne());
+            result.put("statut", transaction.getStatutTransaction().name());
             result.put("delaiVirement", "24-48h ouvrées");
             
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            result.put("success", false);
-            result.put("error", "Interruption lors du traitement");
         } catch (Exception e) {
             System.err.println("Erreur simulation retrait: " + e.getMessage());
             result.put("success", false);
@@ -168,41 +205,44 @@ public class PaiementFictifService {
     }
 
 
-    public Map<String, Object> getPortefeuillePrestataire(Integer prestataireId) {
-        PortefeuillePrestataire portefeuille = getOrCreatePortefeuille(prestataireId);
-        
-        Map<String, Object> result = new HashMap<>();
-        result.put("prestataireId", prestataireId);
-        result.put("soldeDisponible", portefeuille.getSoldeDisponible());
-        result.put("soldeEnAttente", portefeuille.getSoldeEnAttente());
-        result.put("soldeTotal", portefeuille.getSoldeTotal());
-        result.put("totalGagne", portefeuille.getTotalGagne());
-        result.put("totalRetire", portefeuille.getTotalRetire());
-        result.put("nombreTransactions", portefeuille.getNombreTransactions());
-        result.put("ibanMasque", portefeuille.getIbanMasque());
-        result.put("nomTitulaire", portefeuille.getNomTitulaire());
-        result.put("dateCreation", portefeuille.getDateCreation());
-        result.put("dateModification", portefeuille.getDateModification());
-        
-        return result;
+    /**
+     * Statut d'une transaction, interrogé par le client pendant le traitement
+     */
+    public TransactionPortefeuilleItem getStatutTransaction(Long transactionId) {
+        return transactionRepository.findItemById(transactionId)
+            .orElseThrow(() -> new RuntimeException("Transaction non trouvée avec ID: " + transactionId))
+            .avecTermine();
     }
 
 
-    public List<Map<String, Object>> getHistoriqueTransactions(Integer prestataireId, int limit) {
-        List<TransactionPortefeuille> transactions = transactionRepository.findByPrestataireIdOrderByDateDesc(prestataireId);
-        
-        return transactions.stream()
-            .limit(limit > 0 ? limit : transactions.size())
-            .map(this::formatTransactionForResponse)
-            .toList();
+    public PortefeuillePrestataireResume getPortefeuillePrestataire(Integer prestataireId) {
+        return PortefeuillePrestataireResume.depuis(prestataireId, getOrCreatePortefeuille(prestataireId));
+    }
+
+
+    public List<TransactionPortefeuilleItem> getHistoriqueTransactions(Integer prestataireId, int limit) {
+        return transactionRepository.findItemsByPrestataire(prestataireId,
+            limit > 0 ? PageRequest.of(0, limit) : Pageable.unpaged());
     }
 
 
-    @Transactional
     public Map<String, Object> updateInfosBancaires(Integer prestataireId, String iban, String nomTitulaire) {
-        PortefeuillePrestataire portefeuille = getOrCreatePortefeuille(prestataireId);
-        portefeuille.updateInfosBancaires(iban, nomTitulaire);
-        portefeuille = portefeuilleRepository.save(portefeuille);
+        PortefeuillePrestataire portefeuille = null;
+        
+        // Le portefeuille est versionné : on rejoue la mise à jour si un crédit/débit est passé entre-temps
+        for (int tentative = 1; portefeuille == null; tentative++) {
+            try {
+                portefeuille = transactionTemplate.execute(status -> {
+                    PortefeuillePrestataire p = getOrCreatePortefeuille(prestataireId);
+                    p.updateInfosBancaires(iban, nomTitulaire);
+                    return portefeuilleRepository.saveAndFlush(p);
+                });
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (tentative >= MAX_TENTATIVES_VERROU) {
+                    throw new RuntimeException("Portefeuille modifié simultanément, veuillez réessayer");
+                }
+            }
+        }
         
         Map<String, Object> result = new HashMap<>();
         result.put("success", true);
@@ -265,55 +305,152 @@ public class PaiementFictifService {
             return existant.get();
         }
         
-        Optional<Utilisateur> utilisateurOpt = utilisateurRepository.findById(prestataireId);
-        if (!utilisateurOpt.isPresent()) {
-            throw new RuntimeException("Prestataire non trouvé avec ID: " + prestataireId);
+        // Création dans sa propre transaction : en cas de création concurrente, la contrainte unique
+        // sur id_prestataire échoue sans compromettre la transaction appelante
+        try {
+            return creationTemplate.execute(status -> {
+                Optional<Utilisateur> utilisateurOpt = utilisateurRepository.findById(prestataireId);
+                if (!utilisateurOpt.isPresent()) {
+                    throw new RuntimeException("Prestataire non trouvé avec ID: " + prestataireId);
+                }
+                
+                Prestataire prestataire = (Prestataire) utilisateurOpt.get();
+                
+                PortefeuillePrestataire nouveauPortefeuille = new PortefeuillePrestataire();
+                nouveauPortefeuille.setPrestataire(prestataire);
+                nouveauPortefeuille.setIbanPrestataire("FR76 1234 5678 9012 3456 " + String.format("%03d", prestataireId));
+                nouveauPortefeuille.setNomTitulaire(prestataire.getPrenom() + " " + prestataire.getNom());
+                
+                return portefeuilleRepository.saveAndFlush(nouveauPortefeuille);
+            });
+        } catch (DataIntegrityViolationException e) {
+            return creationTemplate.execute(status -> portefeuilleRepository.findByPrestataireIdUtilisateur(prestataireId))
+                .orElseThrow(() -> e);
         }
-        
-        Prestataire prestataire = (Prestataire) utilisateurOpt.get();
-        
-        PortefeuillePrestataire nouveauPortefeuille = new PortefeuillePrestataire();
-        nouveauPortefeuille.setPrestataire(prestataire);
-        nouveauPortefeuille.setIbanPrestataire("FR76 1234 5678 9012 3456 " + String.format("%03d", prestataireId));
-        nouveauPortefeuille.setNomTitulaire(prestataire.getPrenom() + " " + prestataire.getNom());
-        
-        return portefeuilleRepository.save(nouveauPortefeuille);
     }
 
 
-    private Map<String, Object> formatTransactionForResponse(TransactionPortefeuille transaction) {
-        Map<String, Object> transactionMap = new HashMap<>();
+    /**
+     * Reprend au démarrage les transactions interrompues par un arrêt de l'application
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reprendreTransactionsEnCours() {
+        List<TransactionPortefeuille> enCours = transactionRepository.findByStatutTransactionIn(List.of(
+            TransactionPortefeuille.StatutTransaction.EN_ATTENTE,
+            TransactionPortefeuille.StatutTransaction.EN_COURS
+        ));
         
-        transactionMap.put("idTransaction", transaction.getIdTransaction());
-        transactionMap.put("type", transaction.getTypeTransaction().name());
-        transactionMap.put("typeLabel", transaction.getTypeTransaction().getLabel());
-        transactionMap.put("montant", transaction.getMontant());
-        transactionMap.put("statut", transaction.getStatutTransaction().name());
-        transactionMap.put("statutLabel", transaction.getStatutTransaction().getLabel());
-        transactionMap.put("description", transaction.getDescriptionComplete());
-        transactionMap.put("dateTransaction", transaction.getDateTransaction());
-        transactionMap.put("dateTraitement", transaction.getDateTraitement());
-        transactionMap.put("reference", transaction.getReferenceExterne());
-        transactionMap.put("isCredit", transaction.isCredit());
-        transactionMap.put("isDebit", transaction.isDebit());
-        
-        if (transaction.getCandidature() != null && transaction.getCandidature().getDemandeService() != null) {
-            transactionMap.put("missionTitre", transaction.getCandidature().getDemandeService().getTitre());
+        for (TransactionPortefeuille transaction : enCours) {
+            if (transaction.getStatutTransaction() == TransactionPortefeuille.StatutTransaction.EN_COURS) {
+                planifierFinalisation(transaction.getIdTransaction(), 0);
+            } else {
+                planifierTraitement(transaction.getIdTransaction(), latencePour(transaction));
+            }
         }
         
-        if (transaction.getIbanDestinataire() != null) {
-            transactionMap.put("ibanDestination", masquerIban(transaction.getIbanDestinataire()));
+        if (!enCours.isEmpty()) {
+            log.info("{} transaction(s) de portefeuille reprise(s) au démarrage", enCours.size());
+        }
+    }
+
+
+    @PreDestroy
+    public void arreter() {
+        executor.shutdown();
+    }
+
+
+    private long latencePour(TransactionPortefeuille transaction) {
+        return transaction.getTypeTransaction() == TransactionPortefeuille.TypeTransaction.RETRAIT_PRESTATAIRE
+            ? latenceRetraitMs : latencePaiementMs;
+    }
+
+
+    private void planifierApresCommit(Long transactionId, long latenceMs) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            planifierTraitement(transactionId, latenceMs);
+            return;
         }
         
-        return transactionMap;
+        // Le worker ne doit voir la transaction qu'une fois celle-ci validée en base
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                planifierTraitement(transactionId, latenceMs);
+            }
+        });
+    }
+
+
+    private void planifierTraitement(Long transactionId, long latenceMs) {
+        try {
+            executor.execute(() -> demarrerTraitement(transactionId, latenceMs));
+        } catch (RejectedExecutionException e) {
+            log.warn("Traitement de la transaction {} refusé, reprise au prochain démarrage", transactionId);
+        }
     }
 
 
-    private String masquerIban(String iban) {
-        if (iban == null || iban.length() < 8) {
-            return iban;
+    private void planifierFinalisation(Long transactionId, long latenceMs) {
+        try {
+            executor.schedule(() -> finaliserTransaction(transactionId), latenceMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.warn("Finalisation de la transaction {} refusée, reprise au prochain démarrage", transactionId);
         }
-        return iban.substring(0, 4) + " ****" + iban.substring(iban.length() - 4);
+    }
+
+
+    private void demarrerTraitement(Long transactionId, long latenceMs) {
+        try {
+            Integer misesAJour = transactionTemplate.execute(status -> transactionRepository.changerStatut(
+                transactionId,
+                TransactionPortefeuille.StatutTransaction.EN_ATTENTE,
+                TransactionPortefeuille.StatutTransaction.EN_COURS
+            ));
+            
+            // La latence simulée s'écoule dans le planificateur, sans thread ni connexion bloqués
+            if (misesAJour != null && misesAJour > 0) {
+                planifierFinalisation(transactionId, latenceMs);
+            }
+        } catch (Exception e) {
+            log.error("Démarrage du traitement de la transaction {} impossible: {}", transactionId, e.getMessage());
+        }
+    }
+
+
+    private void finaliserTransaction(Long transactionId) {
+        TransactionPortefeuille transaction;
+        try {
+            transaction = transactionTemplate.execute(status -> {
+                if (transactionRepository.marquerEffectueeSiEnCours(transactionId, LocalDateTime.now()) == 0) {
+                    return null;
+                }
+                
+                TransactionPortefeuille t = transactionRepository.findById(transactionId).orElseThrow();
+                if (t.isCredit()) {
+                    portefeuilleRepository.crediter(t.getPortefeuille().getIdPortefeuille(), t.getMontant());
+                }
+                return t;
+            });
+        } catch (Exception e) {
+            log.error("Finalisation de la transaction {} impossible: {}", transactionId, e.getMessage());
+            return;
+        }
+        
+        if (transaction == null) {
+            return;
+        }
+        
+        Prestataire prestataire = transaction.getPortefeuille().getPrestataire();
+        if (transaction.getTypeTransaction() == TransactionPortefeuille.TypeTransaction.CREDIT_MISSION) {
+            String descriptionMission = transaction.getCandidature() != null && transaction.getCandidature().getDemandeService() != null ?
+                transaction.getCandidature().getDemandeService().getTitre() : "Mission";
+            envoyerEmailCreditMission(prestataire, transaction.getMontant(), descriptionMission);
+        } else if (transaction.getTypeTransaction() == TransactionPortefeuille.TypeTransaction.RETRAIT_PRESTATAIRE) {
+            envoyerEmailRetraitEffectue(prestataire, transaction.getMontant(), transaction.getIbanDestinataire());
+        }
+        
+        log.info("Transaction {} effectuée ({} {}€)", transactionId, transaction.getTypeTransaction(), transaction.getMontant());
     }
 
 
@@ -369,7 +506,7 @@ public class PaiementFictifService {
                 "<p>L'équipe EcoDeli</p>",
                 prestataire.getPrenom(),
                 montant,
-                masquerIban(iban)
+                TransactionPortefeuille.masquerIban(iban)
             );
             
             emailService.sendHtmlEmail(prestataire.getEmail(), subject, body);
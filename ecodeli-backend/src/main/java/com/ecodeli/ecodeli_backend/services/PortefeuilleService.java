@@ -2,8 +2,10 @@ package com.ecodeli.ecodeli_backend.services;
 
 import com.ecodeli.ecodeli_backend.models.Livreur;
 import com.ecodeli.ecodeli_backend.models.Retrait;
+import com.ecodeli.ecodeli_backend.models.TransactionLivreur;
 import com.ecodeli.ecodeli_backend.repositories.LivreurRepository;
 import com.ecodeli.ecodeli_backend.repositories.RetraitRepository;
+import com.ecodeli.ecodeli_backend.repositories.TransactionLivreurRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -19,38 +21,38 @@ public class PortefeuilleService {
 
     private final LivreurRepository livreurRepository;
     private final RetraitRepository retraitRepository;
+    private final TransactionLivreurRepository transactionLivreurRepository;
 
     private static final BigDecimal COMMISSION_ECODELI = BigDecimal.valueOf(0.10);
 
     @Transactional
     public void ajouterGains(Integer livreurId, BigDecimal montantTotal) {
-        Livreur livreur = livreurRepository.findById(livreurId)
-            .orElseThrow(() -> new RuntimeException("Livreur non trouvé"));
-
         BigDecimal montantLivreur = montantTotal.multiply(BigDecimal.ONE.subtract(COMMISSION_ECODELI));
+        BigDecimal commission = montantTotal.subtract(montantLivreur);
 
-        livreur.setSoldePortefeuille(livreur.getSoldePortefeuille().add(montantLivreur));
-        livreur.setTotalGagnes(livreur.getTotalGagnes().add(montantLivreur));
+        if (livreurRepository.crediterSolde(livreurId, montantLivreur) == 0) {
+            throw new RuntimeException("Livreur non trouvé");
+        }
 
-        livreurRepository.save(livreur);
+        enregistrerTransaction(livreurId, TransactionLivreur.TypeTransaction.CREDIT_LIVRAISON, montantLivreur, commission);
 
         log.info("Gains ajoutés pour livreur {}: {}€ (commission EcoDeli: {}€)",
-                livreurId, montantLivreur, montantTotal.multiply(COMMISSION_ECODELI));
+                livreurId, montantLivreur, commission);
     }
 
     @Transactional
     public boolean traiterRetrait(Integer livreurId, BigDecimal montant, String iban) {
-        Livreur livreur = livreurRepository.findById(livreurId)
-            .orElseThrow(() -> new RuntimeException("Livreur non trouvé"));
+        if (!livreurRepository.existsById(livreurId)) {
+            throw new RuntimeException("Livreur non trouvé");
+        }
 
-        if (livreur.getSoldePortefeuille().compareTo(montant) < 0) {
-            log.warn("Solde insuffisant pour livreur {}: demandé {}€, disponible {}€",
-                    livreurId, montant, livreur.getSoldePortefeuille());
+        if (livreurRepository.debiterSoldeSiSuffisant(livreurId, montant) == 0) {
+            log.warn("Solde insuffisant pour livreur {}: demandé {}€", livreurId, montant);
             return false;
         }
 
         Retrait retrait = new Retrait();
-        retrait.setLivreur(livreur);
+        retrait.setLivreur(livreurRepository.getReferenceById(livreurId));
         retrait.setMontant(montant);
         retrait.setIban(iban);
         retrait.setStatut(Retrait.StatutRetrait.TRAITE);
@@ -58,15 +60,25 @@ public class PortefeuilleService {
 
         retraitRepository.save(retrait);
 
-        livreur.setSoldePortefeuille(livreur.getSoldePortefeuille().subtract(montant));
-        livreur.setIbanLivreur(iban);
-        livreurRepository.save(livreur);
+        enregistrerTransaction(livreurId, TransactionLivreur.TypeTransaction.RETRAIT, montant, BigDecimal.ZERO);
+        livreurRepository.updateIban(livreurId, iban);
 
         log.info("Retrait traité pour livreur {}: {}€ vers IBAN {}",
                 livreurId, montant, iban.substring(0, 8) + "****");
         return true;
     }
 
+    private void enregistrerTransaction(Integer livreurId, TransactionLivreur.TypeTransaction type,
+                                        BigDecimal montant, BigDecimal commission) {
+        TransactionLivreur transaction = new TransactionLivreur();
+        transaction.setLivreur(livreurRepository.getReferenceById(livreurId));
+        transaction.setTypeTransaction(type);
+        transaction.setMontant(montant);
+        transaction.setCommissionEcodeli(commission);
+        transaction.setReferenceExterne(TransactionLivreur.genererReference(type, livreurId));
+        transactionLivreurRepository.save(transaction);
+    }
+
     public List<Retrait> getHistoriqueRetraits(Integer livreurId) {
         return retraitRepository.findByLivreurIdUtilisateurOrderByDateDemandeDesc(livreurId);
     }
@@ -7,7 +7,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -17,9 +17,11 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
 
 @Service
 public class PrestataireService {
@@ -42,6 +44,15 @@ public class PrestataireService {
     @Value("${app.upload.dir:uploads/justificatifs}")
     private String uploadDir;
 
+    @Value("${app.demandes.comptage.ttl-secondes:30}")
+    private long comptageTtlSecondes;
+
+    private static final int TAILLE_PAGE_MAX = 100;
+    private static final int COMPTAGES_MAX = 1000;
+
+    // signature des filtres -> {total, expiration en ms}
+    private final Map<String, long[]> comptagesDemandes = new ConcurrentHashMap<>();
+
 
     public Prestataire getPrestataireById(Integer id) {
         Optional<Utilisateur> utilisateur = utilisateurRepository.findById(id);
@@ -65,30 +76,17 @@ public class PrestataireService {
     }
 
 
-    public List<DemandeService> getDemandesDisponibles(Integer prestataireId) {
-        Prestataire prestataire = getPrestataireById(prestataireId);
-        
+    /**
+     * Demandes publiées dans les catégories validées du prestataire, auxquelles il n'a pas encore candidaté
+     */
+    public Page<DemandeService> getDemandesDisponibles(Integer prestataireId, int page, int size) {
         if (!isPrestataireValide(prestataireId)) {
-            return new ArrayList<>();
+            return Page.empty();
         }
         
-        List<DemandeService> demandesPubliees = demandeServiceRepository.findByStatut(DemandeService.StatutDemande.PUBLIEE);
-        
-        ServiceType domaineExpertise = prestataire.getDomaineExpertise();
-        if (domaineExpertise == null) {
-            return new ArrayList<>();
-        }
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), TAILLE_PAGE_MAX));
         
-        return demandesPubliees.stream()
-            .filter(demande -> {
-                return demande.getCategorieService() != null &&
-                       demande.getCategorieService() == domaineExpertise;
-            })
-            .filter(demande -> {
-                return !candidatureRepository.existsByPrestataireAndDemande(prestataireId, demande.getIdDemande());
-            })
-            .sorted((d1, d2) -> d2.getDateCreation().compareTo(d1.getDateCreation()))
-            .collect(Collectors.toList());
+        return demandeServiceRepository.findDisponiblesPourPrestataire(prestataireId, pageable);
     }
 
 
@@ -318,27 +316,63 @@ public class PrestataireService {
 
     public Page<DemandeService> getDemandesPaginated(Integer prestataireId, int page, int size,
                                                    String search, String dateMin, String dateMax, String localisation) {
-        Prestataire prestataire = getPrestataireById(prestataireId);
-        
         if (!isPrestataireValide(prestataireId)) {
             return Page.empty();
         }
         
-        ServiceType domaineExpertise = prestataire.getDomaineExpertise();
-        if (domaineExpertise == null) {
-            return Page.empty();
-        }
-        
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "dateCreation"));
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), TAILLE_PAGE_MAX));
+        String recherche = texteOuNull(search);
+        String lieu = texteOuNull(localisation);
+        LocalDateTime debut = parseDateFiltre(dateMin, false);
+        LocalDateTime fin = parseDateFiltre(dateMax, true);
         
-        Page<DemandeService> demandes = demandeServiceRepository.findPublishedByCategorieWithFilters(
-            domaineExpertise, search, localisation, pageable);
+        List<DemandeService> demandes = demandeServiceRepository.findDisponiblesAvecFiltres(
+            prestataireId, recherche, lieu, debut, fin, pageable);
         
-        List<DemandeService> demandesFiltered = demandes.getContent().stream()
-            .filter(demande -> !candidatureRepository.existsByPrestataireAndDemande(prestataireId, demande.getIdDemande()))
-            .collect(Collectors.toList());
+        // Le total n'est compté que s'il ne se déduit pas de la page, et réutilisé quelques secondes
+        String signature = prestataireId + "|" + recherche + "|" + lieu + "|" + debut + "|" + fin;
+        return PageableExecutionUtils.getPage(demandes, pageable, () -> compterDemandesDisponibles(signature,
+            () -> demandeServiceRepository.countDisponiblesAvecFiltres(prestataireId, recherche, lieu, debut, fin)));
+    }
+
+
+    private long compterDemandesDisponibles(String signature, LongSupplier comptage) {
+        long maintenant = System.currentTimeMillis();
+        long[] enCache = comptagesDemandes.get(signature);
+        if (enCache != null && enCache[1] > maintenant) {
+            return enCache[0];
+        }
         
-        return new org.springframework.data.domain.PageImpl<>(demandesFiltered, pageable, demandesFiltered.size());
+        long total = comptage.getAsLong();
+        if (comptagesDemandes.size() >= COMPTAGES_MAX) {
+            comptagesDemandes.entrySet().removeIf(entry -> entry.getValue()[1] <= maintenant);
+            if (comptagesDemandes.size() >= COMPTAGES_MAX) {
+                comptagesDemandes.clear();
+            }
+        }
+        comptagesDemandes.put(signature, new long[]{total, maintenant + comptageTtlSecondes * 1000});
+        return total;
+    }
+
+
+    private String texteOuNull(String valeur) {
+        return valeur == null || valeur.isBlank() ? null : valeur.trim();
+    }
+
+
+    /**
+     * Accepte une date (yyyy-MM-dd) ou une date-heure ISO ; une date de fin inclut toute la journée
+     */
+    private LocalDateTime parseDateFiltre(String valeur, boolean borneFin) {
+        String texte = texteOuNull(valeur);
+        if (texte == null) {
+            return null;
+        }
+        if (texte.contains("T")) {
+            return LocalDateTime.parse(texte);
+        }
+        LocalDate date = LocalDate.parse(texte);
+        return borneFin ? date.plusDays(1).atStartOfDay() : date.atStartOfDay();
     }
 
 
@@ -1,107 +1,147 @@
 package com.ecodeli.ecodeli_backend.services;
 
-import com.ecodeli.ecodeli_backend.models.*;
-import com.ecodeli.ecodeli_backend.repositories.*;
+import com.ecodeli.ecodeli_backend.exceptions.ResourceNotFoundException;
+import com.ecodeli.ecodeli_backend.exceptions.ValidationException;
+import com.ecodeli.ecodeli_backend.models.ServiceType;
+import com.ecodeli.ecodeli_backend.repositories.CandidatureRepository;
+import com.ecodeli.ecodeli_backend.repositories.PrestataireCategorieRepository;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
 
+/**
+ * Calcul du prix des missions (tarif horaire × durée) à partir d'un instantané des tarifs en mémoire :
+ * une map immuable (prestataire, catégorie) → tarif, reconstruite à chaque modification d'un tarif.
+ * Le chiffrage de N candidatures coûte ainsi une seule requête, quel que soit N.
+ */
 @Service
+@Slf4j
 public class PrixCalculService {
 
+    public static final int TAILLE_LOT_MAX = 100;
+
+    private static final BigDecimal TARIF_PAR_DEFAUT = new BigDecimal("25.00");
+    private static final BigDecimal DUREE_PAR_DEFAUT = new BigDecimal("1.0"); // 1h par défaut
+
+    private record CleTarif(Integer prestataireId, ServiceType categorie) {}
+
+    public record DevisMission(Long candidatureId, BigDecimal prixTotal, BigDecimal tarifHoraire,
+                               BigDecimal dureeEstimee, ServiceType categorie, String calculMethode,
+                               String prestataireNom) {
+
+        public Map<String, Object> versMap() {
+            Map<String, Object> details = new HashMap<>();
+            details.put("prixTotal", prixTotal);
+            details.put("tarifHoraire", tarifHoraire);
+            details.put("dureeEstimee", dureeEstimee);
+            details.put("categorie", categorie != null ? categorie.toString() : null);
+            details.put("calculMethode", calculMethode);
+            details.put("prestataireNom", prestataireNom);
+            return details;
+        }
+    }
+
     @Autowired
     private CandidatureRepository candidatureRepository;
 
     @Autowired
     private PrestataireCategorieRepository prestataireCategorieRepository;
 
-    public BigDecimal calculerPrixMission(Long candidatureId) {
-        try {
-            Optional<Candidature> candidatureOpt = candidatureRepository.findById(candidatureId);
-            if (!candidatureOpt.isPresent()) {
-                throw new RuntimeException("Candidature non trouvée: " + candidatureId);
-            }
-            
-            Candidature candidature = candidatureOpt.get();
-            Prestataire prestataire = candidature.getPrestataire();
-            DemandeService demande = candidature.getDemandeService();
-            
-            if (prestataire == null || demande == null) {
-                throw new RuntimeException("Données candidature incomplètes");
-            }
-            
-            ServiceType categorieService = demande.getCategorieService();
-            Optional<PrestataireCategorie> categorieOpt = prestataireCategorieRepository
-                .findByPrestataireIdUtilisateurAndCategorieService(prestataire.getIdUtilisateur(), categorieService);
-            
-            if (!categorieOpt.isPresent()) {
-                System.err.println("Aucun tarif trouvé pour prestataire " + prestataire.getIdUtilisateur() +
-                                 " catégorie " + categorieService);
-                return new BigDecimal("25.00");
+    private volatile Map<CleTarif, BigDecimal> tarifs;
+
+    /**
+     * Reconstruit l'instantané des tarifs (à appeler après chaque modification d'un tarif)
+     */
+    public synchronized void rechargerTarifs() {
+        Map<CleTarif, BigDecimal> nouveaux = new HashMap<>();
+        for (Object[] ligne : prestataireCategorieRepository.findTarifsDefinis()) {
+            nouveaux.put(new CleTarif((Integer) ligne[0], (ServiceType) ligne[1]),
+                BigDecimal.valueOf((Double) ligne[2]));
+        }
+        tarifs = Map.copyOf(nouveaux);
+        log.debug("Instantané des tarifs reconstruit: {} tarif(s)", nouveaux.size());
+    }
+
+    /**
+     * Chiffrer plusieurs candidatures en une seule requête ; les candidatures inconnues sont ignorées
+     */
+    public Map<Long, DevisMission> quote(List<Long> candidatureIds) {
+        if (candidatureIds.size() > TAILLE_LOT_MAX) {
+            throw new ValidationException("Au plus " + TAILLE_LOT_MAX + " candidatures par demande de prix");
+        }
+        if (candidatureIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Set<Long> ids = new LinkedHashSet<>(candidatureIds);
+        Map<CleTarif, BigDecimal> instantane = getTarifs();
+        Map<Long, DevisMission> parCandidature = new HashMap<>();
+        for (Object[] ligne : candidatureRepository.findElementsDevis(ids)) {
+            parCandidature.put((Long) ligne[0], chiffrer(instantane, ligne));
+        }
+
+        // Même ordre que la demande
+        Map<Long, DevisMission> devis = new LinkedHashMap<>();
+        for (Long id : ids) {
+            DevisMission d = parCandidature.get(id);
+            if (d != null) {
+                devis.put(id, d);
             }
-            
-            PrestataireCategorie categorie = categorieOpt.get();
-            BigDecimal tarifHoraire = BigDecimal.valueOf(categorie.getTarifHoraire() != null ? categorie.getTarifHoraire() : 25.0);
-            
-            BigDecimal dureeHeures = new BigDecimal("1.0"); // 1h par défaut
-            
-            BigDecimal prixCalcule = tarifHoraire.multiply(dureeHeures)
-                .setScale(2, RoundingMode.HALF_UP);
-            
-            return prixCalcule;
-            
-        } catch (Exception e) {
-            System.err.println("Erreur calcul prix mission: " + e.getMessage());
-            e.printStackTrace();
-            return new BigDecimal("25.00");
         }
+        return devis;
+    }
+
+    public BigDecimal calculerPrixMission(Long candidatureId) {
+        DevisMission devis = quote(List.of(candidatureId)).get(candidatureId);
+        if (devis == null) {
+            throw new ResourceNotFoundException("Candidature non trouvée: " + candidatureId);
+        }
+        return devis.prixTotal();
     }
 
     public Map<String, Object> getDetailsPrix(Long candidatureId) {
-        Map<String, Object> details = new HashMap<>();
-        
-        try {
-            BigDecimal prixCalcule = calculerPrixMission(candidatureId);
-            
-            Optional<Candidature> candidatureOpt = candidatureRepository.findById(candidatureId);
-            if (candidatureOpt.isPresent()) {
-                Candidature candidature = candidatureOpt.get();
-                Prestataire prestataire = candidature.getPrestataire();
-                DemandeService demande = candidature.getDemandeService();
-                
-                ServiceType categorieService = demande.getCategorieService();
-                Optional<PrestataireCategorie> categorieOpt = prestataireCategorieRepository
-                    .findByPrestataireIdUtilisateurAndCategorieService(prestataire.getIdUtilisateur(), categorieService);
-                
-                if (categorieOpt.isPresent()) {
-                    PrestataireCategorie categorie = categorieOpt.get();
-                    
-                    details.put("prixTotal", prixCalcule);
-                    details.put("tarifHoraire", BigDecimal.valueOf(categorie.getTarifHoraire() != null ? categorie.getTarifHoraire() : 25.0));
-                    details.put("dureeEstimee", new BigDecimal("1.0"));
-                    details.put("categorie", categorieService.toString());
-                    details.put("calculMethode", "tarif_x_duree");
-                    details.put("prestataireNom", prestataire.getPrenom() + " " + prestataire.getNom());
-                } else {
-                    details.put("prixTotal", prixCalcule);
-                    details.put("tarifHoraire", new BigDecimal("25.00"));
-                    details.put("dureeEstimee", new BigDecimal("1.0"));
-                    details.put("categorie", categorieService.toString());
-                    details.put("calculMethode", "fallback");
+        DevisMission devis = quote(List.of(candidatureId)).get(candidatureId);
+        return devis != null ? devis.versMap() : new HashMap<>();
+    }
+
+    // ligne : [idCandidature, idPrestataire, prenom, nom, categorieService]
+    private DevisMission chiffrer(Map<CleTarif, BigDecimal> instantane, Object[] ligne) {
+        Long candidatureId = (Long) ligne[0];
+        Integer prestataireId = (Integer) ligne[1];
+        ServiceType categorie = (ServiceType) ligne[4];
+        String prestataireNom = ligne[2] + " " + ligne[3];
+
+        BigDecimal tarifHoraire = instantane.get(new CleTarif(prestataireId, categorie));
+        String methode = "tarif_x_duree";
+        if (tarifHoraire == null) {
+            log.warn("Aucun tarif trouvé pour prestataire {} catégorie {}, tarif par défaut appliqué", prestataireId, categorie);
+            tarifHoraire = TARIF_PAR_DEFAUT;
+            methode = "fallback";
+        }
+
+        BigDecimal prixTotal = tarifHoraire.multiply(DUREE_PAR_DEFAUT).setScale(2, RoundingMode.HALF_UP);
+        return new DevisMission(candidatureId, prixTotal, tarifHoraire, DUREE_PAR_DEFAUT, categorie, methode, prestataireNom);
+    }
+
+    private Map<CleTarif, BigDecimal> getTarifs() {
+        Map<CleTarif, BigDecimal> instantane = tarifs;
+        if (instantane == null) {
+            synchronized (this) {
+                if (tarifs == null) {
+                    rechargerTarifs();
                 }
+                instantane = tarifs;
             }
-            
-        } catch (Exception e) {
-            System.err.println("Erreur détails prix: " + e.getMessage());
-            details.put("prixTotal", new BigDecimal("25.00"));
-            details.put("calculMethode", "erreur");
         }
-        
-        return details;
+        return instantane;
     }
-}
\ No newline at end of file
+}
@@ -1,25 +1,57 @@
 package com.ecodeli.ecodeli_backend.services;
 
 import com.ecodeli.ecodeli_backend.exceptions.ResourceNotFoundException;
-import com.ecodeli.ecodeli_backend.models.Utilisateur;
+import com.ecodeli.ecodeli_backend.models.*;
 import com.ecodeli.ecodeli_backend.repositories.UtilisateurRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class UserService {
 
+    private static final int TAILLE_PAGE_MAX = 100;
+
+    private static final Map<String, Class<? extends Utilisateur>> TYPES_UTILISATEUR = Map.of(
+        "CLIENT", Client.class,
+        "LIVREUR", Livreur.class,
+        "COMMERCANT", Commercant.class,
+        "PRESTATAIRE", Prestataire.class,
+        "ADMIN", Admin.class
+    );
+
     @Autowired
     private UtilisateurRepository utilisateurRepository;
 
+    // Comptages par type mis en cache jusqu'à la prochaine inscription ou suppression
+    private record ComptagesParType(long version, Map<String, Long> valeurs) {}
+
+    private volatile ComptagesParType comptagesParType;
+    private final AtomicLong versionComptages = new AtomicLong();
+
     public List<Utilisateur> getAllUsers() {
         return utilisateurRepository.findAll();
     }
 
     public List<Utilisateur> getUsersByType(String type) {
-        return utilisateurRepository.findAll();
+        return utilisateurRepository.findByType(resoudreType(type));
+    }
+
+    public Page<Utilisateur> getUsersPaginated(String type, int page, int size) {
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), TAILLE_PAGE_MAX),
+            Sort.by("idUtilisateur"));
+        if (type == null || type.isEmpty()) {
+            return utilisateurRepository.findAll(pageRequest);
+        }
+        return utilisateurRepository.findPageByType(resoudreType(type), pageRequest);
     }
 
     public Utilisateur getUserById(Integer id) {
@@ -57,10 +89,51 @@ public class UserService {
             throw new ResourceNotFoundException("Utilisateur non trouvé avec l'ID: " + id);
         }
         utilisateurRepository.deleteById(id);
+        invaliderComptages();
     }
 
     public Long getUserCountByType(String type) {
-        return (long) utilisateurRepository.findAll().size();
+        resoudreType(type);
+        return getUserCountsByType().getOrDefault(type.toUpperCase(), 0L);
+    }
+
+    /**
+     * Nombre d'utilisateurs par type, chaque type étant présent même sans utilisateur
+     */
+    public Map<String, Long> getUserCountsByType() {
+        long version = versionComptages.get();
+        ComptagesParType enCache = comptagesParType;
+        if (enCache != null && enCache.version() == version) {
+            return enCache.valeurs();
+        }
+
+        Map<String, Long> calcul = new LinkedHashMap<>();
+        for (String type : List.of("CLIENT", "LIVREUR", "COMMERCANT", "PRESTATAIRE", "ADMIN")) {
+            calcul.put(type, 0L);
+        }
+        for (Object[] ligne : utilisateurRepository.countParType()) {
+            calcul.put((String) ligne[0], ((Number) ligne[1]).longValue());
+        }
+        Map<String, Long> comptages = Collections.unmodifiableMap(calcul);
+
+        // Un comptage concurrent à une invalidation porte l'ancienne version et sera recalculé
+        comptagesParType = new ComptagesParType(version, comptages);
+        return comptages;
+    }
+
+    /**
+     * À appeler après chaque inscription ou suppression d'utilisateur
+     */
+    public void invaliderComptages() {
+        versionComptages.incrementAndGet();
+    }
+
+    private Class<? extends Utilisateur> resoudreType(String type) {
+        Class<? extends Utilisateur> classe = type != null ? TYPES_UTILISATEUR.get(type.toUpperCase()) : null;
+        if (classe == null) {
+            throw new RuntimeException("Type d'utilisateur invalide: " + type);
+        }
+        return classe;
     }
 
     public boolean emailExists(String email) {
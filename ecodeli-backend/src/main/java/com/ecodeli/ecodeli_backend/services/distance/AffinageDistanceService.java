@@ -0,0 +1,73 @@
+package com.ecodeli.ecodeli_backend.services.distance;
+
+import com.ecodeli.ecodeli_backend.repositories.AnnonceRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+/**
+ * Affine en arrière-plan le prix d'une annonce publiée avec l'estimation locale,
+ * à partir de la distance routière du fournisseur distant.
+ */
+@Service
+@Slf4j
+public class AffinageDistanceService {
+
+    private final DistanceService distanceService;
+    private final AnnonceRepository annonceRepository;
+    private final ThreadPoolExecutor executor;
+
+    public AffinageDistanceService(DistanceService distanceService,
+                                   AnnonceRepository annonceRepository,
+                                   @Value("${app.distance.affinage.threads:2}") int threads,
+                                   @Value("${app.distance.affinage.file-max:1000}") int fileMax) {
+        this.distanceService = distanceService;
+        this.annonceRepository = annonceRepository;
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(fileMax),
+            runnable -> {
+                Thread thread = new Thread(runnable, "affinage-distance");
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public void planifierAffinagePrix(Integer annonceId, String adresseDepart, String adresseFin, UnaryOperator<BigDecimal> calculPrix) {
+        try {
+            executor.execute(() -> affinerPrix(annonceId, adresseDepart, adresseFin, calculPrix));
+        } catch (RejectedExecutionException e) {
+            log.warn("File d'affinage saturée, prix estimé conservé pour l'annonce {}", annonceId);
+        }
+    }
+
+    private void affinerPrix(Integer annonceId, String adresseDepart, String adresseFin, UnaryOperator<BigDecimal> calculPrix) {
+        try {
+            Optional<BigDecimal> resolue = distanceService.resoudreDistance(adresseDepart, adresseFin);
+            if (resolue.isEmpty()) {
+                return;
+            }
+
+            BigDecimal distance = resolue.get();
+            BigDecimal prix = calculPrix.apply(distance);
+            int misesAJour = annonceRepository.updatePrixSiPubliee(annonceId, prix);
+            log.debug("Prix de l'annonce {} affiné à {}€ ({} km, {} ligne(s))", annonceId, prix, distance, misesAJour);
+        } catch (Exception e) {
+            log.warn("Affinage du prix de l'annonce {} impossible: {}", annonceId, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void arreter() {
+        executor.shutdown();
+    }
+}
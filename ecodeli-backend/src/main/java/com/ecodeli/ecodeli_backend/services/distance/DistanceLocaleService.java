@@ -0,0 +1,143 @@
+package com.ecodeli.ecodeli_backend.services.distance;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Estimation de distance hors ligne : géocodage par le gazetteer embarqué
+ * (codes postaux et villes françaises) puis distance orthodromique corrigée
+ * d'un facteur routier. Sert aux devis instantanés, le fournisseur distant
+ * affinant ensuite le prix.
+ */
+@Service
+@Slf4j
+public class DistanceLocaleService {
+
+    private static final double RAYON_TERRE_KM = 6371.0088;
+    private static final Pattern CODE_POSTAL = Pattern.compile("\\b(\\d{5})\\b");
+
+    private final double facteurRoute;
+
+    // Tableaux parallèles triés par code postal, parcourus par recherche dichotomique
+    private int[] codesPostaux = new int[0];
+    private double[] latitudes = new double[0];
+    private double[] longitudes = new double[0];
+    private final Map<String, Integer> indexParVille = new HashMap<>();
+
+    public DistanceLocaleService(@Value("${app.distance.locale.gazetteer:geo/gazetteer-fr.csv}") String gazetteer,
+                                 @Value("${app.distance.locale.facteur-route:1.3}") double facteurRoute) {
+        this.facteurRoute = facteurRoute;
+        charger(gazetteer);
+    }
+
+    public Optional<BigDecimal> estimerDistanceKm(String adresseDepart, String adresseFin) {
+        int depart = localiser(adresseDepart);
+        int fin = localiser(adresseFin);
+        // Même entrée du gazetteer aux deux bouts : la distance réelle n'est pas estimable localement
+        if (depart < 0 || fin < 0 || depart == fin) {
+            return Optional.empty();
+        }
+
+        double distance = haversineKm(latitudes[depart], longitudes[depart], latitudes[fin], longitudes[fin]) * facteurRoute;
+        return Optional.of(BigDecimal.valueOf(distance).setScale(2, RoundingMode.HALF_UP));
+    }
+
+    /**
+     * Index du gazetteer correspondant à l'adresse, -1 si elle n'est pas localisable.
+     */
+    int localiser(String adresse) {
+        if (adresse == null || adresse.isBlank()) {
+            return -1;
+        }
+
+        Matcher matcher = CODE_POSTAL.matcher(adresse);
+        while (matcher.find()) {
+            int index = indexParCodePostal(Integer.parseInt(matcher.group(1)));
+            if (index >= 0) {
+                return index;
+            }
+        }
+
+        String[] parties = adresse.split(",");
+        for (int i = parties.length - 1; i >= 0; i--) {
+            String ville = DistanceService.normaliser(parties[i].replaceAll("\\d", ""));
+            Integer index = indexParVille.get(ville);
+            if (index != null) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Code exact uniquement : un code voisin désigne une autre commune.
+     */
+    private int indexParCodePostal(int codePostal) {
+        int position = Arrays.binarySearch(codesPostaux, codePostal);
+        return position >= 0 ? position : -1;
+    }
+
+    static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+            + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+            * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * RAYON_TERRE_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    private void charger(String gazetteer) {
+        ClassPathResource resource = new ClassPathResource(gazetteer);
+        if (!resource.exists()) {
+            log.warn("Gazetteer {} introuvable, estimation locale des distances désactivée", gazetteer);
+            return;
+        }
+
+        List<String[]> lignes = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String ligne = reader.readLine(); // en-tête
+            while ((ligne = reader.readLine()) != null) {
+                String[] champs = ligne.split(";");
+                if (champs.length == 4) {
+                    lignes.add(champs);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Lecture du gazetteer {} impossible: {}", gazetteer, e.getMessage());
+            return;
+        }
+
+        lignes.sort((a, b) -> Integer.compare(Integer.parseInt(a[0]), Integer.parseInt(b[0])));
+
+        codesPostaux = new int[lignes.size()];
+        latitudes = new double[lignes.size()];
+        longitudes = new double[lignes.size()];
+        for (int i = 0; i < lignes.size(); i++) {
+            String[] champs = lignes.get(i);
+            codesPostaux[i] = Integer.parseInt(champs[0]);
+            latitudes[i] = Double.parseDouble(champs[2]);
+            longitudes[i] = Double.parseDouble(champs[3]);
+            indexParVille.putIfAbsent(DistanceService.normaliser(champs[1]), i);
+        }
+
+        log.info("Gazetteer chargé: {} codes postaux", codesPostaux.length);
+    }
+}
@@ -0,0 +1,18 @@
+package com.ecodeli.ecodeli_backend.services.distance;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * Source de distances routières. Une seule implémentation est active,
+ * choisie par la propriété {@code app.distance.provider}.
+ */
+public interface DistanceProvider {
+
+    /**
+     * Distance en kilomètres entre deux adresses, vide si le fournisseur ne sait pas la résoudre.
+     */
+    Optional<BigDecimal> calculerDistanceKm(String origine, String destination);
+
+    String getNom();
+}
@@ -0,0 +1,162 @@
+package com.ecodeli.ecodeli_backend.services.distance;
+
+import com.ecodeli.ecodeli_backend.models.DistanceTrajet;
+import com.ecodeli.ecodeli_backend.repositories.DistanceTrajetRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Résolution des distances entre adresses : cache mémoire LRU avec TTL, coalescence
+ * des demandes identiques simultanées, table DISTANCE_TRAJET persistante, puis
+ * appel au {@link DistanceProvider} actif en dernier recours.
+ */
+@Service
+@Slf4j
+public class DistanceService {
+
+    public static final BigDecimal DISTANCE_PAR_DEFAUT = new BigDecimal("10.00");
+
+    private final DistanceProvider distanceProvider;
+    private final DistanceTrajetRepository distanceTrajetRepository;
+    private final long ttlMillis;
+    private final Map<String, EntreeCache> cache;
+    private final ConcurrentHashMap<String, CompletableFuture<Optional<BigDecimal>>> resolutionsEnCours = new ConcurrentHashMap<>();
+
+    public DistanceService(DistanceProvider distanceProvider,
+                           DistanceTrajetRepository distanceTrajetRepository,
+                           @Value("${app.distance.cache.taille-max:10000}") int tailleMax,
+                           @Value("${app.distance.cache.ttl-minutes:1440}") long ttlMinutes) {
+        this.distanceProvider = distanceProvider;
+        this.distanceTrajetRepository = distanceTrajetRepository;
+        this.ttlMillis = ttlMinutes * 60_000L;
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, EntreeCache> eldest) {
+                return size() > tailleMax;
+            }
+        };
+    }
+
+    /**
+     * Distance entre deux adresses, ou DISTANCE_PAR_DEFAUT si elle n'a pas pu être résolue
+     */
+    public BigDecimal calculerDistance(String adresseDepart, String adresseFin) {
+        return resoudreDistance(adresseDepart, adresseFin).orElse(DISTANCE_PAR_DEFAUT);
+    }
+
+    /**
+     * Distance entre deux adresses ; vide si elle n'a pas pu être résolue (adresse manquante,
+     * trajet inconnu du fournisseur ou erreur)
+     */
+    public Optional<BigDecimal> resoudreDistance(String adresseDepart, String adresseFin) {
+        if (adresseDepart == null || adresseDepart.isBlank() || adresseFin == null || adresseFin.isBlank()) {
+            return Optional.empty();
+        }
+
+        String origine = normaliser(adresseDepart);
+        String destination = normaliser(adresseFin);
+        String cle = origine + "|" + destination;
+
+        BigDecimal enCache = lireCache(cle);
+        if (enCache != null) {
+            return Optional.of(enCache);
+        }
+
+        CompletableFuture<Optional<BigDecimal>> resolution = new CompletableFuture<>();
+        CompletableFuture<Optional<BigDecimal>> existante = resolutionsEnCours.putIfAbsent(cle, resolution);
+        if (existante != null) {
+            return existante.exceptionally(e -> Optional.empty()).join();
+        }
+
+        try {
+            Optional<BigDecimal> distance = resoudre(cle, origine, destination, adresseDepart, adresseFin);
+            resolution.complete(distance);
+            return distance;
+        } catch (RuntimeException e) {
+            log.warn("Résolution de distance impossible pour {} -> {}: {}", adresseDepart, adresseFin, e.getMessage());
+            resolution.complete(Optional.empty());
+            return Optional.empty();
+        } finally {
+            resolutionsEnCours.remove(cle, resolution);
+        }
+    }
+
+    private Optional<BigDecimal> resoudre(String cle, String origine, String destination,
+                                          String adresseDepart, String adresseFin) {
+        BigDecimal enCache = lireCache(cle);
+        if (enCache != null) {
+            return Optional.of(enCache);
+        }
+
+        Optional<DistanceTrajet> connu = distanceTrajetRepository.findByOrigineAndDestination(origine, destination);
+        if (connu.isPresent()) {
+            ecrireCache(cle, connu.get().getDistanceKm());
+            return Optional.of(connu.get().getDistanceKm());
+        }
+
+        Optional<BigDecimal> distance = distanceProvider.calculerDistanceKm(adresseDepart, adresseFin);
+        if (distance.isEmpty()) {
+            log.warn("Distance introuvable via {} pour {} -> {}", distanceProvider.getNom(), adresseDepart, adresseFin);
+            return Optional.empty();
+        }
+
+        enregistrer(origine, destination, distance.get());
+        ecrireCache(cle, distance.get());
+        return distance;
+    }
+
+    private void enregistrer(String origine, String destination, BigDecimal distanceKm) {
+        DistanceTrajet trajet = new DistanceTrajet();
+        trajet.setOrigine(origine);
+        trajet.setDestination(destination);
+        trajet.setDistanceKm(distanceKm);
+        trajet.setFournisseur(distanceProvider.getNom());
+
+        try {
+            distanceTrajetRepository.save(trajet);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Trajet {} -> {} déjà enregistré par une autre instance", origine, destination);
+        }
+    }
+
+    private BigDecimal lireCache(String cle) {
+        synchronized (cache) {
+            EntreeCache entree = cache.get(cle);
+            if (entree == null) {
+                return null;
+            }
+            if (entree.expiration() < System.currentTimeMillis()) {
+                cache.remove(cle);
+                return null;
+            }
+            return entree.distanceKm();
+        }
+    }
+
+    private void ecrireCache(String cle, BigDecimal distanceKm) {
+        synchronized (cache) {
+            cache.put(cle, new EntreeCache(distanceKm, System.currentTimeMillis() + ttlMillis));
+        }
+    }
+
+    static String normaliser(String adresse) {
+        String sansAccents = Normalizer.normalize(adresse, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        String normalisee = sansAccents.toLowerCase(Locale.ROOT)
+            .replaceAll("[^a-z0-9]+", " ")
+            .trim();
+        return normalisee.length() > 255 ? normalisee.substring(0, 255) : normalisee;
+    }
+
+    private record EntreeCache(BigDecimal distanceKm, long expiration) {}
+}
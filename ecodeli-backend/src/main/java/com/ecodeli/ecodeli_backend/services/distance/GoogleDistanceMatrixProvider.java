@@ -0,0 +1,56 @@
+package com.ecodeli.ecodeli_backend.services.distance;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Component
+@ConditionalOnProperty(name = "app.distance.provider", havingValue = "google", matchIfMissing = true)
+public class GoogleDistanceMatrixProvider implements DistanceProvider {
+
+    @Value("${GOOGLE_MAPS_API_KEY}")
+    private String googleMapsApiKey;
+
+    private final RestTemplate restTemplate = new RestTemplate();
+
+    @Override
+    public Optional<BigDecimal> calculerDistanceKm(String origine, String destination) {
+        String url = String.format(
+            "https://maps.googleapis.com/maps/api/distancematrix/json?origins=%s&destinations=%s&units=metric&key=%s",
+            origine.replace(" ", "+"),
+            destination.replace(" ", "+"),
+            googleMapsApiKey
+        );
+
+        Map<String, Object> response = restTemplate.getForObject(url, Map.class);
+
+        if (response != null && "OK".equals(response.get("status"))) {
+            List<Map<String, Object>> rows = (List<Map<String, Object>>) response.get("rows");
+            if (!rows.isEmpty()) {
+                List<Map<String, Object>> elements = (List<Map<String, Object>>) rows.get(0).get("elements");
+                if (!elements.isEmpty()) {
+                    Map<String, Object> element = elements.get(0);
+                    if ("OK".equals(element.get("status"))) {
+                        Map<String, Object> distance = (Map<String, Object>) element.get("distance");
+                        Integer distanceInMeters = (Integer) distance.get("value");
+
+                        return Optional.of(new BigDecimal(distanceInMeters).divide(new BigDecimal("1000"), 2, RoundingMode.HALF_UP));
+                    }
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public String getNom() {
+        return "google";
+    }
+}
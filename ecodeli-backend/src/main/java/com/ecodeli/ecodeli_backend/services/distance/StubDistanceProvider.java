@@ -0,0 +1,35 @@
+package com.ecodeli.ecodeli_backend.services.distance;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Optional;
+
+/**
+ * Fournisseur local sans réseau pour les tests et les tirs de charge :
+ * distance déterministe dérivée du couple d'adresses.
+ */
+@Component
+@ConditionalOnProperty(name = "app.distance.provider", havingValue = "stub")
+public class StubDistanceProvider implements DistanceProvider {
+
+    private static final int DISTANCE_MIN_KM = 2;
+    private static final int AMPLITUDE_KM = 800;
+
+    @Override
+    public Optional<BigDecimal> calculerDistanceKm(String origine, String destination) {
+        if (origine.equals(destination)) {
+            return Optional.of(BigDecimal.ZERO.setScale(2));
+        }
+
+        int hash = Math.floorMod((origine + "|" + destination).hashCode(), AMPLITUDE_KM * 100);
+        return Optional.of(BigDecimal.valueOf(DISTANCE_MIN_KM * 100L + hash, 2).setScale(2, RoundingMode.HALF_UP));
+    }
+
+    @Override
+    public String getNom() {
+        return "stub";
+    }
+}
@@ -0,0 +1,116 @@
+package com.ecodeli.ecodeli_backend.services.export;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports CSV écrits directement dans la réponse HTTP au fil de la lecture des lignes.
+ * La source est un Stream de repository (curseur JDBC avec fetch size) ouvert dans une
+ * transaction en lecture seule le temps de l'écriture ; rien n'est chargé en entier en mémoire.
+ */
+@Service
+public class ExportCsvService {
+
+    private static final int TAILLE_TAMPON = 16 * 1024;
+
+    private final TransactionTemplate lectureSeule;
+
+    public ExportCsvService(PlatformTransactionManager transactionManager) {
+        this.lectureSeule = new TransactionTemplate(transactionManager);
+        this.lectureSeule.setReadOnly(true);
+    }
+
+    /**
+     * Corps de réponse qui écrit l'entête puis une ligne CSV par élément de la source
+     */
+    public <T> StreamingResponseBody exporter(List<String> entetes, Supplier<Stream<T>> source,
+                                              Function<T, Object[]> ligne, boolean gzip) {
+        return sortie -> {
+            OutputStream flux = gzip ? new GZIPOutputStream(sortie, TAILLE_TAMPON) : sortie;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(flux, StandardCharsets.UTF_8), TAILLE_TAMPON);
+
+            ecrireLigne(writer, entetes.toArray());
+            try {
+                lectureSeule.executeWithoutResult(statut -> {
+                    try (Stream<T> lignes = source.get()) {
+                        lignes.forEach(element -> ecrireLigne(writer, ligne.apply(element)));
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                // Client déconnecté en cours d'export
+                throw e.getCause();
+            }
+            writer.flush();
+            if (flux instanceof GZIPOutputStream gzipStream) {
+                gzipStream.finish();
+            }
+        };
+    }
+
+    /**
+     * Réponse de téléchargement : fichier .csv, ou .csv.gz si gzip est demandé
+     */
+    public ResponseEntity<StreamingResponseBody> telecharger(String prefixeFichier, boolean gzip, StreamingResponseBody corps) {
+        String nomFichier = prefixeFichier + "_" + LocalDate.now() + (gzip ? ".csv.gz" : ".csv");
+        MediaType type = gzip ? MediaType.parseMediaType("application/gzip") : new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+        return ResponseEntity.ok()
+                .contentType(type)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + nomFichier)
+                .body(corps);
+    }
+
+    private void ecrireLigne(Writer writer, Object[] valeurs) {
+        try {
+            for (int i = 0; i < valeurs.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(echapper(formater(valeurs[i])));
+            }
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String formater(Object valeur) {
+        if (valeur == null) {
+            return "";
+        }
+        if (valeur instanceof BigDecimal montant) {
+            return montant.toPlainString();
+        }
+        if (valeur instanceof Enum<?> enumeration) {
+            return enumeration.name();
+        }
+        return valeur.toString();
+    }
+
+    private String echapper(String valeur) {
+        if (valeur.indexOf(',') >= 0 || valeur.indexOf('"') >= 0 || valeur.indexOf('\n') >= 0 || valeur.indexOf('\r') >= 0) {
+            return "\"" + valeur.replace("\"", "\"\"") + "\"";
+        }
+        return valeur;
+    }
+}
@@ -0,0 +1,104 @@
+package com.ecodeli.ecodeli_backend.services.template;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Template découpé une fois pour toutes en segments : littéraux et emplacements {{NOM}}.
+ * Le rendu parcourt les segments en une seule passe, sans rechercher les balises.
+ * Les templates produisent du HTML et les valeurs viennent des utilisateurs (commerçants,
+ * inscrits) : elles sont échappées à l'écriture, les littéraux du template restant tels quels.
+ */
+public final class TemplateCompile {
+
+    private static final String OUVERTURE = "{{";
+    private static final String FERMETURE = "}}";
+
+    // literaux[i] précède emplacements[i] ; le dernier littéral suit le dernier emplacement
+    private final String[] literaux;
+    private final String[] emplacements;
+    private final int tailleLiteraux;
+
+    private TemplateCompile(String[] literaux, String[] emplacements) {
+        this.literaux = literaux;
+        this.emplacements = emplacements;
+        int taille = 0;
+        for (String literal : literaux) {
+            taille += literal.length();
+        }
+        this.tailleLiteraux = taille;
+    }
+
+    public static TemplateCompile compiler(String source) {
+        List<String> literaux = new ArrayList<>();
+        List<String> emplacements = new ArrayList<>();
+
+        int position = 0;
+        while (true) {
+            int debut = source.indexOf(OUVERTURE, position);
+            int fin = debut < 0 ? -1 : source.indexOf(FERMETURE, debut + OUVERTURE.length());
+            if (fin < 0) {
+                break;
+            }
+            literaux.add(source.substring(position, debut));
+            emplacements.add(source.substring(debut + OUVERTURE.length(), fin));
+            position = fin + FERMETURE.length();
+        }
+        literaux.add(source.substring(position));
+
+        return new TemplateCompile(literaux.toArray(new String[0]), emplacements.toArray(new String[0]));
+    }
+
+    /**
+     * Écrit le rendu dans la sortie fournie, valeurs échappées pour HTML.
+     * Un emplacement absent des valeurs est laissé tel quel.
+     */
+    public void rendre(Map<String, String> valeurs, Appendable sortie) {
+        try {
+            for (int i = 0; i < emplacements.length; i++) {
+                sortie.append(literaux[i]);
+                String nom = emplacements[i];
+                if (valeurs.containsKey(nom)) {
+                    String valeur = valeurs.get(nom);
+                    if (valeur != null) {
+                        echapperHtml(valeur, sortie);
+                    }
+                } else {
+                    sortie.append(OUVERTURE).append(nom).append(FERMETURE);
+                }
+            }
+            sortie.append(literaux[literaux.length - 1]);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void echapperHtml(String valeur, Appendable sortie) throws IOException {
+        int debut = 0;
+        for (int i = 0; i < valeur.length(); i++) {
+            String entite = switch (valeur.charAt(i)) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                case '\'' -> "&#39;";
+                default -> null;
+            };
+            if (entite != null) {
+                sortie.append(valeur, debut, i).append(entite);
+                debut = i + 1;
+            }
+        }
+        sortie.append(valeur, debut, valeur.length());
+    }
+
+    /**
+     * Taille minimale du rendu, utilisée pour dimensionner le tampon
+     */
+    public int getTailleLiteraux() {
+        return tailleLiteraux;
+    }
+}
@@ -0,0 +1,84 @@
+package com.ecodeli.ecodeli_backend.services.template;
+
+import com.ecodeli.ecodeli_backend.models.TemplateContrat;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compile et met en cache les templates (fichiers du classpath et TemplateContrat en base).
+ * Les templates de contrat sont versionnés par leur date de modification.
+ */
+@Service
+public class TemplateService {
+
+    private static final int TAILLE_MAX_TAMPON = 64 * 1024;
+
+    private final Map<String, TemplateCompile> templatesClasspath = new ConcurrentHashMap<>();
+    private final Map<Integer, TemplateContratCompile> templatesContrat = new ConcurrentHashMap<>();
+
+    private final ThreadLocal<StringBuilder> tampon = ThreadLocal.withInitial(() -> new StringBuilder(4096));
+
+    private record TemplateContratCompile(LocalDateTime version, TemplateCompile template) {
+    }
+
+    /**
+     * Rendu d'un template du classpath, compilé au premier usage
+     */
+    public String rendreClasspath(String chemin, Map<String, String> valeurs) {
+        TemplateCompile template = templatesClasspath.computeIfAbsent(chemin, c -> TemplateCompile.compiler(lireClasspath(c)));
+        return rendre(template, valeurs);
+    }
+
+    /**
+     * Rendu d'un template de contrat, recompilé si sa version a changé depuis la mise en cache
+     */
+    public String rendreContrat(TemplateContrat templateContrat, Map<String, String> valeurs) {
+        LocalDateTime version = templateContrat.getDateModification() != null
+            ? templateContrat.getDateModification() : templateContrat.getDateCreation();
+
+        TemplateContratCompile compile = templatesContrat.compute(templateContrat.getIdTemplate(), (id, existant) ->
+            existant != null && Objects.equals(existant.version(), version)
+                ? existant
+                : new TemplateContratCompile(version, TemplateCompile.compiler(templateContrat.getContenuTemplate())));
+
+        return rendre(compile.template(), valeurs);
+    }
+
+    /**
+     * Retirer un template de contrat du cache (mise à jour ou suppression)
+     */
+    public void invaliderContrat(Integer idTemplate) {
+        templatesContrat.remove(idTemplate);
+    }
+
+    private String rendre(TemplateCompile template, Map<String, String> valeurs) {
+        StringBuilder sortie = tampon.get();
+        sortie.setLength(0);
+        sortie.ensureCapacity(template.getTailleLiteraux());
+        try {
+            template.rendre(valeurs, sortie);
+            return sortie.toString();
+        } finally {
+            if (sortie.capacity() > TAILLE_MAX_TAMPON) {
+                tampon.remove();
+            }
+        }
+    }
+
+    private String lireClasspath(String chemin) {
+        try {
+            ClassPathResource resource = new ClassPathResource(chemin);
+            return new String(resource.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Template introuvable: " + chemin, e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+-- Index des chemins de requête fréquents.
+-- Les tables sont créées par Hibernate (ddl-auto) : cette migration est exécutée après
+-- l'initialisation JPA (voir MigrationSchemaConfig) et reste idempotente (IF NOT EXISTS),
+-- les mêmes index pouvant déjà exister via les @Index des entités.
+
+-- LIVRAISON : filtre par statut (back office, statistiques) et recherche par livreur de segment
+CREATE INDEX IF NOT EXISTS idx_livraison_statut ON LIVRAISON (statut);
+CREATE INDEX IF NOT EXISTS idx_livraison_annonce_type ON LIVRAISON (id_annonce, type_livraison);
+CREATE INDEX IF NOT EXISTS idx_livraison_segment1_type ON LIVRAISON (livreur_segment_1, type_livraison);
+CREATE INDEX IF NOT EXISTS idx_livraison_segment2_type ON LIVRAISON (livreur_segment_2, type_livraison);
+
+-- ANNONCE : fil des annonces publiées, annonces d'un expéditeur et d'un livreur
+CREATE INDEX IF NOT EXISTS idx_annonce_statut_date ON ANNONCE (statut, date_creation, id_annonce);
+CREATE INDEX IF NOT EXISTS idx_annonce_statut_cp_date ON ANNONCE (statut, code_postal_depart, date_creation);
+CREATE INDEX IF NOT EXISTS idx_annonce_expediteur ON ANNONCE (id_expediteur);
+CREATE INDEX IF NOT EXISTS idx_annonce_livreur ON ANNONCE (id_livreur);
+
+-- CANDIDATURE : anti-jointure des demandes disponibles pour un prestataire
+CREATE INDEX IF NOT EXISTS idx_candidature_prestataire_demande ON CANDIDATURE (id_prestataire, id_demande);
+
+-- DEMANDE_SERVICE : demandes publiées d'une catégorie
+CREATE INDEX IF NOT EXISTS idx_demande_categorie_statut_date ON DEMANDE_SERVICE (categorie_service, statut, date_creation);
+
+-- TRANSACTION_PORTEFEUILLE : historique d'un portefeuille trié par date
+CREATE INDEX IF NOT EXISTS idx_transaction_portefeuille_date ON TRANSACTION_PORTEFEUILLE (id_portefeuille, date_transaction);
+
+-- TRANSACTION_LIVREUR : historique d'un livreur trié par date
+CREATE INDEX IF NOT EXISTS idx_transaction_livreur_date ON TRANSACTION_LIVREUR (id_livreur, date_transaction);
+
+-- EVALUATION_MISSION : évaluations d'un prestataire
+CREATE INDEX IF NOT EXISTS idx_evaluation_prestataire ON EVALUATION_MISSION (id_prestataire);
+
+-- ANNONCE_COMMERCANT : annonces actives d'une catégorie non expirées
+CREATE INDEX IF NOT EXISTS idx_annonce_commercant_statut_categorie_expiration ON ANNONCE_COMMERCANT (statut, categorie, date_expiration);
+
+-- EMAIL_OUTBOX : relevé des emails échus
+CREATE INDEX IF NOT EXISTS idx_email_outbox_statut_tentative ON EMAIL_OUTBOX (statut, prochaine_tentative);
@@ -0,0 +1,12 @@
+-- Détails spécifiques des demandes de service : champs filtrables extraits du JSON
+-- dans des colonnes virtuelles (calculées par la base, jamais écrites par l'application) et indexées.
+-- Idempotente : Hibernate crée déjà ces colonnes et index sur un schéma neuf (columnDefinition / @Index).
+
+ALTER TABLE DEMANDE_SERVICE
+    ADD COLUMN IF NOT EXISTS details_urgence VARCHAR(30)
+        AS (JSON_VALUE(details_specifiques, '$.urgence')) VIRTUAL,
+    ADD COLUMN IF NOT EXISTS details_frequence VARCHAR(30)
+        AS (JSON_VALUE(details_specifiques, '$.frequence')) VIRTUAL;
+
+CREATE INDEX IF NOT EXISTS idx_demande_details_urgence ON DEMANDE_SERVICE (details_urgence, statut);
+CREATE INDEX IF NOT EXISTS idx_demande_details_frequence ON DEMANDE_SERVICE (details_frequence, statut);
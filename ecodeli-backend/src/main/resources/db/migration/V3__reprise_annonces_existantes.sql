@@ -0,0 +1,23 @@
+-- Reprise des annonces antérieures aux colonnes du fil (date_creation, code_postal_depart, ville_depart).
+-- Sans date de création, une annonce sort du parcours par curseur (dateCreation, idAnnonce) ;
+-- sans code postal ni ville, elle échappe aux filtres du fil.
+
+-- Date de création : la date de début prévue quand elle est déjà passée, sinon la date de la reprise.
+-- L'identifiant départage ensuite les annonces de même date dans le fil.
+-- Une colonne ajoutée NOT NULL sur une table existante est remplie avec la date zéro
+-- (0000-00-00 00:00:00) : ces lignes sont reprises comme les NULL.
+UPDATE ANNONCE
+SET date_creation = COALESCE(LEAST(date_debut, NOW(6)), NOW(6))
+WHERE date_creation IS NULL OR date_creation < '1000-01-01';
+
+-- Code postal et ville de départ, extraits de l'adresse comme à la création (« 75011 Paris, ... »)
+UPDATE ANNONCE
+SET code_postal_depart = REGEXP_SUBSTR(adresse_depart, '\\b[0-9]{5}(?=\\s+[^,0-9])'),
+    ville_depart = LEFT(TRIM(REGEXP_REPLACE(
+        REGEXP_SUBSTR(adresse_depart, '\\b[0-9]{5}\\s+[^,0-9][^,]*'), '^[0-9]{5}\\s+', '')), 100)
+WHERE code_postal_depart IS NULL
+  AND adresse_depart REGEXP '\\b[0-9]{5}\\s+[^,0-9]';
+
+-- La contrainte n'est posée qu'une fois la reprise faite (le mapping JPA laisse la colonne nullable,
+-- le schéma Hibernate étant mis à jour avant les migrations)
+ALTER TABLE ANNONCE MODIFY date_creation DATETIME(6) NOT NULL;
@@ -0,0 +1,6 @@
+-- Réservation des emails de l'outbox entre instances du backend : statut EN_COURS et jeton de réservation.
+-- Idempotente : Hibernate crée déjà la colonne et la valeur d'énumération sur un schéma neuf.
+
+ALTER TABLE EMAIL_OUTBOX
+    MODIFY statut ENUM('EN_ATTENTE', 'EN_COURS', 'ENVOYE', 'ECHEC_DEFINITIF') NOT NULL,
+    ADD COLUMN IF NOT EXISTS jeton_reservation VARCHAR(36);
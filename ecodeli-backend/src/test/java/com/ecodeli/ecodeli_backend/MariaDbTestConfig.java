@@ -0,0 +1,21 @@
+package com.ecodeli.ecodeli_backend;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.testcontainers.containers.MariaDBContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Base MariaDB jetable pour les tests d'intégration : les requêtes natives, les colonnes
+ * virtuelles JSON et les plans d'exécution n'ont de sens que sur le moteur de production.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class MariaDbTestConfig {
+
+    @Bean
+    @ServiceConnection
+    public MariaDBContainer<?> mariaDbContainer() {
+        return new MariaDBContainer<>(DockerImageName.parse("mariadb:11.2"));
+    }
+}
@@ -0,0 +1,150 @@
+package com.ecodeli.ecodeli_backend.config;
+
+import com.ecodeli.ecodeli_backend.MariaDbTestConfig;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Contrôle bloquant des plans des requêtes fréquentes : schéma Hibernate et migrations Flyway
+ * appliqués sur MariaDB, toutes les tables peuplées (l'optimiseur ne choisit un index qu'au-delà de
+ * quelques centaines de lignes, et les requêtes des repositories joignent plusieurs tables), puis
+ * chaque requête doit utiliser son index attendu, sans parcours complet.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "app.schema.verification-plans.active=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({MariaDbTestConfig.class, MigrationSchemaConfig.class, PlansRequetesVerifier.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PlansRequetesVerifierTest {
+
+    private static final int LIGNES_PAR_TABLE = 5000;
+    private static final int VALEURS_DISTINCTES = 50;
+
+    // Colonnes JSON dont dépendent des colonnes virtuelles indexées, et statuts d'historique : comme en
+    // production, la plupart des livraisons sont terminées et la plupart des emails envoyés
+    private static final Map<String, String> VALEURS_IMPOSEES = Map.of(
+        "DEMANDE_SERVICE.details_specifiques",
+        "JSON_OBJECT('urgence', ELT(seq % 4 + 1, 'urgent', 'normal', 'flexible', 'planifie'), " +
+        "'frequence', ELT(seq % 3 + 1, 'ponctuelle', 'hebdomadaire', 'mensuelle'))",
+        "LIVRAISON.statut", "IF(seq % " + VALEURS_DISTINCTES + " = 0, 'EN_COURS', 'TERMINEE')",
+        "EMAIL_OUTBOX.statut", "IF(seq % " + VALEURS_DISTINCTES + " = 0, 'EN_ATTENTE', 'ENVOYE')"
+    );
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlansRequetesVerifier plansRequetesVerifier;
+
+    @BeforeAll
+    void peuplerTables() {
+        List<String> tables = jdbcTemplate.queryForList(
+            "SELECT TABLE_NAME FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() " +
+            "AND TABLE_TYPE = 'BASE TABLE' AND TABLE_NAME <> 'flyway_schema_history'", String.class);
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) connexion -> {
+            try (Statement statement = connexion.createStatement()) {
+                // Les lignes générées référencent des clés étrangères fictives
+                statement.execute("SET FOREIGN_KEY_CHECKS = 0");
+                for (String table : tables) {
+                    statement.execute(insertionGeneree(table));
+                }
+                statement.execute("SET FOREIGN_KEY_CHECKS = 1");
+            }
+            return null;
+        });
+        tables.forEach(table -> jdbcTemplate.queryForList("ANALYZE TABLE " + table));
+    }
+
+    @Test
+    void chaqueRequeteFrequenteUtiliseSonIndex() {
+        assertThat(plansRequetesVerifier.echecs()).isEmpty();
+    }
+
+    /**
+     * INSERT ... SELECT sur une séquence : chaque colonne écrite reçoit une valeur compatible avec
+     * son type, les colonnes des clés primaires et index uniques une valeur distincte par ligne, les
+     * colonnes entières indexées une distribution sélective (VALEURS_DISTINCTES valeurs)
+     */
+    private String insertionGeneree(String table) {
+        Set<String> uniques = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        uniques.addAll(jdbcTemplate.queryForList(
+            "SELECT DISTINCT COLUMN_NAME FROM information_schema.STATISTICS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND NON_UNIQUE = 0", String.class, table));
+        Set<String> indexees = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        indexees.addAll(jdbcTemplate.queryForList(
+            "SELECT DISTINCT COLUMN_NAME FROM information_schema.STATISTICS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND INDEX_NAME <> 'PRIMARY'", String.class, table));
+
+        List<String> colonnes = new ArrayList<>();
+        List<String> valeurs = new ArrayList<>();
+        int colonnesEntieres = 0;
+        for (Map<String, Object> colonne : jdbcTemplate.queryForList(
+                "SELECT COLUMN_NAME, DATA_TYPE, COLUMN_TYPE, CHARACTER_MAXIMUM_LENGTH FROM information_schema.COLUMNS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND IS_GENERATED = 'NEVER' " +
+                "AND EXTRA NOT LIKE '%auto_increment%' ORDER BY ORDINAL_POSITION", table)) {
+            String nom = (String) colonne.get("COLUMN_NAME");
+            String type = (String) colonne.get("DATA_TYPE");
+            String valeur = VALEURS_IMPOSEES.get(table + "." + nom);
+            if (valeur == null) {
+                if (uniques.contains(nom)) {
+                    valeur = type.contains("char") || type.contains("text") ? "CONCAT('u', seq)" : "seq";
+                } else if (type.endsWith("int") && indexees.contains(nom)) {
+                    // Deux colonnes entières ne varient pas ensemble, pour ne pas corréler les index composites
+                    valeur = colonnesEntieres++ == 0
+                        ? "seq % " + VALEURS_DISTINCTES + " + 1"
+                        : "seq DIV " + VALEURS_DISTINCTES + " + 1";
+                } else {
+                    valeur = valeurParType(type, (String) colonne.get("COLUMN_TYPE"),
+                        (Number) colonne.get("CHARACTER_MAXIMUM_LENGTH"));
+                }
+            }
+            colonnes.add("`" + nom + "`");
+            valeurs.add(valeur);
+        }
+
+        return "INSERT INTO " + table + " (" + String.join(", ", colonnes) + ") SELECT "
+            + String.join(", ", valeurs) + " FROM seq_1_to_" + LIGNES_PAR_TABLE;
+    }
+
+    private static String valeurParType(String type, String typeComplet, Number longueurMax) {
+        return switch (type) {
+            case "enum" -> {
+                String liste = typeComplet.substring(typeComplet.indexOf('(') + 1, typeComplet.lastIndexOf(')'));
+                int nombre = liste.split("','").length;
+                yield "ELT(seq % " + nombre + " + 1, " + liste + ")";
+            }
+            case "varchar", "char" -> "LEFT(CONCAT('v', seq % " + VALEURS_DISTINCTES + "), " + longueurMax + ")";
+            case "text", "tinytext", "mediumtext", "longtext", "json" -> "'{}'";
+            case "blob", "tinyblob", "mediumblob", "longblob", "varbinary", "binary" -> "''";
+            case "datetime", "timestamp", "date" -> "NOW() - INTERVAL seq MINUTE";
+            case "time" -> "'12:00:00'";
+            case "bit" -> "seq % 2";
+            // 1 satisfait les contraintes CHECK déduites des annotations de validation (@Min, @Max...)
+            case "tinyint", "smallint", "int", "bigint", "decimal", "double", "float" -> "1";
+            default -> "DEFAULT";
+        };
+    }
+}
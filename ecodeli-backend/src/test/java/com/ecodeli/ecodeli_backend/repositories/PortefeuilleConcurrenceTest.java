@@ -0,0 +1,187 @@
+package com.ecodeli.ecodeli_backend.repositories;
+
+import com.ecodeli.ecodeli_backend.MariaDbTestConfig;
+import com.ecodeli.ecodeli_backend.models.Livreur;
+import com.ecodeli.ecodeli_backend.models.PortefeuillePrestataire;
+import com.ecodeli.ecodeli_backend.models.Prestataire;
+import com.ecodeli.ecodeli_backend.models.Utilisateur;
+import com.ecodeli.ecodeli_backend.services.PortefeuilleService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Crédits et débits concurrents sur un même portefeuille : le solde final doit égaler la somme
+ * du journal et ne jamais passer sous zéro, quel que soit l'entrelacement des mises à jour atomiques.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "spring.flyway.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({MariaDbTestConfig.class, PortefeuilleService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PortefeuilleConcurrenceTest {
+
+    private static final int THREADS = 16;
+    private static final int OPERATIONS = 400;
+    private static final BigDecimal GAIN = new BigDecimal("10.00");
+    private static final BigDecimal RETRAIT = new BigDecimal("25.00");
+    private static final String IBAN = "FR7630006000011234567890189";
+
+    @Autowired
+    private LivreurRepository livreurRepository;
+
+    @Autowired
+    private TransactionLivreurRepository transactionLivreurRepository;
+
+    @Autowired
+    private PrestataireRepository prestataireRepository;
+
+    @Autowired
+    private PortefeuilleRepository portefeuilleRepository;
+
+    @Autowired
+    private PortefeuilleService portefeuilleService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void soldeLivreurEgalJournalSousCreditsEtRetraitsConcurrents() throws Exception {
+        Integer livreurId = livreurRepository.save(nouveauLivreur()).getIdUtilisateur();
+        AtomicInteger retraitsAcceptes = new AtomicInteger();
+
+        BigDecimal soldeMinimum = executerConcurrent(
+            i -> {
+                if (i % 2 == 0) {
+                    portefeuilleService.ajouterGains(livreurId, GAIN);
+                } else if (portefeuilleService.traiterRetrait(livreurId, RETRAIT, IBAN)) {
+                    retraitsAcceptes.incrementAndGet();
+                }
+            },
+            () -> livreurRepository.findById(livreurId).orElseThrow().getSoldePortefeuille());
+
+        BigDecimal solde = livreurRepository.findById(livreurId).orElseThrow().getSoldePortefeuille();
+        assertThat(soldeMinimum).isGreaterThanOrEqualTo(BigDecimal.ZERO);
+        assertThat(solde).isGreaterThanOrEqualTo(BigDecimal.ZERO);
+        assertThat(solde).isEqualByComparingTo(transactionLivreurRepository.calculerSoldeJournal(livreurId));
+        assertThat(transactionLivreurRepository.findByLivreurIdUtilisateurOrderByDateTransactionDesc(livreurId))
+            .hasSize(OPERATIONS / 2 + retraitsAcceptes.get());
+        assertThat(retraitsAcceptes.get()).isLessThan(OPERATIONS / 2);
+    }
+
+    @Test
+    void soldePrestataireEgalMouvementsSousCreditsEtDebitsConcurrents() throws Exception {
+        Long portefeuilleId = portefeuilleRepository.save(nouveauPortefeuille()).getIdPortefeuille();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        AtomicInteger debitsAcceptes = new AtomicInteger();
+
+        BigDecimal soldeMinimum = executerConcurrent(
+            i -> transaction.executeWithoutResult(statut -> {
+                if (i % 2 == 0) {
+                    assertThat(portefeuilleRepository.crediter(portefeuilleId, GAIN)).isEqualTo(1);
+                } else if (portefeuilleRepository.debiterSiSoldeSuffisant(portefeuilleId, RETRAIT) == 1) {
+                    debitsAcceptes.incrementAndGet();
+                }
+            }),
+            () -> portefeuilleRepository.findById(portefeuilleId).orElseThrow().getSoldeDisponible());
+
+        PortefeuillePrestataire portefeuille = portefeuilleRepository.findById(portefeuilleId).orElseThrow();
+        BigDecimal totalCredite = GAIN.multiply(BigDecimal.valueOf(OPERATIONS / 2));
+        BigDecimal totalDebite = RETRAIT.multiply(BigDecimal.valueOf(debitsAcceptes.get()));
+
+        assertThat(soldeMinimum).isGreaterThanOrEqualTo(BigDecimal.ZERO);
+        assertThat(portefeuille.getSoldeDisponible()).isGreaterThanOrEqualTo(BigDecimal.ZERO);
+        assertThat(portefeuille.getSoldeDisponible()).isEqualByComparingTo(totalCredite.subtract(totalDebite));
+        assertThat(portefeuille.getTotalGagne()).isEqualByComparingTo(totalCredite);
+        assertThat(portefeuille.getTotalRetire()).isEqualByComparingTo(totalDebite);
+        assertThat(portefeuille.getNombreTransactions()).isEqualTo(OPERATIONS / 2 + debitsAcceptes.get());
+    }
+
+    /**
+     * Lance les opérations sur THREADS threads, départ simultané, en relevant le solde en continu ;
+     * renvoie le plus petit solde observé
+     */
+    private BigDecimal executerConcurrent(IntConsumer operation, Supplier<BigDecimal> lireSolde) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+        CountDownLatch depart = new CountDownLatch(1);
+        AtomicBoolean termine = new AtomicBoolean();
+        AtomicReference<BigDecimal> soldeMinimum = new AtomicReference<>(lireSolde.get());
+        try {
+            Future<?> releve = executor.submit(() -> {
+                while (!termine.get()) {
+                    BigDecimal solde = lireSolde.get();
+                    soldeMinimum.accumulateAndGet(solde, BigDecimal::min);
+                }
+            });
+
+            List<Future<?>> operations = new ArrayList<>();
+            for (int i = 0; i < OPERATIONS; i++) {
+                int numero = i;
+                operations.add(executor.submit(() -> {
+                    depart.await();
+                    operation.accept(numero);
+                    return null;
+                }));
+            }
+            depart.countDown();
+            for (Future<?> f : operations) {
+                f.get(2, TimeUnit.MINUTES);
+            }
+
+            termine.set(true);
+            releve.get(1, TimeUnit.MINUTES);
+        } finally {
+            executor.shutdownNow();
+        }
+        return soldeMinimum.get();
+    }
+
+    private Livreur nouveauLivreur() {
+        Livreur livreur = new Livreur();
+        renseignerIdentite(livreur);
+        return livreur;
+    }
+
+    private PortefeuillePrestataire nouveauPortefeuille() {
+        Prestataire prestataire = new Prestataire();
+        renseignerIdentite(prestataire);
+        prestataire.setNomEntreprise("Services Concurrents");
+
+        PortefeuillePrestataire portefeuille = new PortefeuillePrestataire();
+        portefeuille.setPrestataire(prestataireRepository.save(prestataire));
+        return portefeuille;
+    }
+
+    private void renseignerIdentite(Utilisateur utilisateur) {
+        utilisateur.setNom("Martin");
+        utilisateur.setPrenom("Camille");
+        utilisateur.setEmail("concurrence-" + UUID.randomUUID() + "@ecodeli.test");
+        utilisateur.setMotDePasse("Kv7#pLm9Qz!r");
+    }
+}
@@ -50,14 +50,17 @@ export const usePrestataireStore = defineStore('prestataire', () => {
     }
   }
 
-  const getDemandesDisponibles = async () => {
+  const getDemandesDisponibles = async (page = 0, size = 20) => {
     loading.value = true
     error.value = null
 
     try {
-      const response = await axios.get('/api/prestataire/demandes-disponibles')
-      demandesDisponibles.value = response.data
-      return { success: true, data: response.data }
+      const response = await axios.get('/api/prestataire/demandes-disponibles', {
+        params: { page, size }
+      })
+      const { content, number, totalElements, totalPages, last } = response.data
+      demandesDisponibles.value = page === 0 ? content : [...demandesDisponibles.value, ...content]
+      return { success: true, data: content, page: number, totalElements, totalPages, last }
     } catch (err) {
       error.value = err.response?.data?.error || 'Erreur lors du chargement des demandes'
       console.error('Erreur getDemandesDisponibles:', err)